@@ -15,8 +15,11 @@ public class Main {
         // Bootstrap interactor with MIDI and DB repository
         var midiAdapter = new JdkMidiOutputAdapter();
         var dbCfg = syrincs.d_frameworksAndDrivers.AppConfig.loadDbConfig(args);
-        var repo = new PostgresHindemithChordRepository(dbCfg.url, dbCfg.user, dbCfg.password);
-        var interactor = new UseCaseInteractor(midiAdapter, repo);
+        var repo = new PostgresHindemithChordRepository(dbCfg.url, dbCfg.user, dbCfg.password, dbCfg.poolSize);
+        // Höchstens so viele gleichzeitige Abfragen wie Verbindungen im Pool
+        var interactor = new UseCaseInteractor(midiAdapter, repo, dbCfg.poolSize);
+        // Pool schließen und Metriken loggen, auch bei System.exit
+        Runtime.getRuntime().addShutdownHook(new Thread(repo::close, "db-pool-shutdown"));
 
         // Filter out DB-related CLI flags before passing to PicoCli so they don't appear in help
         String[] filtered = filterDbArgs(args);
@@ -41,7 +44,8 @@ public class Main {
         for (String a : args) {
             if (a == null) continue;
             String lower = a.toLowerCase();
-            if (lower.startsWith("--db-url=") || lower.startsWith("--db-user=") || lower.startsWith("--db-pass=")) {
+            if (lower.startsWith("--db-url=") || lower.startsWith("--db-user=") || lower.startsWith("--db-pass=")
+                    || lower.startsWith("--db-pool-size=")) {
                 // skip
             } else {
                 out.add(a);
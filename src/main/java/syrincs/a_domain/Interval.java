@@ -1,10 +1,6 @@
 package syrincs.a_domain;
 
 
-import syrincs.b_application.PersistHindemithChordUseCase;
-
-import java.util.logging.Logger;
-
 public class Interval {
 
     private final int lowNote;
@@ -12,16 +8,10 @@ public class Interval {
     private final int realDifference;
     private final int differenceWithoutOctavations;
 
-    private final Logger LOGGER = Logger.getLogger(Interval.class.getName());
     public Interval(int lowNote, int highNote) {
-        if(lowNote <= highNote){
-            this.lowNote = lowNote;
-            this.highNote = highNote;
-        } else {
-            this.highNote = lowNote;
-            this.lowNote = highNote;
-            LOGGER.info("Variable lowNote ist größer als highNote. Die Werte wurden getauscht.");
-        }
+        // Vertauschte Töne werden stillschweigend sortiert
+        this.lowNote = Math.min(lowNote, highNote);
+        this.highNote = Math.max(lowNote, highNote);
         this.realDifference = (this.highNote - this.lowNote);
         this.differenceWithoutOctavations = realDifference % 12;
 
@@ -32,6 +32,15 @@ public class Scale {
     public String getName() {
         return name;
     }
+    /**
+     * 12-bit mask of the pitch classes of the scale (bit pc set for every pc in the scale).
+     */
+    public int getPitchClassMask() {
+        int mask = 0;
+        for (Integer interval : intervals) mask |= 1 << Math.floorMod(interval, 12);
+        return mask;
+    }
+
     public int getTonicByOctave(int octave){
         int tonicOctaved = octave * 12 + tonic;
         if(tonicOctaved < midiA0){
@@ -3,59 +3,116 @@ package syrincs.a_domain.chord;
 import syrincs.a_domain.Interval;
 import syrincs.a_domain.hindemith.HindemithInterval;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.RandomAccess;
 
+/**
+ * Immutable chord. The MIDI notes are packed into a byte[] (one byte per note, in the given order); the note list
+ * and all interval lists are computed on demand from the interned {@link HindemithInterval} table, so a chord costs
+ * a few dozen bytes on the heap.
+ */
 public class Chord {
-    private final List<Integer> notes;
-
-    private List<String> associatedScales = new ArrayList<>(); // Liste der Namen der zugrundeliegenden Skalen
-    private final List<Interval> allIntervals;
-    private final int frameInterval;
+    private final byte[] notes;
 
     public Chord(List<Integer> notes) {
-        this.notes = notes;
-        this.frameInterval = Collections.max(notes) - Collections.min(notes);
-        this.allIntervals = calculateAllIntervals();
+        if (notes.isEmpty()) {
+            throw new IllegalArgumentException("Chord needs at least one note");
+        }
+        this.notes = new byte[notes.size()];
+        for (int i = 0; i < this.notes.length; i++) {
+            int note = notes.get(i);
+            if (note < 0 || note > 127) {
+                throw new IllegalArgumentException("MIDI note out of range 0..127: " + note);
+            }
+            this.notes[i] = (byte) note;
+        }
     }
 
-
+    // Alle Tonpaare (i < j) in Eingabereihenfolge; die ersten numNotes-1 sind die Intervalle vom ersten Ton aus
     private List<Interval> calculateAllIntervals(){
         List<Interval> intervals = new ArrayList<>();
-        for (int i = 0; i < notes.size(); i++) {
-            for (int j = i + 1; j < notes.size(); j++) {
-                Interval interval = new Interval(notes.get(i), notes.get(j));
+        for (int i = 0; i < notes.length; i++) {
+            for (int j = i + 1; j < notes.length; j++) {
+                Interval interval = HindemithInterval.of(Math.min(notes[i], notes[j]), Math.max(notes[i], notes[j]));
                 intervals.add(interval);
             }
         }
         return intervals;
     }
 
+    /**
+     * Read-only view on the notes.
+     */
     public List<Integer> getNotes() {
-        return notes;
+        return new NotesView();
+    }
+
+    public int getNote(int index) {
+        return notes[index];
     }
 
     public int getNumNotes() {
-        return notes.size();
+        return notes.length;
     }
 
-    public List<String> getAssociatedScales() {
-        return associatedScales;
+    /**
+     * Intervals between all note pairs, computed on each call.
+     */
+    public List<Interval> getAllIntervals() {
+        return calculateAllIntervals();
     }
 
-    public void setAssociatedScales(List<String> associatedScales) {
-        this.associatedScales = associatedScales;
+    public int getFrameInterval(){
+        int min = notes[0];
+        int max = notes[0];
+        for (byte note : notes) {
+            min = Math.min(min, note);
+            max = Math.max(max, note);
+        }
+        return max - min;
     }
 
-    public List<Interval> getAllIntervals() {
-        return allIntervals;
+    /**
+     * 12-bit mask of the pitch classes: bit pc is set if a note with note % 12 == pc is in the chord.
+     */
+    public int getPitchClassMask() {
+        int mask = 0;
+        for (byte note : notes) mask |= 1 << (note % 12);
+        return mask;
     }
 
-    public int getFrameInterval(){
-        return frameInterval;
+    /**
+     * 12-bit mask of the intervals between all note pairs, reduced to one octave: bit |a - b| % 12 (bit 0 for
+     * unisons and octaves, bit 6 for tritones).
+     */
+    public int getIntervalMask() {
+        int mask = 0;
+        for (int i = 0; i < notes.length; i++) {
+            for (int j = i + 1; j < notes.length; j++) mask |= 1 << (Math.abs(notes[i] - notes[j]) % 12);
+        }
+        return mask;
+    }
+
+    /**
+     * {@link #getPitchClassMask()} of the chord notes[from .. from + k - 1].
+     */
+    public static int pitchClassMask(int[] notes, int from, int k) {
+        int mask = 0;
+        for (int i = 0; i < k; i++) mask |= 1 << (notes[from + i] % 12);
+        return mask;
+    }
+
+    /**
+     * {@link #getIntervalMask()} of the chord notes[from .. from + k - 1].
+     */
+    public static int intervalMask(int[] notes, int from, int k) {
+        int mask = 0;
+        for (int i = 0; i < k; i++) {
+            for (int j = i + 1; j < k; j++) mask |= 1 << (Math.abs(notes[from + i] - notes[from + j]) % 12);
+        }
+        return mask;
     }
 
     public Chord transpose(Chord chord, int pitch){
@@ -66,6 +123,18 @@ public class Chord {
 
 
     public String toString(){
-        return notes.toString();
+        return getNotes().toString();
+    }
+
+    private final class NotesView extends AbstractList<Integer> implements RandomAccess {
+        @Override
+        public Integer get(int index) {
+            return (int) notes[index];
+        }
+
+        @Override
+        public int size() {
+            return notes.length;
+        }
     }
 }
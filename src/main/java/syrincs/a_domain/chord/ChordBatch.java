@@ -0,0 +1,136 @@
+package syrincs.a_domain.chord;
+
+import java.util.Arrays;
+
+/**
+ * Flat, primitive buffer of chords with the same number of notes.
+ *
+ * Notes are stored strided (chord c occupies notes[c * numNotes .. c * numNotes + numNotes - 1], ascending);
+ * analysis results are kept in the parallel arrays rootNotes and groups. Used along the calculate path
+ * (generate, analyze, persist) so no per-chord objects are created.
+ */
+public final class ChordBatch {
+
+    private final int numNotes;
+    private final int[] notes;
+    private final int[] rootNotes;
+    private final byte[] groups;
+    private int size;
+
+    public ChordBatch(int numNotes, int capacity) {
+        if (numNotes <= 0) throw new IllegalArgumentException("numNotes must be > 0");
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.numNotes = numNotes;
+        this.notes = new int[numNotes * capacity];
+        this.rootNotes = new int[capacity];
+        this.groups = new byte[capacity];
+    }
+
+    /**
+     * Appends the chord src[from .. from + numNotes - 1] (ascending) and returns its index.
+     */
+    public int add(int[] src, int from) {
+        if (isFull()) throw new IllegalStateException("ChordBatch is full");
+        System.arraycopy(src, from, notes, size * numNotes, numNotes);
+        return size++;
+    }
+
+    /**
+     * Appends a chord together with its analysis result and returns its index.
+     */
+    public int add(int[] src, int from, int rootNote, int group) {
+        int c = add(src, from);
+        rootNotes[c] = rootNote;
+        groups[c] = (byte) group;
+        return c;
+    }
+
+    /**
+     * Removes all chords whose group is not marked in keep (indexed by group number), preserving the order.
+     */
+    public void retainGroups(boolean[] keep) {
+        int w = 0;
+        for (int c = 0; c < size; c++) {
+            int g = groups[c];
+            if (g >= 0 && g < keep.length && keep[g]) {
+                if (w != c) {
+                    System.arraycopy(notes, c * numNotes, notes, w * numNotes, numNotes);
+                    rootNotes[w] = rootNotes[c];
+                    groups[w] = groups[c];
+                }
+                w++;
+            }
+        }
+        size = w;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int getNumNotes() {
+        return numNotes;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return rootNotes.length;
+    }
+
+    public boolean isFull() {
+        return size == rootNotes.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Backing note array (strided by numNotes); only the first size * numNotes entries are valid.
+     */
+    public int[] notes() {
+        return notes;
+    }
+
+    /**
+     * Offset of chord c in {@link #notes()}.
+     */
+    public int offset(int c) {
+        return c * numNotes;
+    }
+
+    public int note(int c, int i) {
+        return notes[c * numNotes + i];
+    }
+
+    public int minNote(int c) {
+        return notes[c * numNotes];
+    }
+
+    public int maxNote(int c) {
+        return notes[c * numNotes + numNotes - 1];
+    }
+
+    /**
+     * Backing root note array, parallel to the chords.
+     */
+    public int[] rootNotes() {
+        return rootNotes;
+    }
+
+    /**
+     * Backing group array, parallel to the chords.
+     */
+    public byte[] groups() {
+        return groups;
+    }
+
+    @Override
+    public String toString() {
+        return "ChordBatch[numNotes=" + numNotes + ", size=" + size + ", first=" +
+                (size == 0 ? "-" : Arrays.toString(Arrays.copyOfRange(notes, 0, numNotes))) + "]";
+    }
+}
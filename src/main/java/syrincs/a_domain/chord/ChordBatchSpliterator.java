@@ -0,0 +1,47 @@
+package syrincs.a_domain.chord;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Batches the chords of a {@link CombinationSpliterator} into {@link ChordBatch}es. Splitting is delegated to the
+ * underlying enumeration, so batch streams can run in parallel with the same encounter order.
+ */
+final class ChordBatchSpliterator implements Spliterator<ChordBatch> {
+
+    private final CombinationSpliterator chords;
+    private final int numNotes;
+    private final int batchSize;
+
+    ChordBatchSpliterator(CombinationSpliterator chords, int numNotes, int batchSize) {
+        this.chords = chords;
+        this.numNotes = numNotes;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ChordBatch> action) {
+        ChordBatch batch = new ChordBatch(numNotes, batchSize);
+        chords.fill(batch);
+        if (batch.isEmpty()) return false;
+        action.accept(batch);
+        return true;
+    }
+
+    @Override
+    public Spliterator<ChordBatch> trySplit() {
+        CombinationSpliterator prefix = (CombinationSpliterator) chords.trySplit();
+        return prefix == null ? null : new ChordBatchSpliterator(prefix, numNotes, batchSize);
+    }
+
+    @Override
+    public long estimateSize() {
+        long chordCount = chords.estimateSize();
+        return (chordCount + batchSize - 1) / batchSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -0,0 +1,90 @@
+package syrincs.a_domain.chord;
+
+import java.util.Set;
+
+/**
+ * Pruning constraint for the chord enumeration.
+ *
+ * The enumerator places notes in ascending order and asks every constraint after each placement whether the
+ * partial chord notes[0..index] is still admissible. Constraints must be monotone: once a partial chord is
+ * rejected, no extension of it may be accepted. This lets the enumerator skip whole subtrees.
+ */
+public interface ChordConstraint {
+
+    /**
+     * @param notes ascending notes, only positions 0..index are valid
+     * @param index position of the note that was placed last
+     * @return false if no chord starting with notes[0..index] can satisfy the constraint
+     */
+    boolean accepts(int[] notes, int index);
+
+    /**
+     * Highest note that may be placed at position index given notes[0..index-1]. Allows the enumerator to stop a
+     * whole loop instead of testing (and rejecting) every remaining candidate.
+     */
+    default int upperBound(int[] notes, int index, int max) {
+        return max;
+    }
+
+    /**
+     * Spannweite (höchster minus tiefster Ton) höchstens semitones.
+     */
+    static ChordConstraint maxSpan(int semitones) {
+        return new ChordConstraint() {
+            @Override
+            public boolean accepts(int[] notes, int index) {
+                return notes[index] - notes[0] <= semitones;
+            }
+
+            @Override
+            public int upperBound(int[] notes, int index, int max) {
+                return index == 0 ? max : Math.min(max, notes[0] + semitones);
+            }
+        };
+    }
+
+    /**
+     * Tiefster Ton genau note (ein Block der Enumeration, z. B. für deterministische Ladeblöcke).
+     */
+    static ChordConstraint lowestNote(int note) {
+        return new ChordConstraint() {
+            @Override
+            public boolean accepts(int[] notes, int index) {
+                return notes[0] == note;
+            }
+
+            @Override
+            public int upperBound(int[] notes, int index, int max) {
+                return index == 0 ? Math.min(max, note) : max;
+            }
+        };
+    }
+
+    /**
+     * Keine Tonklasse doppelt.
+     */
+    static ChordConstraint uniquePitchClasses() {
+        return (notes, index) -> {
+            int pc = Math.floorMod(notes[index], 12);
+            for (int j = 0; j < index; j++) {
+                if (Math.floorMod(notes[j], 12) == pc) return false;
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Kein Tonpaar, dessen Abstand ohne Oktavierungen ((high - low) % 12) in der Menge liegt.
+     * Same semantics as the excludeIntervals check of a ChordSpecification.
+     */
+    static ChordConstraint excludeIntervals(Set<Integer> intervals) {
+        boolean[] excluded = new boolean[12];
+        for (Integer i : intervals) excluded[Math.floorMod(i, 12)] = true;
+        return (notes, index) -> {
+            for (int j = 0; j < index; j++) {
+                if (excluded[(notes[index] - notes[j]) % 12]) return false;
+            }
+            return true;
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package syrincs.a_domain.chord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bijection between the k-combinations of [min, max] and the numbers 0 .. size()-1, based on the
+ * combinatorial number system (combinadic).
+ *
+ * Ranks follow the lexicographic order of {@link NoteCombinator}, i.e. rank 0 is [min, min+1, ...] and the
+ * rank of a chord equals its position in the unconstrained enumeration. Both directions cost O(k * n) at most
+ * and need no enumeration of the space.
+ */
+public final class CombinationRanking {
+
+    private final int k;
+    private final int min;
+    private final int n;
+    private final long size;
+
+    public CombinationRanking(int k, int min, int max) {
+        if (k <= 0) throw new IllegalArgumentException("k must be > 0");
+        if (max - min + 1 < k) throw new IllegalArgumentException("Range [" + min + ", " + max + "] has fewer than " + k + " notes");
+        this.k = k;
+        this.min = min;
+        this.n = max - min + 1;
+        this.size = binomial(n, k);
+    }
+
+    /**
+     * Number of k-combinations in the range.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Lexicographic rank of a strictly ascending chord inside the range.
+     */
+    public long rank(List<Integer> chord) {
+        int[] notes = new int[chord.size()];
+        for (int i = 0; i < notes.length; i++) notes[i] = chord.get(i);
+        return rank(notes);
+    }
+
+    /**
+     * Same as {@link #rank(List)} for a chord given as an int array.
+     */
+    public long rank(int[] chord) {
+        if (chord.length != k) throw new IllegalArgumentException("Chord must have " + k + " notes: " + Arrays.toString(chord));
+        long combinadic = 0;
+        int previous = -1;
+        for (int i = 0; i < k; i++) {
+            int x = chord[i] - min;
+            if (x <= previous || x >= n) throw new IllegalArgumentException("Chord must be strictly ascending inside the range: " + Arrays.toString(chord));
+            previous = x;
+            combinadic += binomial(n - 1 - x, k - i);
+        }
+        return size - 1 - combinadic;
+    }
+
+    /**
+     * Chord with the given lexicographic rank.
+     */
+    public List<Integer> unrank(long rank) {
+        int[] notes = unrankToArray(rank);
+        List<Integer> chord = new ArrayList<>(k);
+        for (int v : notes) chord.add(v);
+        return chord;
+    }
+
+    /**
+     * Same as {@link #unrank(long)} but returns the notes as an int array.
+     */
+    public int[] unrankToArray(long rank) {
+        if (rank < 0 || rank >= size) throw new IllegalArgumentException("rank out of bounds: " + rank);
+        long combinadic = size - 1 - rank;
+        int[] notes = new int[k];
+        int y = n; // strikt fallend
+        for (int i = 0; i < k; i++) {
+            int j = k - i;
+            // größtes y mit binomial(y, j) <= combinadic
+            y--;
+            while (binomial(y, j) > combinadic) y--;
+            combinadic -= binomial(y, j);
+            notes[i] = min + (n - 1 - y);
+        }
+        return notes;
+    }
+
+    /**
+     * Binomial coefficient C(n, r); 0 if r is out of range.
+     */
+    public static long binomial(int n, int r) {
+        if (r < 0 || n < r) return 0;
+        r = Math.min(r, n - r);
+        long result = 1;
+        for (int i = 1; i <= r; i++) {
+            result = result * (n - r + i) / i;
+        }
+        return result;
+    }
+}
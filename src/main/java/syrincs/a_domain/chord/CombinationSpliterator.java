@@ -0,0 +1,155 @@
+package syrincs.a_domain.chord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splittable walk over the strictly ascending k-combinations of [min, max] in lexicographic order.
+ *
+ * Constraints are evaluated after every placed note, so a rejected prefix prunes its whole subtree. The
+ * spliterator covers all combinations whose lowest note lies in [firstLow, firstHigh]. trySplit hands the lower
+ * half of that prefix range (weighted by the number of candidates per lowest note) to a new spliterator, which
+ * keeps the encounter order intact for ordered parallel streams.
+ */
+final class CombinationSpliterator implements Spliterator<List<Integer>> {
+
+    private final int k;
+    private final int max;
+    private final List<ChordConstraint> constraints;
+    private final EnumerationStats stats;
+    private final int[] buf;
+    private final int[] next; // nächster Kandidat je Position
+    private int firstHigh;
+    private int depth;        // Anzahl der gesetzten, zulässigen Töne
+    private boolean started;
+    private boolean exhausted;
+
+    CombinationSpliterator(int k, int min, int max, List<ChordConstraint> constraints, EnumerationStats stats) {
+        this(k, min, max - k + 1, max, constraints, stats);
+    }
+
+    private CombinationSpliterator(int k, int firstLow, int firstHigh, int max,
+                                   List<ChordConstraint> constraints, EnumerationStats stats) {
+        this.k = k;
+        this.max = max;
+        this.constraints = constraints;
+        this.stats = stats;
+        this.firstHigh = firstHigh;
+        this.buf = new int[k];
+        this.next = new int[k];
+        this.next[0] = firstLow;
+        this.exhausted = firstLow > firstHigh;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<Integer>> action) {
+        started = true;
+        if (exhausted || !findNext()) return false;
+        List<Integer> chord = new ArrayList<>(k);
+        for (int v : buf) chord.add(v);
+        stats.emit();
+        action.accept(chord);
+        return true;
+    }
+
+    /**
+     * Appends the next chords to the batch until it is full or the range is exhausted.
+     */
+    void fill(ChordBatch batch) {
+        started = true;
+        while (!batch.isFull() && !exhausted && findNext()) {
+            batch.add(buf, 0);
+            stats.emit();
+        }
+    }
+
+    /**
+     * Iterative depth-first search: fills buf up to k notes, backtracking whenever a position runs out of
+     * candidates. Returns false once the prefix range is exhausted.
+     */
+    private boolean findNext() {
+        int i = depth == k ? k - 1 : depth;
+        while (true) {
+            int upper = upperBound(i);
+            if (next[i] > upper) {
+                if (i == 0) {
+                    exhausted = true;
+                    return false;
+                }
+                i--;
+                continue;
+            }
+            buf[i] = next[i]++;
+            stats.visit();
+            if (!accepts(i)) continue;
+            if (i == k - 1) {
+                depth = k;
+                return true;
+            }
+            next[i + 1] = buf[i] + 1;
+            i++;
+        }
+    }
+
+    private int upperBound(int index) {
+        int upper = index == 0 ? firstHigh : max - (k - 1 - index);
+        for (ChordConstraint c : constraints) {
+            upper = Math.min(upper, c.upperBound(buf, index, max));
+        }
+        return upper;
+    }
+
+    private boolean accepts(int index) {
+        for (ChordConstraint c : constraints) {
+            if (!c.accepts(buf, index)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Spliterator<List<Integer>> trySplit() {
+        // Nur vor dem ersten tryAdvance teilen, dann ist der Präfixbereich noch unberührt
+        if (started || exhausted) return null;
+        int firstLow = next[0];
+        if (firstLow >= firstHigh) return null;
+
+        long half = estimateSize() / 2;
+        long acc = 0;
+        int split = firstLow;
+        while (split < firstHigh - 1) {
+            acc += countWithLowest(split);
+            if (acc >= half) break;
+            split++;
+        }
+        CombinationSpliterator prefix = new CombinationSpliterator(k, firstLow, split, max, constraints, stats);
+        next[0] = split + 1;
+        return prefix;
+    }
+
+    private long countWithLowest(int lowest) {
+        // Obergrenze der übrigen Töne bei diesem Basston, inklusive der Schranken der Constraints (z.B. Spannweite)
+        int saved = buf[0];
+        buf[0] = lowest;
+        int upper = max;
+        for (ChordConstraint c : constraints) {
+            upper = Math.min(upper, c.upperBound(buf, 1, max));
+        }
+        buf[0] = saved;
+        return CombinationRanking.binomial(upper - lowest, k - 1);
+    }
+
+    @Override
+    public long estimateSize() {
+        if (exhausted) return 0;
+        long size = 0;
+        for (int f = next[0]; f <= firstHigh; f++) size += countWithLowest(f);
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+    }
+}
@@ -0,0 +1,33 @@
+package syrincs.a_domain.chord;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a chord enumeration: how many (partial) candidates were tested against the constraints and how
+ * many complete chords were emitted. Thread-safe, so it can be shared by the parts of a split enumeration.
+ */
+public final class EnumerationStats {
+    private final LongAdder visited = new LongAdder();
+    private final LongAdder emitted = new LongAdder();
+
+    void visit() {
+        visited.increment();
+    }
+
+    void emit() {
+        emitted.increment();
+    }
+
+    public long getVisited() {
+        return visited.sum();
+    }
+
+    public long getEmitted() {
+        return emitted.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "visited=" + getVisited() + ", emitted=" + getEmitted();
+    }
+}
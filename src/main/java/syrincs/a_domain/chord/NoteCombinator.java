@@ -2,12 +2,15 @@ package syrincs.a_domain.chord;
 
 import java.util.*;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 
 public class NoteCombinator {
 
     private static final Logger LOGGER = Logger.getLogger(NoteCombinator.class.getName());
+    private static final long MAX_SAMPLE_ATTEMPTS_PER_CHORD = 10_000L;
 
     public List<List<Integer>> generateChords(int k, int minLowerNote, int maxUpperNote) {
         if (k <= 0) return List.of();
@@ -22,6 +25,154 @@ public class NoteCombinator {
         return keepUniquePitchClasses(all);
     }
 
+    /**
+     * Lazy variant of {@link #generateChords(int, int, int)}: emits one chord at a time in the same
+     * (lexicographic) order, so the heap usage does not depend on the size of the note range.
+     */
+    public Stream<List<Integer>> streamChords(int k, int minLowerNote, int maxUpperNote) {
+        return streamChords(k, minLowerNote, maxUpperNote, List.of(ChordConstraint.uniquePitchClasses()), new EnumerationStats());
+    }
+
+    /**
+     * Same as {@link #streamChords(int, int, int)} but additionally drops chords wider than the given octaves.
+     */
+    public Stream<List<Integer>> streamChords(int k, int minLowerNote, int maxUpperNote, int octaves) {
+        return streamChords(k, minLowerNote, maxUpperNote, defaultConstraints(octaves), new EnumerationStats());
+    }
+
+    /**
+     * Parallel-capable variant: the combination space is split by the lowest note, so the returned stream can be
+     * processed on a ForkJoinPool. Encounter order is the lexicographic order of the sequential stream.
+     */
+    public Stream<List<Integer>> streamChords(int k, int minLowerNote, int maxUpperNote, int octaves, boolean parallel) {
+        Stream<List<Integer>> chords = streamChords(k, minLowerNote, maxUpperNote, octaves);
+        return parallel ? chords.parallel() : chords;
+    }
+
+    /**
+     * Enumerates the k-combinations of the range that satisfy all constraints. The constraints are evaluated
+     * inside the enumeration, so rejected prefixes are never extended. The stats count visited candidates
+     * versus emitted chords.
+     */
+    public Stream<List<Integer>> streamChords(int k, int minLowerNote, int maxUpperNote,
+                                              List<ChordConstraint> constraints, EnumerationStats stats) {
+        if (k <= 0 || minLowerNote > maxUpperNote || (maxUpperNote - minLowerNote + 1) < k) {
+            return Stream.empty();
+        }
+        return StreamSupport.stream(
+                new CombinationSpliterator(k, minLowerNote, maxUpperNote, List.copyOf(constraints), stats), false);
+    }
+
+    /**
+     * Same enumeration as {@link #streamChords(int, int, int, List, EnumerationStats)}, but the chords are
+     * delivered in flat {@link ChordBatch}es of up to batchSize chords instead of one list per chord.
+     */
+    public Stream<ChordBatch> streamBatches(int k, int minLowerNote, int maxUpperNote,
+                                            List<ChordConstraint> constraints, int batchSize, EnumerationStats stats) {
+        if (k <= 0 || minLowerNote > maxUpperNote || (maxUpperNote - minLowerNote + 1) < k) {
+            return Stream.empty();
+        }
+        CombinationSpliterator chords = new CombinationSpliterator(k, minLowerNote, maxUpperNote, List.copyOf(constraints), stats);
+        return StreamSupport.stream(new ChordBatchSpliterator(chords, k, batchSize), false);
+    }
+
+    /**
+     * Revolving-door enumeration of all k-chords with the given lowest note that satisfy the constraints. The upper
+     * notes come from the window bass+1 .. min(maxUpperNote, constraint upper bounds) and run through their
+     * combinations in Gray-code order (Knuth, Algorithm R): consecutive chords differ in exactly one note. The
+     * visitor sees every step (reset/swap) and, via visit, only the chords accepted by all constraints.
+     *
+     * Per lowest note the chords are the same as in {@link #streamChords(int, int, int, List, EnumerationStats)},
+     * only in a different order.
+     */
+    public void forEachRevolvingDoor(int k, int bass, int maxUpperNote, List<ChordConstraint> constraints,
+                                     EnumerationStats stats, RevolvingDoorVisitor visitor) {
+        if (k <= 0 || bass > maxUpperNote) return;
+        int[] notes = new int[k];
+        notes[0] = bass;
+        int top = maxUpperNote;
+        for (ChordConstraint c : constraints) {
+            top = Math.min(top, c.upperBound(notes, 1, maxUpperNote));
+        }
+        int window = top - bass;
+        int t = k - 1;
+        if (t == 0) {
+            visitor.reset(notes, k);
+            stats.visit();
+            if (acceptsAll(constraints, notes)) {
+                stats.emit();
+                visitor.visit(notes, k);
+            }
+            return;
+        }
+        if (window < t) return;
+
+        RevolvingDoor door = new RevolvingDoor(window, t);
+        for (int i = 0; i < t; i++) notes[i + 1] = bass + 1 + door.get(i);
+        visitor.reset(notes, k);
+        do {
+            stats.visit();
+            if (acceptsAll(constraints, notes)) {
+                stats.emit();
+                visitor.visit(notes, k);
+            }
+            if (!door.next()) break;
+            for (int i = 0; i < t; i++) notes[i + 1] = bass + 1 + door.get(i);
+            visitor.swap(bass + 1 + door.removed(), bass + 1 + door.added());
+        } while (true);
+    }
+
+    /**
+     * Draws a uniform random sample of chords satisfying all constraints without enumerating the space.
+     *
+     * Ranks are drawn uniformly from the unconstrained combination space, unranked and rejected if they violate
+     * a constraint, so every admissible chord has the same probability. The sample is returned in lexicographic
+     * order and may be smaller than requested if the admissible space is smaller (or too sparse to hit).
+     */
+    public List<List<Integer>> sampleChords(int k, int minLowerNote, int maxUpperNote,
+                                            List<ChordConstraint> constraints, int sampleSize, Random random) {
+        if (sampleSize <= 0 || k <= 0 || minLowerNote > maxUpperNote || (maxUpperNote - minLowerNote + 1) < k) {
+            return List.of();
+        }
+        CombinationRanking ranking = new CombinationRanking(k, minLowerNote, maxUpperNote);
+        long size = ranking.size();
+        long maxAttempts = MAX_SAMPLE_ATTEMPTS_PER_CHORD * sampleSize;
+        Set<Long> drawn = new HashSet<>();
+        TreeMap<Long, List<Integer>> accepted = new TreeMap<>();
+        long attempts = 0;
+        while (accepted.size() < sampleSize && drawn.size() < size && attempts < maxAttempts) {
+            attempts++;
+            long rank = random.nextLong(size);
+            if (!drawn.add(rank)) continue;
+            int[] notes = ranking.unrankToArray(rank);
+            if (acceptsAll(constraints, notes)) {
+                List<Integer> chord = new ArrayList<>(k);
+                for (int v : notes) chord.add(v);
+                accepted.put(rank, chord);
+            }
+        }
+        if (accepted.size() < sampleSize) {
+            LOGGER.warning("Sample of " + k + "-note chords has only " + accepted.size() + " of " + sampleSize + " chords after " + attempts + " draws.");
+        }
+        return new ArrayList<>(accepted.values());
+    }
+
+    private static boolean acceptsAll(List<ChordConstraint> constraints, int[] notes) {
+        for (int i = 0; i < notes.length; i++) {
+            for (ChordConstraint c : constraints) {
+                if (!c.accepts(notes, i)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Constraints of the standard generation: unique pitch classes and a span of at most the given octaves.
+     */
+    public static List<ChordConstraint> defaultConstraints(int octaves) {
+        return List.of(ChordConstraint.maxSpan(octaves * 12), ChordConstraint.uniquePitchClasses());
+    }
+
     public List<List<Integer>> keepWidthLessThanOctaves(List<List<Integer>> all, int octaves){
         List<List<Integer>> filtered = new ArrayList<>();
         for (List<Integer> chord : all) {
@@ -80,6 +231,4 @@ public class NoteCombinator {
             System.out.println(chord);
         }
     }
-
-
 }
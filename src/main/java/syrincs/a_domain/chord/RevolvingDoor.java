@@ -0,0 +1,95 @@
+package syrincs.a_domain.chord;
+
+/**
+ * Revolving-door order of the t-combinations of {0 .. n-1} (Knuth, TAOCP 7.2.1.3, Algorithm R): consecutive
+ * combinations differ in exactly one element, one leaves and one enters. The combination is kept ascending.
+ */
+final class RevolvingDoor {
+    private final int t;
+    private final int[] c; // c[1..t] aufsteigend, c[t+1] = n als Wächter
+    private int removed;
+    private int added;
+
+    RevolvingDoor(int n, int t) {
+        if (t < 1 || t > n) {
+            throw new IllegalArgumentException("Need 1 <= t <= n, got t=" + t + ", n=" + n);
+        }
+        this.t = t;
+        this.c = new int[t + 2];
+        for (int j = 1; j <= t; j++) c[j] = j - 1;
+        c[t + 1] = n;
+    }
+
+    /**
+     * Element i (0-based, ascending) of the current combination.
+     */
+    int get(int i) {
+        return c[i + 1];
+    }
+
+    /**
+     * Element that left the combination in the last call of {@link #next()}.
+     */
+    int removed() {
+        return removed;
+    }
+
+    /**
+     * Element that entered the combination in the last call of {@link #next()}.
+     */
+    int added() {
+        return added;
+    }
+
+    /**
+     * Advances to the next combination.
+     *
+     * @return false if the current combination was the last one
+     */
+    boolean next() {
+        int j = 2;
+        boolean tryDecrease;
+        if ((t & 1) == 1) {
+            // R3, t ungerade
+            if (c[1] + 1 < c[2]) {
+                removed = c[1];
+                added = ++c[1];
+                return true;
+            }
+            tryDecrease = true;
+        } else {
+            // R3, t gerade
+            if (c[1] > 0) {
+                removed = c[1];
+                added = --c[1];
+                return true;
+            }
+            tryDecrease = false;
+        }
+        while (j <= t) {
+            if (tryDecrease) {
+                // R4: c[j] = c[j-1] + 1
+                if (c[j] >= j) {
+                    removed = c[j];
+                    added = j - 2;
+                    c[j] = c[j - 1];
+                    c[j - 1] = j - 2;
+                    return true;
+                }
+                j++;
+                if (j > t) break;
+            }
+            // R5: c[j-1] = j - 2
+            if (c[j] + 1 < c[j + 1]) {
+                removed = c[j - 1];
+                added = c[j] + 1;
+                c[j - 1] = c[j];
+                c[j] = c[j] + 1;
+                return true;
+            }
+            j++;
+            tryDecrease = true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package syrincs.a_domain.chord;
+
+/**
+ * Receives a revolving-door enumeration (see {@link NoteCombinator#forEachRevolvingDoor}). Between two calls of
+ * {@link #reset} every step changes the chord by exactly one note, so consumers can update their state in O(k).
+ */
+public interface RevolvingDoorVisitor {
+
+    /**
+     * Start of a new block: the chord is notes[0..k-1] (ascending).
+     */
+    void reset(int[] notes, int k);
+
+    /**
+     * The chord changed by replacing removedNote with addedNote.
+     */
+    void swap(int removedNote, int addedNote);
+
+    /**
+     * The current chord (ascending in notes[0..k-1]) satisfies all constraints.
+     */
+    void visit(int[] notes, int k);
+}
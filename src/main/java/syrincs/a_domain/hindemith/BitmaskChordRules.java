@@ -0,0 +1,287 @@
+package syrincs.a_domain.hindemith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BitmaskChordRules
+ * The ChordSpecifications of {@link ChordSpecificationRepository} compiled once into 12-bit interval masks and
+ * tri-state flags. A chord is reduced to a handful of ints (interval mask, mask of repeated intervals, tritone
+ * count on pitch classes, layering flags, root), so every rule is a few bitwise operations without allocation.
+ *
+ * Semantics mirror {@link ChordRules} exactly, including the root search of {@link ChordAnalysis}.
+ */
+public final class BitmaskChordRules implements ChordAnalysisEngine {
+
+    public static final int NO_GROUP = 0;
+
+    // Reihenfolge nach Qualität wie HindemithInterval.intervalsSortedByQualityFirst, -1 für die Prime
+    static final int[] QUALITY = new int[12];
+    // Bit i gesetzt: bei Intervall i ist der untere Ton der Grundton
+    static final int LOWER_ROOT_MASK = mask(Set.of(7, 4, 3, 10, 11, 6));
+    private static final int COLUMN_B_FLAG = 1 << 7;
+
+    static {
+        for (int ic = 0; ic < 12; ic++) {
+            QUALITY[ic] = HindemithInterval.intervalsSortedByQualityFirst.indexOf(ic);
+        }
+    }
+
+    private static final class Shared {
+        static final BitmaskChordRules INSTANCE = compile(new ChordSpecificationRepository());
+    }
+
+    /**
+     * Rules compiled from the default ChordSpecificationRepository.
+     */
+    public static BitmaskChordRules shared() {
+        return Shared.INSTANCE;
+    }
+
+    // Kompilierte Spezifikationen, Index = Gruppe - 1
+    private final int[] group;
+    private final int[] excludeMask;
+    private final int[] requireAllMask;
+    private final int[] requireAnyMask;
+    private final int[] requireAnyTwoMask;
+    private final int[] exactlyOneMask;
+    private final byte[] layering;        // -1 = egal, 0 = verboten, 1 = gefordert
+    private final boolean[] dimOrDim7;
+    private final byte[] multipleTritones; // -1 = egal, 0 = < 2, 1 = >= 2
+    private final byte[] rootRelation;     // -1 = egal, 0 = ungleich Bass, 1 = gleich Bass
+    private final byte[] column;           // -1 = egal, 0 = ohne Tritonus, 1 = mit Tritonus
+
+    private BitmaskChordRules(int size) {
+        group = new int[size];
+        excludeMask = new int[size];
+        requireAllMask = new int[size];
+        requireAnyMask = new int[size];
+        requireAnyTwoMask = new int[size];
+        exactlyOneMask = new int[size];
+        layering = new byte[size];
+        dimOrDim7 = new boolean[size];
+        multipleTritones = new byte[size];
+        rootRelation = new byte[size];
+        column = new byte[size];
+    }
+
+    public static BitmaskChordRules compile(ChordSpecificationRepository repository) {
+        Map<Integer, ChordSpecification> specs = repository.getGroupSpecifications();
+        List<Integer> keys = new ArrayList<>(specs.keySet());
+        keys.sort(null);
+        BitmaskChordRules rules = new BitmaskChordRules(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            ChordSpecification spec = specs.get(keys.get(i));
+            rules.group[i] = keys.get(i) + 1;
+            rules.excludeMask[i] = mask(spec.getExcludeAllIntervals());
+            rules.requireAllMask[i] = mask(spec.getIncludeAllIntervals());
+            rules.requireAnyMask[i] = mask(spec.getRequireAnyIntervals());
+            rules.requireAnyTwoMask[i] = mask(spec.getRequireAnyIntervalsTwo());
+            rules.exactlyOneMask[i] = mask(spec.getIncludeExactlyOne());
+            rules.layering[i] = triState(spec.isLayersOfMajor3OrPerfect4());
+            rules.dimOrDim7[i] = spec.isDimOrDim7();
+            rules.multipleTritones[i] = triState(spec.getMehrereTritoni());
+            rules.rootRelation[i] = switch (spec.getRootNoteEqual() == null ? ChordSpecification.RootRelation.ANY : spec.getRootNoteEqual()) {
+                case ANY -> -1;
+                case NOT_EQUALS_BASS -> 0;
+                case EQUALS_BASS -> 1;
+            };
+            rules.column[i] = switch (spec.getColumnRequirement() == null ? ChordSpecification.ColumnRequirement.ANY : spec.getColumnRequirement()) {
+                case ANY -> -1;
+                case TRITONE_FREE -> 0;
+                case WITH_TRITONE -> 1;
+            };
+        }
+        return rules;
+    }
+
+    @Override
+    public ChordAnalysis.Result analyzeSorted(List<Integer> notes) {
+        int k = notes.size();
+        int[] buf = new int[k];
+        for (int i = 0; i < k; i++) buf[i] = notes.get(i);
+        int packed = classify(buf, 0, k);
+        if (packed == NO_GROUP) {
+            throw new IllegalStateException("Chord has no matching group: " + notes);
+        }
+        ChordAnalysis.Column col = (packed & COLUMN_B_FLAG) != 0 ? ChordAnalysis.Column.B_WITH_TRITONE : ChordAnalysis.Column.A_TRITONE_FREE;
+        return new ChordAnalysis.Result(col, rootOf(packed), groupOf(packed), notes.getLast() - notes.getFirst(), notes);
+    }
+
+    /**
+     * Classifies the ascending chord notes[from .. from+k-1] without allocating.
+     *
+     * @return packed result (root << 8 | column flag | group) or {@link #NO_GROUP} if no specification matches
+     */
+    @Override
+    public int classify(int[] notes, int from, int k) {
+        return classifyFeatures(features(notes, from, k));
+    }
+
+    /**
+     * Rule evaluation on precomputed {@link #features} (shared with {@link VectorChordRules}).
+     */
+    int classifyFeatures(long f) {
+        for (int s = 0; s < group.length; s++) {
+            if (matches(s, f)) return pack(f, group[s]);
+        }
+        return NO_GROUP;
+    }
+
+    /**
+     * Evaluates every specification, not only up to the first match (rule coverage audit).
+     *
+     * @return mask with bit g set for every group g whose specification accepts the chord notes[from .. from+k-1]
+     */
+    public int matchingGroups(int[] notes, int from, int k) {
+        long f = features(notes, from, k);
+        int mask = 0;
+        for (int s = 0; s < group.length; s++) {
+            if (matches(s, f)) mask |= 1 << group[s];
+        }
+        return mask;
+    }
+
+    private boolean matches(int s, long f) {
+        int icMask = icMask(f);
+        int repeatedMask = repeatedMask(f);
+        if ((icMask & excludeMask[s]) != 0) return false;
+        if (layering[s] >= 0 && (layering[s] == 1) != ((f & F_LAYERED) != 0)) return false;
+        if (dimOrDim7[s] != ((f & F_DIM) != 0)) return false;
+        if (exactlyOneMask[s] != 0 && ((repeatedMask & exactlyOneMask[s]) != 0 || (icMask & exactlyOneMask[s]) == 0)) return false;
+        if (requireAnyMask[s] != 0 && (icMask & requireAnyMask[s]) == 0) return false;
+        if (requireAnyTwoMask[s] != 0 && (icMask & requireAnyTwoMask[s]) == 0) return false;
+        if ((icMask & requireAllMask[s]) != requireAllMask[s]) return false;
+        if (multipleTritones[s] >= 0 && (multipleTritones[s] == 1) != ((f & F_MULTI_TRITONE) != 0)) return false;
+        if (rootRelation[s] >= 0 && (rootRelation[s] == 1) != ((f & F_ROOT_IS_BASS) != 0)) return false;
+        return column[s] < 0 || (column[s] == 1) == ((f & F_PC_TRITONE) != 0);
+    }
+
+    // --- Merkmale eines Akkords, gepackt in ein long ---
+    static final long F_LAYERED = 1L << 24;
+    static final long F_DIM = 1L << 25;
+    static final long F_MULTI_TRITONE = 1L << 26;
+    static final long F_ROOT_IS_BASS = 1L << 27;
+    static final long F_PC_TRITONE = 1L << 28;
+    private static final int ROOT_SHIFT = 32;
+
+    /**
+     * Reduces the ascending chord notes[from .. from+k-1] to everything the rules look at:
+     * bits 0-11 interval mask, 12-23 mask of repeated intervals, 24-28 flags, 32+ root note.
+     */
+    static long features(int[] notes, int from, int k) {
+        int bass = notes[from];
+
+        // Alle Tonpaare in der Reihenfolge von Chord.calculateAllIntervals: Intervallmaske, Mehrfach-Maske, Grundton
+        int icMask = 0;
+        int repeatedMask = 0;
+        int bestQuality = Integer.MIN_VALUE;
+        int root = 0;
+        for (int i = 0; i < k; i++) {
+            int low = notes[from + i];
+            for (int j = i + 1; j < k; j++) {
+                int high = notes[from + j];
+                int ic = (high - low) % 12;
+                int bit = 1 << ic;
+                repeatedMask |= icMask & bit;
+                icMask |= bit;
+
+                int quality = QUALITY[ic];
+                int candidate = (LOWER_ROOT_MASK & bit) != 0 ? low : high;
+                if (bestQuality == Integer.MIN_VALUE) {
+                    bestQuality = quality;
+                    root = candidate;
+                } else if (bestQuality > quality && quality != -1) {
+                    bestQuality = quality;
+                    root = candidate;
+                } else if (bestQuality == quality) {
+                    root = Math.min(root, candidate);
+                }
+            }
+        }
+
+        // Intervalle vom Bass aus (rootIntervals): Schichtung und verminderte Familie
+        boolean allMod4 = true, allMod5 = true, allMod3 = true;
+        for (int j = 1; j < k; j++) {
+            int d = notes[from + j] - bass;
+            allMod4 &= (d % 12) % 4 == 0;
+            allMod5 &= d % 5 == 0;
+            allMod3 &= d % 3 == 0;
+        }
+
+        // Tritoni auf Tonklassen-Ebene
+        int pcMask = 0;
+        for (int i = 0; i < k; i++) pcMask |= 1 << (notes[from + i] % 12);
+        int tritones = Integer.bitCount(pcMask & (pcMask >>> 6) & 0x3F);
+
+        long f = packFeatures(icMask, repeatedMask, root);
+        if (allMod4 || allMod5) f |= F_LAYERED;
+        if (allMod3) f |= F_DIM;
+        if (tritones >= 2) f |= F_MULTI_TRITONE;
+        if (root == bass) f |= F_ROOT_IS_BASS;
+        if (tritones > 0) f |= F_PC_TRITONE;
+        return f;
+    }
+
+    static long packFeatures(int icMask, int repeatedMask, int root) {
+        return icMask | ((long) repeatedMask << 12) | ((long) root << ROOT_SHIFT);
+    }
+
+    static int icMask(long features) {
+        return (int) (features & 0xFFF);
+    }
+
+    static int repeatedMask(long features) {
+        return (int) ((features >>> 12) & 0xFFF);
+    }
+
+    static int pack(long features, int group) {
+        int root = (int) (features >>> ROOT_SHIFT);
+        return root << 8 | ((features & F_PC_TRITONE) != 0 ? COLUMN_B_FLAG : 0) | group;
+    }
+
+    /**
+     * Compiled specifications in group order, as used by {@link DecisionTreeChordRules}.
+     */
+    int size() {
+        return group.length;
+    }
+
+    int group(int s) { return group[s]; }
+    int excludeMask(int s) { return excludeMask[s]; }
+    int requireAllMask(int s) { return requireAllMask[s]; }
+    int requireAnyMask(int s) { return requireAnyMask[s]; }
+    int requireAnyTwoMask(int s) { return requireAnyTwoMask[s]; }
+    int exactlyOneMask(int s) { return exactlyOneMask[s]; }
+    byte layering(int s) { return layering[s]; }
+    boolean dimOrDim7(int s) { return dimOrDim7[s]; }
+    byte multipleTritones(int s) { return multipleTritones[s]; }
+    byte rootRelation(int s) { return rootRelation[s]; }
+    byte column(int s) { return column[s]; }
+
+    public static int rootOf(int packed) {
+        return packed >>> 8;
+    }
+
+    public static int groupOf(int packed) {
+        return packed & (COLUMN_B_FLAG - 1);
+    }
+
+    public static boolean hasTritone(int packed) {
+        return (packed & COLUMN_B_FLAG) != 0;
+    }
+
+    private static int mask(Set<Integer> intervals) {
+        int m = 0;
+        if (intervals != null) {
+            for (Integer i : intervals) m |= 1 << Math.floorMod(i, 12);
+        }
+        return m;
+    }
+
+    private static byte triState(Boolean b) {
+        return b == null ? -1 : (byte) (b ? 1 : 0);
+    }
+}
@@ -1,10 +1,12 @@
 package syrincs.a_domain.hindemith;
 
 import syrincs.a_domain.Interval;
+import syrincs.a_domain.chord.ChordBatch;
 import syrincs.a_domain.chord.Chord;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class ChordAnalysis {
     // Algorithmus zur Bestimmung eines Akkordes:
@@ -32,7 +34,36 @@ public class ChordAnalysis {
         }
     }
 
+    // Die Spezifikationen sind unveränderlich: einmal laden statt pro Akkord
+    private static final Map<Integer, ChordSpecification> GROUP_SPECS = new ChordSpecificationRepository().getGroupSpecifications();
+    private static final List<Integer> GROUP_SPECS_ORDER = GROUP_SPECS.keySet().stream().sorted().toList();
+
     private final Series2 series2 = new Series2();
+    private final ChordStructureTable structureTable;
+    private final ChordAnalysisEngine engine;
+
+    /**
+     * Uses the shipped structure table for chords it covers and the full analysis for all others.
+     */
+    public ChordAnalysis() {
+        this(ChordStructureTable.shared());
+    }
+
+    /**
+     * @param structureTable precomputed classification per interval structure, or null to always run the full analysis
+     */
+    public ChordAnalysis(ChordStructureTable structureTable) {
+        this(structureTable, null);
+    }
+
+    /**
+     * @param structureTable precomputed classification per interval structure, or null to always run the full analysis
+     * @param engine         alternative engine for the full analysis, or null for the rule evaluation of this class
+     */
+    public ChordAnalysis(ChordStructureTable structureTable, ChordAnalysisEngine engine) {
+        this.structureTable = structureTable;
+        this.engine = engine;
+    }
 
     /**
      * Analysiert einen Akkord (Liste von MIDI-Noten) nach Hindemith.
@@ -45,6 +76,13 @@ public class ChordAnalysis {
             throw new IllegalArgumentException("Need at least 3 notes to analyze a chord");
         }
         List<Integer> notes = midiNotes.stream().sorted().toList();
+        if (structureTable != null) {
+            Result cached = structureTable.lookup(notes);
+            if (cached != null) return cached;
+        }
+        if (engine != null) {
+            return engine.analyzeSorted(notes);
+        }
         int frame = Collections.max(notes) - Collections.min(notes);
 
         Column column = hasTritoneInPitchClasses(notes) ? Column.B_WITH_TRITONE : Column.A_TRITONE_FREE;
@@ -109,7 +147,7 @@ public class ChordAnalysis {
         List<Integer> pitchClasses = notes.stream().map(n-> n%12).distinct().sorted().toList();
         for (int i = 0; i < pitchClasses.size(); i++) {
             for (int gap = 1; i + gap < pitchClasses.size(); gap++) {
-                HindemithInterval hindemithInterval = new HindemithInterval(pitchClasses.get(i), pitchClasses.get(i+gap));
+                HindemithInterval hindemithInterval = HindemithInterval.of(pitchClasses.get(i), pitchClasses.get(i+gap));
                 hindemithIntervalList.add(hindemithInterval);
             }
         }
@@ -119,7 +157,7 @@ public class ChordAnalysis {
 
     private List<HindemithInterval> mapIntervals(List<Interval> from){
         return from.stream()
-                .map(i -> new HindemithInterval(i.getLowNote(), i.getHighNote()))
+                .map(i -> HindemithInterval.of(i.getLowNote(), i.getHighNote()))
                 .collect(Collectors.toList());
     }
 
@@ -142,12 +180,9 @@ public class ChordAnalysis {
             List<HindemithInterval> pcHindemithIntervals
     ) {
         int bassNote = notes.getFirst();
-        var specs = new ChordSpecificationRepository();
-        Map<Integer, ChordSpecification> groupSpecs = specs.getGroupSpecifications();
-        List<Integer> groupSpecsList = groupSpecs.keySet().stream().sorted().toList();
         // Determine by group specification order (insertion/group-number order)
-        for (Integer g : groupSpecsList) {
-            ChordSpecification spec = groupSpecs.get(g);
+        for (Integer g : GROUP_SPECS_ORDER) {
+            ChordSpecification spec = GROUP_SPECS.get(g);
             if (spec == null) continue;
             boolean match1 = ChordRules.matchesIntervalsOnly(intervals, rootNoteIntervals, pcHindemithIntervals, spec);
             boolean match2 = ChordRules.rootRelation(bassNote, rootNote, spec.getRootNoteEqual());
@@ -163,14 +198,60 @@ public class ChordAnalysis {
     public List<HindemithChord> analyzeList(List<List<Integer>> noteSets) {
         List<HindemithChord> hindemithChords = new ArrayList<>();
         for (List<Integer> notes : noteSets) {
-            var result = analyze(notes);
-            HindemithChord hindemithChord = new HindemithChord(
-                    notes,
-                    result.rootNote,
-                    result.group
-            );
-            hindemithChords.add(hindemithChord);
+            hindemithChords.add(toHindemithChord(notes));
         }
         return hindemithChords;
     }
+
+    /**
+     * Lazy counterpart of {@link #analyzeList(List)}: each chord is analyzed when it is pulled from the stream.
+     */
+    public Stream<HindemithChord> analyzeStream(Stream<List<Integer>> noteSets) {
+        return noteSets.map(this::toHindemithChord);
+    }
+
+    /**
+     * Batch entry point: fills batch.rootNotes() and batch.groups() for all chords of the batch without creating
+     * per-chord objects. Uses the structure table where it applies and otherwise the configured engine (or the
+     * bitmask engine, which yields the same results as the rule evaluation of this class).
+     *
+     * @throws IllegalStateException if a chord has no matching group
+     */
+    public void analyzeBatch(ChordBatch batch) {
+        ChordAnalysisEngine batchEngine = engine != null ? engine : BitmaskChordRules.shared();
+        int k = batch.getNumNotes();
+        int[] notes = batch.notes();
+        int[] roots = batch.rootNotes();
+        byte[] groups = batch.groups();
+        int[] packedResults = null;
+        if (structureTable == null) {
+            // Ganzer Batch auf einmal, damit Engines wie VectorChordRules mehrere Akkorde pro Instruktion rechnen
+            packedResults = new int[batch.size()];
+            batchEngine.classifyBatch(batch, packedResults);
+        }
+        for (int c = 0; c < batch.size(); c++) {
+            int from = batch.offset(c);
+            int packed;
+            if (packedResults != null) {
+                packed = packedResults[c];
+            } else {
+                packed = structureTable.lookupPacked(notes, from, k);
+                if (packed < 0) packed = batchEngine.classify(notes, from, k);
+            }
+            if (packed == BitmaskChordRules.NO_GROUP) {
+                throw new IllegalStateException("Chord has no matching group: " + Arrays.toString(Arrays.copyOfRange(notes, from, from + k)));
+            }
+            roots[c] = BitmaskChordRules.rootOf(packed);
+            groups[c] = (byte) BitmaskChordRules.groupOf(packed);
+        }
+    }
+
+    private HindemithChord toHindemithChord(List<Integer> notes) {
+        var result = analyze(notes);
+        return new HindemithChord(
+                notes,
+                result.rootNote,
+                result.group
+        );
+    }
 }
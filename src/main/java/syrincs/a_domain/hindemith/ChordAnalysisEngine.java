@@ -0,0 +1,57 @@
+package syrincs.a_domain.hindemith;
+
+import syrincs.a_domain.chord.ChordBatch;
+
+import java.util.List;
+
+/**
+ * Strategy behind {@link ChordAnalysis}: classifies a chord (column, root, group).
+ *
+ * Every engine must return exactly the same results as the rule evaluation in ChordAnalysis itself
+ * (the reference) and throw IllegalStateException if no group matches.
+ */
+public interface ChordAnalysisEngine {
+
+    /**
+     * @param notes ascending MIDI notes, at least 3
+     */
+    ChordAnalysis.Result analyzeSorted(List<Integer> notes);
+
+    /**
+     * Allocation-free variant for the ascending chord notes[from .. from+k-1].
+     *
+     * @return packed result (see {@link BitmaskChordRules#rootOf}, {@link BitmaskChordRules#groupOf},
+     * {@link BitmaskChordRules#hasTritone}) or {@link BitmaskChordRules#NO_GROUP}
+     */
+    int classify(int[] notes, int from, int k);
+
+    /**
+     * Classifies all chords of the batch into packed[0 .. batch.size()-1]. Engines that work on many chords at
+     * once (see {@link VectorChordRules}) override this.
+     */
+    default void classifyBatch(ChordBatch batch, int[] packed) {
+        int[] notes = batch.notes();
+        int k = batch.getNumNotes();
+        for (int c = 0; c < batch.size(); c++) {
+            packed[c] = classify(notes, batch.offset(c), k);
+        }
+    }
+
+    /**
+     * The SIMD engine if it was built (Maven profile {@code vector}) and the JVM was started with
+     * {@code --add-modules jdk.incubator.vector}, otherwise the scalar {@link BitmaskChordRules}. Both return
+     * identical results.
+     */
+    static ChordAnalysisEngine vectorizedOrScalar() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Per Reflection: ohne das Profil fehlt VectorChordRules im Build
+                return (ChordAnalysisEngine) Class.forName("syrincs.a_domain.hindemith.VectorChordRules")
+                        .getMethod("shared").invoke(null);
+            } catch (ReflectiveOperationException | LinkageError notAvailable) {
+                // fällt auf die skalare Engine zurück
+            }
+        }
+        return BitmaskChordRules.shared();
+    }
+}
@@ -1,6 +1,7 @@
 package syrincs.a_domain.hindemith;
 
 import syrincs.a_domain.Interval;
+import syrincs.a_domain.chord.ChordConstraint;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -101,6 +102,23 @@ public final class ChordRules {
         return mustHaveMultiple ? many : !many;
     }
 
+    /**
+     * Builds a pruning constraint for the chord enumeration that rejects every chord none of the given
+     * specifications can match. Only the monotone part of a specification is used: the excluded intervals.
+     * For several specifications only the intervals excluded by all of them can be pruned.
+     */
+    public static ChordConstraint pruningConstraint(Collection<ChordSpecification> specs) {
+        Set<Integer> excluded = null;
+        for (ChordSpecification spec : specs) {
+            if (excluded == null) {
+                excluded = new HashSet<>(spec.getExcludeAllIntervals());
+            } else {
+                excluded.retainAll(spec.getExcludeAllIntervals());
+            }
+        }
+        return ChordConstraint.excludeIntervals(excluded == null ? Set.of() : excluded);
+    }
+
     public static boolean rootRelation(int bass, Integer root, ChordSpecification.RootRelation condition) {
         if (condition == null || condition == ChordSpecification.RootRelation.ANY) return true;
         if (root == null) return false;
@@ -0,0 +1,226 @@
+package syrincs.a_domain.hindemith;
+
+import syrincs.a_domain.chord.CombinationRanking;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Precomputed Hindemith classification per interval structure.
+ *
+ * Column, group and the root's distance to the bass depend only on the distances of the notes above the bass,
+ * not on the transposition. The table stores (root offset, group, column) for every structure of 3..5 notes
+ * within MAX_SPAN semitones. The structure (ascending offsets 1..MAX_SPAN of the upper notes) is mapped to its
+ * combinatorial rank, which is a minimal perfect hash, so a lookup is a rank computation plus an add.
+ *
+ * Binary layout (big endian): magic, version, maxSpan, minNotes, maxNotes, then per chord size an int count
+ * followed by count entries of two bytes: (rootOffset + 1, group | 0x80 for column B). An entry of 0 marks a
+ * structure without a matching group; those are left to the regular analysis.
+ */
+public final class ChordStructureTable {
+
+    public static final String RESOURCE = "/syrincs/a_domain/hindemith/chord-structures.bin";
+    public static final int MAX_SPAN = 36;
+    public static final int MIN_NOTES = 3;
+    public static final int MAX_NOTES = 5;
+
+    private static final int MAGIC = 0x48435354; // "HCST"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+    private static final int ENTRY_BYTES = 2;
+    private static final int COLUMN_B_FLAG = 0x80;
+
+    private static final Logger LOGGER = Logger.getLogger(ChordStructureTable.class.getName());
+
+    private final ByteBuffer data;
+    private final int[] sectionOffset = new int[MAX_NOTES + 1];
+    private final long[] sectionSize = new long[MAX_NOTES + 1];
+    private final long[][] binomial = new long[MAX_SPAN + 1][MAX_NOTES];
+
+    private ChordStructureTable(ByteBuffer data) {
+        this.data = data;
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION || data.getInt(8) != MAX_SPAN
+                || data.getInt(12) != MIN_NOTES || data.getInt(16) != MAX_NOTES) {
+            throw new IllegalArgumentException("Unsupported chord structure table header");
+        }
+        int pos = HEADER_BYTES;
+        for (int k = MIN_NOTES; k <= MAX_NOTES; k++) {
+            sectionSize[k] = data.getInt(pos);
+            if (sectionSize[k] != CombinationRanking.binomial(MAX_SPAN, k - 1)) {
+                throw new IllegalArgumentException("Chord structure table has a wrong size for " + k + " notes");
+            }
+            sectionOffset[k] = pos + Integer.BYTES;
+            pos = sectionOffset[k] + (int) sectionSize[k] * ENTRY_BYTES;
+        }
+        for (int n = 0; n <= MAX_SPAN; n++) {
+            for (int r = 0; r < MAX_NOTES; r++) binomial[n][r] = CombinationRanking.binomial(n, r);
+        }
+    }
+
+    // --- Holder für die geteilte, einmal geladene Tabelle ---
+    private static final class Holder {
+        static final ChordStructureTable SHARED = loadResource();
+    }
+
+    /**
+     * Returns the table shipped as resource (loaded once, memory-mapped if possible) or null if it is missing.
+     */
+    public static ChordStructureTable shared() {
+        return Holder.SHARED;
+    }
+
+    private static ChordStructureTable loadResource() {
+        URL url = ChordStructureTable.class.getResource(RESOURCE);
+        if (url == null) {
+            LOGGER.warning("Chord structure table " + RESOURCE + " not found, falling back to full analysis.");
+            return null;
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                try (FileChannel ch = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                    return new ChordStructureTable(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+                }
+            }
+            // In einem JAR lässt sich die Ressource nicht mappen: einmal in einen Direct-Buffer lesen
+            try (InputStream in = url.openStream()) {
+                byte[] bytes = in.readAllBytes();
+                ByteBuffer buf = ByteBuffer.allocateDirect(bytes.length);
+                buf.put(bytes).flip();
+                return new ChordStructureTable(buf);
+            }
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Failed to load chord structure table, falling back to full analysis.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Builds the table by analyzing one representative per structure with the given (table-free) analysis.
+     */
+    public static ChordStructureTable build(ChordAnalysis reference) {
+        int total = HEADER_BYTES;
+        for (int k = MIN_NOTES; k <= MAX_NOTES; k++) {
+            total += Integer.BYTES + (int) CombinationRanking.binomial(MAX_SPAN, k - 1) * ENTRY_BYTES;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(total);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(MAX_SPAN).putInt(MIN_NOTES).putInt(MAX_NOTES);
+        for (int k = MIN_NOTES; k <= MAX_NOTES; k++) {
+            CombinationRanking ranking = new CombinationRanking(k - 1, 1, MAX_SPAN);
+            buf.putInt((int) ranking.size());
+            for (long r = 0; r < ranking.size(); r++) {
+                List<Integer> offsets = ranking.unrank(r);
+                // Repräsentant: Basston 0, die Analyse ist transpositionsinvariant
+                List<Integer> notes = new ArrayList<>(k);
+                notes.add(0);
+                notes.addAll(offsets);
+                try {
+                    ChordAnalysis.Result res = reference.analyze(notes);
+                    int column = res.column == ChordAnalysis.Column.B_WITH_TRITONE ? COLUMN_B_FLAG : 0;
+                    buf.put((byte) (res.rootNote + 1)).put((byte) (res.group | column));
+                } catch (IllegalStateException noGroup) {
+                    buf.put((byte) 0).put((byte) 0);
+                }
+            }
+        }
+        return new ChordStructureTable(buf.flip());
+    }
+
+    /**
+     * Writes the table in its binary format.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        ByteBuffer copy = data.duplicate().clear();
+        byte[] bytes = new byte[copy.remaining()];
+        copy.get(bytes);
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.write(bytes);
+        dos.flush();
+    }
+
+    /**
+     * Looks up the classification of an ascending chord.
+     *
+     * @param notes ascending, distinct MIDI notes
+     * @return the result or null if the structure is not covered (size, span) or has no matching group
+     */
+    public ChordAnalysis.Result lookup(List<Integer> notes) {
+        int k = notes.size();
+        if (k < MIN_NOTES || k > MAX_NOTES) return null;
+        int bass = notes.getFirst();
+        int frame = notes.getLast() - bass;
+        if (frame > MAX_SPAN) return null;
+
+        // Rang der Offsets (k-1 aus 1..MAX_SPAN) in lexikografischer Ordnung, vgl. CombinationRanking
+        int m = k - 1;
+        long combinadic = 0;
+        int previous = 0;
+        for (int i = 1; i < k; i++) {
+            int offset = notes.get(i) - bass;
+            if (offset <= previous) return null;
+            previous = offset;
+            combinadic += binomial[MAX_SPAN - offset][m - i + 1];
+        }
+        long rank = sectionSize[k] - 1 - combinadic;
+        int pos = sectionOffset[k] + (int) rank * ENTRY_BYTES;
+        int rootOffset = (data.get(pos) & 0xFF) - 1;
+        if (rootOffset < 0) return null;
+        int packed = data.get(pos + 1) & 0xFF;
+        ChordAnalysis.Column column = (packed & COLUMN_B_FLAG) != 0
+                ? ChordAnalysis.Column.B_WITH_TRITONE
+                : ChordAnalysis.Column.A_TRITONE_FREE;
+        return new ChordAnalysis.Result(column, bass + rootOffset, packed & ~COLUMN_B_FLAG, frame, notes);
+    }
+
+    /**
+     * Allocation-free lookup for the ascending chord notes[from .. from+k-1].
+     *
+     * @return packed result in the format of {@link BitmaskChordRules#classify} or -1 if the structure is not
+     * covered or has no matching group
+     */
+    public int lookupPacked(int[] notes, int from, int k) {
+        if (k < MIN_NOTES || k > MAX_NOTES) return -1;
+        int bass = notes[from];
+        if (notes[from + k - 1] - bass > MAX_SPAN) return -1;
+        int m = k - 1;
+        long combinadic = 0;
+        int previous = 0;
+        for (int i = 1; i < k; i++) {
+            int offset = notes[from + i] - bass;
+            if (offset <= previous) return -1;
+            previous = offset;
+            combinadic += binomial[MAX_SPAN - offset][m - i + 1];
+        }
+        int pos = sectionOffset[k] + (int) (sectionSize[k] - 1 - combinadic) * ENTRY_BYTES;
+        int rootOffset = (data.get(pos) & 0xFF) - 1;
+        if (rootOffset < 0) return -1;
+        int packed = data.get(pos + 1) & 0xFF;
+        // Gleiches Layout wie BitmaskChordRules: Spalten-Flag 0x80 und Gruppe im unteren Byte
+        return (bass + rootOffset) << 8 | packed;
+    }
+
+    /**
+     * Regenerates the shipped resource: {@code ChordStructureTable <path to chord-structures.bin>}.
+     */
+    public static void main(String[] args) throws IOException {
+        Path target = Path.of(args.length > 0 ? args[0] : "src/main/resources" + RESOURCE);
+        ChordStructureTable table = build(new ChordAnalysis(null));
+        Files.createDirectories(target.getParent());
+        try (OutputStream out = Files.newOutputStream(target)) {
+            table.writeTo(out);
+        }
+        LOGGER.info("Chord structure table written to " + target.toAbsolutePath());
+    }
+}
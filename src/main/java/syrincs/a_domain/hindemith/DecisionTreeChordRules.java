@@ -0,0 +1,450 @@
+package syrincs.a_domain.hindemith;
+
+import syrincs.a_domain.chord.NoteCombinator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DecisionTreeChordRules
+ * The group specifications compiled into a binary decision tree with first-match semantics.
+ *
+ * Every specification is split into atomic predicates over the chord features of {@link BitmaskChordRules}
+ * ("has interval 6", "root equals bass", "any of {1, 11}", ...). Identical predicates are shared between the
+ * specifications, and a predicate whose outcome follows from earlier tests (e.g. "any of {1, 11}" after "has 1")
+ * is never evaluated again. At every node the tree tests the open predicate of the first remaining candidate
+ * that eliminates the most remaining candidates on average. The average is taken over the sample chords that
+ * reach the node (selectivity); without sample chords every outcome counts as equally likely, which favours the
+ * predicates shared by most candidates.
+ *
+ * Compiled with counting on (a debug aid, see {@link #compile(BitmaskChordRules, List, boolean)}), each node counts how
+ * often it was evaluated and how often its predicate was true, and leaves count their hits. The shared tree and the
+ * other compile methods do not count, so the hot path does no shared writes.
+ */
+public final class DecisionTreeChordRules implements ChordAnalysisEngine {
+
+    // Prädikat-Typen
+    private static final int ANY = 0;          // icMask & mask != 0
+    private static final int NO_REPEAT = 1;    // repeatedMask & mask == 0
+    private static final int FLAG = 2;         // features & mask != 0 (Schichtung, verm., Tritoni, Grundton = Bass)
+    private static final int LEAF = -1;
+
+    private static final int TRAINING_SAMPLE_SIZE = 2000;
+    private static final long TRAINING_SEED = 1L;
+
+    private static final class Shared {
+        static final DecisionTreeChordRules INSTANCE = compile(BitmaskChordRules.shared(), trainingSample());
+    }
+
+    /**
+     * Uniform sample of 3..5-note chords (piano range, at most three octaves) to estimate predicate selectivity.
+     */
+    private static List<int[]> trainingSample() {
+        NoteCombinator combinator = new NoteCombinator();
+        Random random = new Random(TRAINING_SEED);
+        List<int[]> sample = new ArrayList<>();
+        for (int k = 3; k <= 5; k++) {
+            for (List<Integer> chord : combinator.sampleChords(k, 21, 108, NoteCombinator.defaultConstraints(3), TRAINING_SAMPLE_SIZE, random)) {
+                sample.add(chord.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * Tree compiled from the default ChordSpecificationRepository.
+     */
+    public static DecisionTreeChordRules shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * A new tree with the same layout as {@link #shared()}, compiled with per-node counters (e.g. for
+     * {@code verify --engine DECISION_TREE --counters}).
+     */
+    public static DecisionTreeChordRules withCounters() {
+        return compile(BitmaskChordRules.shared(), trainingSample(), true);
+    }
+
+    // Baum als parallele Arrays, Knoten 0 ist die Wurzel
+    private final int[] type;
+    private final long[] mask;
+    private final int[] ifTrue;
+    private final int[] ifFalse;
+    private final int[] leafGroup;
+    private final String[] label;
+    private final boolean counting;
+    // Nur mit counting gesetzt, sonst null
+    private final LongAdder[] evaluations;
+    private final LongAdder[] hits;
+    private final LongAdder chords;
+
+    private DecisionTreeChordRules(List<Node> nodes, boolean counting) {
+        int n = nodes.size();
+        type = new int[n];
+        mask = new long[n];
+        ifTrue = new int[n];
+        ifFalse = new int[n];
+        leafGroup = new int[n];
+        label = new String[n];
+        this.counting = counting;
+        evaluations = counting ? new LongAdder[n] : null;
+        hits = counting ? new LongAdder[n] : null;
+        chords = counting ? new LongAdder() : null;
+        for (int i = 0; i < n; i++) {
+            Node node = nodes.get(i);
+            type[i] = node.predicate == null ? LEAF : node.predicate.type;
+            mask[i] = node.predicate == null ? 0 : node.predicate.mask;
+            ifTrue[i] = node.ifTrue;
+            ifFalse[i] = node.ifFalse;
+            leafGroup[i] = node.group;
+            label[i] = node.predicate == null
+                    ? (node.group == BitmaskChordRules.NO_GROUP ? "no group" : "group " + node.group)
+                    : node.predicate.toString();
+            if (counting) {
+                evaluations[i] = new LongAdder();
+                hits[i] = new LongAdder();
+            }
+        }
+    }
+
+    @Override
+    public ChordAnalysis.Result analyzeSorted(List<Integer> notes) {
+        int k = notes.size();
+        int[] buf = new int[k];
+        for (int i = 0; i < k; i++) buf[i] = notes.get(i);
+        int packed = classify(buf, 0, k);
+        if (packed == BitmaskChordRules.NO_GROUP) {
+            throw new IllegalStateException("Chord has no matching group: " + notes);
+        }
+        ChordAnalysis.Column col = BitmaskChordRules.hasTritone(packed) ? ChordAnalysis.Column.B_WITH_TRITONE : ChordAnalysis.Column.A_TRITONE_FREE;
+        return new ChordAnalysis.Result(col, BitmaskChordRules.rootOf(packed), BitmaskChordRules.groupOf(packed),
+                notes.getLast() - notes.getFirst(), notes);
+    }
+
+    /**
+     * Classifies the ascending chord notes[from .. from+k-1]; same packed result as {@link BitmaskChordRules#classify}.
+     */
+    @Override
+    public int classify(int[] notes, int from, int k) {
+        long f = BitmaskChordRules.features(notes, from, k);
+        int icMask = BitmaskChordRules.icMask(f);
+        int repeatedMask = BitmaskChordRules.repeatedMask(f);
+        if (counting) chords.increment();
+        int node = 0;
+        while (type[node] != LEAF) {
+            boolean value = switch (type[node]) {
+                case ANY -> (icMask & mask[node]) != 0;
+                case NO_REPEAT -> (repeatedMask & mask[node]) == 0;
+                default -> (f & mask[node]) != 0;
+            };
+            if (counting) {
+                evaluations[node].increment();
+                if (value) hits[node].increment();
+            }
+            node = value ? ifTrue[node] : ifFalse[node];
+        }
+        if (counting) hits[node].increment();
+        int group = leafGroup[node];
+        return group == BitmaskChordRules.NO_GROUP ? BitmaskChordRules.NO_GROUP : BitmaskChordRules.pack(f, group);
+    }
+
+    // --- Zähler ---
+
+    /**
+     * Snapshot of the counters of one node.
+     *
+     * @param label       predicate (inner node) or result (leaf)
+     * @param evaluations number of predicate evaluations (0 for leaves)
+     * @param hits        number of true outcomes (inner node) or chords classified here (leaf)
+     */
+    public record NodeStats(int node, int depth, String label, long evaluations, long hits) { }
+
+    /**
+     * Whether this tree was compiled with counters; all counter accessors require it.
+     */
+    public boolean isCounting() {
+        return counting;
+    }
+
+    public List<NodeStats> getNodeStats() {
+        requireCounting();
+        List<NodeStats> stats = new ArrayList<>(type.length);
+        collectStats(0, 0, stats);
+        return stats;
+    }
+
+    private void collectStats(int node, int depth, List<NodeStats> out) {
+        out.add(new NodeStats(node, depth, label[node], evaluations[node].sum(), hits[node].sum()));
+        if (type[node] != LEAF) {
+            collectStats(ifTrue[node], depth + 1, out);
+            collectStats(ifFalse[node], depth + 1, out);
+        }
+    }
+
+    public long getClassifiedChords() {
+        requireCounting();
+        return chords.sum();
+    }
+
+    /**
+     * Average number of predicate evaluations per classified chord since creation or the last reset.
+     */
+    public double getAveragePredicateEvaluations() {
+        requireCounting();
+        long n = chords.sum();
+        if (n == 0) return 0;
+        long total = 0;
+        for (LongAdder e : evaluations) total += e.sum();
+        return (double) total / n;
+    }
+
+    public int getNodeCount() {
+        return type.length;
+    }
+
+    public void resetCounters() {
+        requireCounting();
+        chords.reset();
+        for (LongAdder e : evaluations) e.reset();
+        for (LongAdder h : hits) h.reset();
+    }
+
+    private void requireCounting() {
+        if (!counting) throw new IllegalStateException("Decision tree was compiled without counters");
+    }
+
+    /**
+     * Indented tree with counters, one line per node.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("chords=%d, nodes=%d, avg evaluations/chord=%.2f%n",
+                getClassifiedChords(), getNodeCount(), getAveragePredicateEvaluations()));
+        for (NodeStats s : getNodeStats()) {
+            sb.append("  ".repeat(s.depth())).append(s.label());
+            if (s.evaluations() > 0) sb.append(" [evaluated=").append(s.evaluations()).append(", true=").append(s.hits()).append(']');
+            else sb.append(" [hits=").append(s.hits()).append(']');
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    // --- Übersetzung der Spezifikationen ---
+
+    private record Predicate(int type, long mask) {
+        @Override
+        public String toString() {
+            return switch (type) {
+                case ANY -> Long.bitCount(mask) == 1 ? "has " + Long.numberOfTrailingZeros(mask) : "any of " + intervals(mask);
+                case NO_REPEAT -> "at most once each of " + intervals(mask);
+                default -> {
+                    if (mask == BitmaskChordRules.F_LAYERED) yield "layered M3/P4";
+                    if (mask == BitmaskChordRules.F_DIM) yield "dim/dim7";
+                    if (mask == BitmaskChordRules.F_MULTI_TRITONE) yield "multiple tritones";
+                    if (mask == BitmaskChordRules.F_ROOT_IS_BASS) yield "root equals bass";
+                    yield "tritone (pitch classes)";
+                }
+            };
+        }
+
+        private static List<Integer> intervals(long mask) {
+            List<Integer> res = new ArrayList<>();
+            for (int i = 0; i < 12; i++) if ((mask & (1L << i)) != 0) res.add(i);
+            return res;
+        }
+    }
+
+    private record Literal(Predicate predicate, boolean expected) { }
+
+    private static final class Node {
+        Predicate predicate;
+        int ifTrue = -1;
+        int ifFalse = -1;
+        int group = BitmaskChordRules.NO_GROUP;
+    }
+
+    public static DecisionTreeChordRules compile(BitmaskChordRules rules) {
+        return compile(rules, List.of());
+    }
+
+    /**
+     * @param sample ascending sample chords used to estimate how often each predicate holds on real workloads
+     */
+    public static DecisionTreeChordRules compile(BitmaskChordRules rules, List<int[]> sample) {
+        return compile(rules, sample, false);
+    }
+
+    /**
+     * @param sample   ascending sample chords used to estimate how often each predicate holds on real workloads
+     * @param counting count evaluations and hits per node (for tuning; costs shared writes on every classification)
+     */
+    public static DecisionTreeChordRules compile(BitmaskChordRules rules, List<int[]> sample, boolean counting) {
+        List<List<Literal>> specs = new ArrayList<>();
+        int[] groups = new int[rules.size()];
+        for (int s = 0; s < rules.size(); s++) {
+            groups[s] = rules.group(s);
+            specs.add(literals(rules, s));
+        }
+        List<Node> nodes = new ArrayList<>();
+        int[] all = new int[specs.size()];
+        for (int i = 0; i < all.length; i++) all[i] = i;
+        long[] features = sample.stream().mapToLong(c -> BitmaskChordRules.features(c, 0, c.length)).toArray();
+        build(all, Knowledge.EMPTY, features, specs, groups, nodes);
+        return new DecisionTreeChordRules(nodes, counting);
+    }
+
+    private static List<Literal> literals(BitmaskChordRules rules, int s) {
+        List<Literal> lits = new ArrayList<>();
+        for (int ic = 0; ic < 12; ic++) {
+            if ((rules.excludeMask(s) & (1 << ic)) != 0) lits.add(new Literal(new Predicate(ANY, 1L << ic), false));
+        }
+        for (int ic = 0; ic < 12; ic++) {
+            if ((rules.requireAllMask(s) & (1 << ic)) != 0) lits.add(new Literal(new Predicate(ANY, 1L << ic), true));
+        }
+        if (rules.layering(s) >= 0) lits.add(new Literal(new Predicate(FLAG, BitmaskChordRules.F_LAYERED), rules.layering(s) == 1));
+        lits.add(new Literal(new Predicate(FLAG, BitmaskChordRules.F_DIM), rules.dimOrDim7(s)));
+        if (rules.exactlyOneMask(s) != 0) {
+            lits.add(new Literal(new Predicate(NO_REPEAT, rules.exactlyOneMask(s)), true));
+            lits.add(new Literal(new Predicate(ANY, rules.exactlyOneMask(s)), true));
+        }
+        if (rules.requireAnyMask(s) != 0) lits.add(new Literal(new Predicate(ANY, rules.requireAnyMask(s)), true));
+        if (rules.requireAnyTwoMask(s) != 0) lits.add(new Literal(new Predicate(ANY, rules.requireAnyTwoMask(s)), true));
+        if (rules.multipleTritones(s) >= 0) lits.add(new Literal(new Predicate(FLAG, BitmaskChordRules.F_MULTI_TRITONE), rules.multipleTritones(s) == 1));
+        if (rules.rootRelation(s) >= 0) lits.add(new Literal(new Predicate(FLAG, BitmaskChordRules.F_ROOT_IS_BASS), rules.rootRelation(s) == 1));
+        if (rules.column(s) >= 0) lits.add(new Literal(new Predicate(FLAG, BitmaskChordRules.F_PC_TRITONE), rules.column(s) == 1));
+        return lits;
+    }
+
+    /**
+     * What is known on the path to a node: interval classes known present/absent, multi-interval "any of" tests
+     * known true, repetition tests and flags known true/false.
+     */
+    private record Knowledge(int present, int absent, long[] anyTrue, long[] noRepeatKnown, long flagsTrue, long flagsFalse) {
+        static final Knowledge EMPTY = new Knowledge(0, 0, new long[0], new long[0], 0, 0);
+
+        /** @return Boolean.TRUE/FALSE if the outcome follows from the path, null if the predicate must be tested */
+        Boolean outcome(Predicate p) {
+            int m = (int) p.mask;
+            switch (p.type) {
+                case ANY -> {
+                    if ((m & present) != 0) return true;
+                    if ((m & ~absent) == 0) return false;
+                    for (long t : anyTrue) if ((t & ~m) == 0) return true; // bekannte Teilmenge vorhanden
+                    return null;
+                }
+                case NO_REPEAT -> {
+                    if ((m & ~absent) == 0) return true;
+                    for (long known : noRepeatKnown) {
+                        if ((known & 0xFFF) == m) return (known >>> 12) != 0;
+                    }
+                    return null;
+                }
+                default -> {
+                    if ((flagsTrue & p.mask) != 0) return true;
+                    if ((flagsFalse & p.mask) != 0) return false;
+                    return null;
+                }
+            }
+        }
+
+        Knowledge with(Predicate p, boolean value) {
+            int m = (int) p.mask;
+            return switch (p.type) {
+                case ANY -> {
+                    if (!value) yield new Knowledge(present, absent | m, anyTrue, noRepeatKnown, flagsTrue, flagsFalse);
+                    if (Integer.bitCount(m) == 1) yield new Knowledge(present | m, absent, anyTrue, noRepeatKnown, flagsTrue, flagsFalse);
+                    long[] t = Arrays.copyOf(anyTrue, anyTrue.length + 1);
+                    t[anyTrue.length] = m;
+                    yield new Knowledge(present, absent, t, noRepeatKnown, flagsTrue, flagsFalse);
+                }
+                case NO_REPEAT -> {
+                    long[] t = Arrays.copyOf(noRepeatKnown, noRepeatKnown.length + 1);
+                    t[noRepeatKnown.length] = m | ((value ? 1L : 0L) << 12);
+                    yield new Knowledge(present, absent, anyTrue, t, flagsTrue, flagsFalse);
+                }
+                default -> value
+                        ? new Knowledge(present, absent, anyTrue, noRepeatKnown, flagsTrue | p.mask, flagsFalse)
+                        : new Knowledge(present, absent, anyTrue, noRepeatKnown, flagsTrue, flagsFalse | p.mask);
+            };
+        }
+    }
+
+    private static int build(int[] candidates, Knowledge known, long[] sample,
+                             List<List<Literal>> specs, int[] groups, List<Node> nodes) {
+        Node node = new Node();
+        int index = nodes.size();
+        nodes.add(node);
+
+        // Widerlegte Kandidaten streichen; ist der erste verbleibende vollständig erfüllt, gewinnt er (first match)
+        List<Integer> remaining = new ArrayList<>();
+        for (int c : candidates) {
+            boolean refuted = false;
+            boolean open = false;
+            for (Literal l : specs.get(c)) {
+                Boolean o = known.outcome(l.predicate);
+                if (o == null) open = true;
+                else if (o != l.expected) { refuted = true; break; }
+            }
+            if (refuted) continue;
+            if (!open && remaining.isEmpty()) {
+                node.group = groups[c];
+                return index;
+            }
+            remaining.add(c);
+        }
+        if (remaining.isEmpty()) return index; // keine Gruppe
+
+        // Offenes Prädikat des ersten Kandidaten, das im Mittel die meisten verbleibenden Kandidaten ausschließt
+        Predicate best = null;
+        double bestScore = -1;
+        for (Literal l : specs.get(remaining.getFirst())) {
+            if (known.outcome(l.predicate) != null) continue;
+            double score = expectedEliminations(l.predicate, remaining, specs, sample);
+            if (score > bestScore) {
+                best = l.predicate;
+                bestScore = score;
+            }
+        }
+        node.predicate = best;
+        int[] rest = remaining.stream().mapToInt(Integer::intValue).toArray();
+        Predicate p = best;
+        long[] sampleTrue = Arrays.stream(sample).filter(f -> evaluate(p, f)).toArray();
+        long[] sampleFalse = Arrays.stream(sample).filter(f -> !evaluate(p, f)).toArray();
+        node.ifTrue = build(rest, known.with(best, true), sampleTrue, specs, groups, nodes);
+        node.ifFalse = build(rest, known.with(best, false), sampleFalse, specs, groups, nodes);
+        return index;
+    }
+
+    private static double expectedEliminations(Predicate p, List<Integer> candidates, List<List<Literal>> specs, long[] sample) {
+        int requireTrue = 0;
+        int requireFalse = 0;
+        for (int c : candidates) {
+            for (Literal l : specs.get(c)) {
+                if (l.predicate.equals(p)) {
+                    if (l.expected) requireTrue++; else requireFalse++;
+                    break;
+                }
+            }
+        }
+        double pTrue = 0.5;
+        if (sample.length > 0) {
+            int t = 0;
+            for (long f : sample) if (evaluate(p, f)) t++;
+            pTrue = (double) t / sample.length;
+        }
+        // Ist das Prädikat wahr, fallen die Kandidaten weg, die "falsch" verlangen, und umgekehrt
+        return pTrue * requireFalse + (1 - pTrue) * requireTrue;
+    }
+
+    private static boolean evaluate(Predicate p, long features) {
+        return switch (p.type) {
+            case ANY -> (BitmaskChordRules.icMask(features) & p.mask) != 0;
+            case NO_REPEAT -> (BitmaskChordRules.repeatedMask(features) & p.mask) == 0;
+            default -> (features & p.mask) != 0;
+        };
+    }
+}
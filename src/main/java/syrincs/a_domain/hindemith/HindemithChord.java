@@ -6,46 +6,58 @@ import syrincs.a_domain.chord.Chord;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Immutable analyzed chord: packed notes (see {@link Chord}), root and group. Interval lists are computed on demand.
+ */
 public class HindemithChord extends Chord {
 
-    private final List<HindemithInterval> intervals;
-    private final Integer rootNote;
-    private final Integer rootNotePitchClass;
-    private final List<HindemithInterval> rootHindemithIntervals; //intervals from rootNote to remaining notes
-    private Integer group; // 1..14, or null if unknown
+    private static final byte UNKNOWN_GROUP = -1;
+
+    private final byte rootNote;
+    private final byte group; // 1..18, or UNKNOWN_GROUP
 
     public HindemithChord(
             List<Integer> notes,
             Integer rootNote,
             Integer group) {
         super(notes);
-        this.intervals = mapIntervals(getAllIntervals());
-        this.rootHindemithIntervals = intervals.subList(0, notes.size() - 1);
-        this.rootNote = rootNote;
-        this.rootNotePitchClass = this.rootNote % 12;
-        this.group = group;
+        if (rootNote < 0 || rootNote > 127) {
+            throw new IllegalArgumentException("Root note out of range 0..127: " + rootNote);
+        }
+        this.rootNote = (byte) (int) rootNote;
+        this.group = group == null ? UNKNOWN_GROUP : (byte) (int) group;
     }
 
     private List<HindemithInterval> mapIntervals(List<Interval> from){
         return from.stream()
-                .map(i -> new HindemithInterval(i.getLowNote(), i.getHighNote()))
+                .map(i -> HindemithInterval.of(i.getLowNote(), i.getHighNote()))
                 .collect(Collectors.toList());
     }
 
     public Integer getRootNote() {
-            return rootNote;
+            return (int) rootNote;
     }
 
-    public Integer getGroup() {
-        return group;
+    public int getRootNotePitchClass() {
+        return rootNote % 12;
     }
 
-    public void setGroup(Integer group) {
-        this.group = group;
+    /**
+     * @return group 1..18, or null if unknown
+     */
+    public Integer getGroup() {
+        return group == UNKNOWN_GROUP ? null : (int) group;
     }
 
+    /**
+     * Intervals from the first note to the remaining notes.
+     */
     public List<HindemithInterval> getRootIntervals() {
-        return rootHindemithIntervals;
+        List<HindemithInterval> result = new ArrayList<>(getNumNotes() - 1);
+        for (int i = 1; i < getNumNotes(); i++) {
+            result.add(HindemithInterval.of(getNote(0), getNote(i)));
+        }
+        return result;
     }
 
     public List<HindemithInterval> calculateRootIntervals(Set<Integer> notes) {
@@ -53,14 +65,14 @@ public class HindemithChord extends Chord {
         List<Integer> notesList = new ArrayList<>(notes);
         List<HindemithInterval> result = new ArrayList<>();
         for (int gap = 1; gap < notesList.size(); gap++) {
-            HindemithInterval hindemithInterval = new HindemithInterval(notesList.getFirst(), notesList.get(gap));
+            HindemithInterval hindemithInterval = HindemithInterval.of(notesList.getFirst(), notesList.get(gap));
             result.add(hindemithInterval);
         }
         return result;
     }
 
     List<HindemithInterval> getAllHindemithIntervals(){
-        return this.intervals;
+        return mapIntervals(getAllIntervals());
     }
 
     public HindemithChord transpose(int pitch){
@@ -73,4 +85,3 @@ public class HindemithChord extends Chord {
 
 
 }
-
@@ -2,24 +2,57 @@ package syrincs.a_domain.hindemith;
 
 import syrincs.a_domain.Interval;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
+/**
+ * Immutable interval with Hindemith quality and root. Instances for MIDI notes 0..127 are interned in a static
+ * table built at class initialization, so {@link #of} never allocates and the instances can be shared freely
+ * between threads.
+ */
 public class HindemithInterval extends Interval {
 
 
     public static final List<Integer> intervalsSortedByQualityFirst = List.of(7, 5, 4, 8, 3, 9, 2, 10, 1, 11, 6); //Die Quinte ist das Beste Interval, der Tritonus das Schlechteste
+    private static final List<Integer> chooseLowerNoteAsRootNote = List.of(7, 4, 3, 10, 11, 6); //Der Grundton ist bei diesen Intervallen unten. oben: 5,8,9,2,1.
+
+    // Je Intervallklasse vorberechnet
+    private static final int[] QUALITY = new int[12];
+    private static final boolean[] LOWER_NOTE_IS_ROOT = new boolean[12];
+
+    private static final int NOTES = 128;
+    // Index lowNote * 128 + highNote, in Aufrufreihenfolge (der Grundton hängt davon ab, s. Konstruktor)
+    private static final HindemithInterval[] TABLE = new HindemithInterval[NOTES * NOTES];
+
+    static {
+        for (int ic = 0; ic < 12; ic++) {
+            QUALITY[ic] = intervalsSortedByQualityFirst.indexOf(ic);
+            LOWER_NOTE_IS_ROOT[ic] = chooseLowerNoteAsRootNote.contains(ic);
+        }
+        for (int low = 0; low < NOTES; low++) {
+            for (int high = 0; high < NOTES; high++) {
+                TABLE[low * NOTES + high] = new HindemithInterval(low, high);
+            }
+        }
+    }
+
     private final int quality;
-    private final List<Integer> chooseLowerNoteAsRootNote = List.of(7, 4, 3, 10, 11,6); //Der Grundton ist bei diesen Intervallen unten. oben: 5,8,9,2,1.
     private final int rootNote;
 
 
-    public HindemithInterval(int lowNote, int highNote) {
+    private HindemithInterval(int lowNote, int highNote) {
         super(lowNote, highNote);
-        this.quality = intervalsSortedByQualityFirst.indexOf(getDifferenceWithoutOctavations());
-        this.rootNote = chooseLowerNoteAsRootNote.contains(getDifferenceWithoutOctavations()) ? lowNote : highNote;
+        this.quality = QUALITY[getDifferenceWithoutOctavations()];
+        this.rootNote = LOWER_NOTE_IS_ROOT[getDifferenceWithoutOctavations()] ? lowNote : highNote;
+    }
+
+    /**
+     * Shared instance for two MIDI notes (0..127); notes outside that range get a fresh instance.
+     */
+    public static HindemithInterval of(int lowNote, int highNote) {
+        if (lowNote < 0 || lowNote >= NOTES || highNote < 0 || highNote >= NOTES) {
+            return new HindemithInterval(lowNote, highNote);
+        }
+        return TABLE[lowNote * NOTES + highNote];
     }
 
     public int getQuality(){
@@ -33,4 +66,3 @@ public class HindemithInterval extends Interval {
 
 
 }
-
@@ -0,0 +1,146 @@
+package syrincs.a_domain.hindemith;
+
+import java.util.Arrays;
+
+/**
+ * IncrementalChordAnalyzer
+ * Keeps the features of {@link BitmaskChordRules} for a chord that changes one note at a time (revolving-door
+ * enumeration). Adding or removing a note updates the interval-class histogram, the pitch-class counts and the
+ * root candidates per note in O(k); {@link #classify()} then needs O(k) instead of the O(k²) pair scan.
+ *
+ * Not thread-safe: one instance per enumeration.
+ */
+public final class IncrementalChordAnalyzer {
+
+    private static final int NOTES = 128;
+
+    private final BitmaskChordRules rules;
+    private final int[] members;
+    private int size;
+
+    private final int[] icCount = new int[12];
+    private final int[] pcCount = new int[12];
+    // [note * 12 + ic]: Anzahl der Töne über (up) bzw. unter (down) note im Abstand ic
+    private final int[] upCount = new int[NOTES * 12];
+    private final int[] downCount = new int[NOTES * 12];
+
+    public IncrementalChordAnalyzer(BitmaskChordRules rules, int maxNotes) {
+        this.rules = rules;
+        this.members = new int[maxNotes];
+    }
+
+    /**
+     * Replaces the current chord with notes[0..k-1] (distinct MIDI notes).
+     */
+    public void reset(int[] notes, int k) {
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(upCount, members[i] * 12, members[i] * 12 + 12, 0);
+            Arrays.fill(downCount, members[i] * 12, members[i] * 12 + 12, 0);
+        }
+        Arrays.fill(icCount, 0);
+        Arrays.fill(pcCount, 0);
+        size = 0;
+        for (int i = 0; i < k; i++) add(notes[i]);
+    }
+
+    public void swap(int removedNote, int addedNote) {
+        remove(removedNote);
+        add(addedNote);
+    }
+
+    public void add(int note) {
+        for (int i = 0; i < size; i++) pair(members[i], note, 1);
+        pcCount[note % 12]++;
+        members[size++] = note;
+    }
+
+    public void remove(int note) {
+        int idx = -1;
+        for (int i = 0; i < size; i++) {
+            if (members[i] == note) {
+                idx = i;
+                break;
+            }
+        }
+        if (idx < 0) {
+            throw new IllegalArgumentException("Note not in chord: " + note);
+        }
+        members[idx] = members[--size];
+        pcCount[note % 12]--;
+        for (int i = 0; i < size; i++) pair(members[i], note, -1);
+    }
+
+    private void pair(int a, int b, int delta) {
+        int low = Math.min(a, b);
+        int high = Math.max(a, b);
+        int ic = (high - low) % 12;
+        icCount[ic] += delta;
+        upCount[low * 12 + ic] += delta;
+        downCount[high * 12 + ic] += delta;
+    }
+
+    /**
+     * Same result as {@link BitmaskChordRules#classify} for the current chord.
+     */
+    public int classify() {
+        return rules.classifyFeatures(features());
+    }
+
+    long features() {
+        int icMask = 0;
+        int repeatedMask = 0;
+        for (int ic = 0; ic < 12; ic++) {
+            if (icCount[ic] > 0) icMask |= 1 << ic;
+            if (icCount[ic] > 1) repeatedMask |= 1 << ic;
+        }
+
+        // Die zwei tiefsten Töne bilden das erste Paar in der Reihenfolge der Intervallberechnung
+        int bass = Integer.MAX_VALUE;
+        int second = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int n = members[i];
+            if (n < bass) {
+                second = bass;
+                bass = n;
+            } else if (n < second) {
+                second = n;
+            }
+        }
+
+        // Bestes Intervall: mit Prime/Oktave als erstem Paar bleibt diese (Qualität -1) maßgeblich, sonst die beste Qualität
+        int best = (second - bass) % 12;
+        if (best != 0) {
+            for (int ic = 1; ic < 12; ic++) {
+                if (icCount[ic] > 0 && BitmaskChordRules.QUALITY[ic] < BitmaskChordRules.QUALITY[best]) best = ic;
+            }
+        }
+        boolean lowerIsRoot = (BitmaskChordRules.LOWER_ROOT_MASK & (1 << best)) != 0;
+        int[] candidates = lowerIsRoot ? upCount : downCount;
+        int root = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int n = members[i];
+            if (candidates[n * 12 + best] > 0) root = Math.min(root, n);
+        }
+
+        boolean allMod4 = true, allMod5 = true, allMod3 = true;
+        int pcMask = 0;
+        for (int i = 0; i < size; i++) {
+            int d = members[i] - bass;
+            allMod4 &= d % 4 == 0;
+            allMod5 &= d % 5 == 0;
+            allMod3 &= d % 3 == 0;
+        }
+        for (int pc = 0; pc < 12; pc++) {
+            if (pcCount[pc] > 0) pcMask |= 1 << pc;
+        }
+        int tritones = Integer.bitCount(pcMask & (pcMask >>> 6) & 0x3F);
+
+        long f = BitmaskChordRules.packFeatures(icMask, repeatedMask, root);
+        if (allMod4 || allMod5) f |= BitmaskChordRules.F_LAYERED;
+        if (allMod3) f |= BitmaskChordRules.F_DIM;
+        if (tritones >= 2) f |= BitmaskChordRules.F_MULTI_TRITONE;
+        if (root == bass) f |= BitmaskChordRules.F_ROOT_IS_BASS;
+        if (tritones > 0) f |= BitmaskChordRules.F_PC_TRITONE;
+        return f;
+    }
+}
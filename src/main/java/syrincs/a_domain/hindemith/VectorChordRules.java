@@ -0,0 +1,162 @@
+package syrincs.a_domain.hindemith;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import syrincs.a_domain.chord.ChordBatch;
+
+import java.util.List;
+
+/**
+ * VectorChordRules
+ * SIMD variant of {@link BitmaskChordRules} on the JDK Vector API (jdk.incubator.vector). The feature extraction
+ * (pairwise interval classes, repeated intervals, root search, layering mod 3/4/5, pitch-class tritones) runs for
+ * one chord per vector lane; the compiled rules are then matched per chord on the packed features.
+ *
+ * Opt-in: only compiled with the Maven profile {@code vector}, and the JVM must be started with
+ * {@code --add-modules jdk.incubator.vector}. Use {@link ChordAnalysisEngine#vectorizedOrScalar()} to fall back to
+ * the scalar engine otherwise. Benchmark: VectorChordRulesBenchmark in the test sources.
+ */
+public final class VectorChordRules implements ChordAnalysisEngine {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private static final class Shared {
+        static final VectorChordRules INSTANCE = new VectorChordRules(BitmaskChordRules.shared());
+    }
+
+    public static VectorChordRules shared() {
+        return Shared.INSTANCE;
+    }
+
+    private final BitmaskChordRules rules;
+
+    public VectorChordRules(BitmaskChordRules rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Number of chords classified per vector operation on this machine.
+     */
+    public static int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public ChordAnalysis.Result analyzeSorted(List<Integer> notes) {
+        return rules.analyzeSorted(notes);
+    }
+
+    @Override
+    public int classify(int[] notes, int from, int k) {
+        return rules.classify(notes, from, k);
+    }
+
+    @Override
+    public void classifyBatch(ChordBatch batch, int[] packed) {
+        int n = batch.size();
+        int k = batch.getNumNotes();
+        int lanes = SPECIES.length();
+        int[] notes = batch.notes();
+        // Transponiert: columns[i][lane] = i-ter Ton des Akkords in dieser Lane
+        int[][] columns = new int[k][lanes];
+        int[] scratch = new int[lanes];
+        int[] low = new int[lanes];
+        int[] roots = new int[lanes];
+
+        int c = 0;
+        for (; c + lanes <= n; c += lanes) {
+            for (int lane = 0; lane < lanes; lane++) {
+                int from = batch.offset(c + lane);
+                for (int i = 0; i < k; i++) columns[i][lane] = notes[from + i];
+            }
+            features(columns, k, scratch, low, roots);
+            for (int lane = 0; lane < lanes; lane++) {
+                long f = (low[lane] & 0xFFFFFFFFL) | ((long) roots[lane] << 32);
+                packed[c + lane] = rules.classifyFeatures(f);
+            }
+        }
+        // Rest, der keinen vollen Vektor füllt
+        for (; c < n; c++) {
+            packed[c] = rules.classify(notes, batch.offset(c), k);
+        }
+    }
+
+    /**
+     * Lane-wise {@link BitmaskChordRules#features}: low[lane] gets bits 0-31 (masks and flags), roots[lane] the root.
+     */
+    private static void features(int[][] columns, int k, int[] scratch, int[] low, int[] roots) {
+        IntVector[] v = new IntVector[k];
+        for (int i = 0; i < k; i++) v[i] = IntVector.fromArray(SPECIES, columns[i], 0);
+        IntVector zero = IntVector.zero(SPECIES);
+        IntVector one = IntVector.broadcast(SPECIES, 1);
+
+        IntVector icMask = zero;
+        IntVector repeatedMask = zero;
+        IntVector bestQuality = null;
+        IntVector root = null;
+        for (int i = 0; i < k; i++) {
+            for (int j = i + 1; j < k; j++) {
+                IntVector ic = mod12(v[j].sub(v[i]));
+                IntVector bit = one.lanewise(VectorOperators.LSHL, ic);
+                repeatedMask = repeatedMask.or(icMask.and(bit));
+                icMask = icMask.or(bit);
+
+                ic.intoArray(scratch, 0);
+                IntVector quality = IntVector.fromArray(SPECIES, BitmaskChordRules.QUALITY, 0, scratch, 0);
+                VectorMask<Integer> lowerIsRoot = bit.and(BitmaskChordRules.LOWER_ROOT_MASK).compare(VectorOperators.NE, 0);
+                IntVector candidate = v[j].blend(v[i], lowerIsRoot);
+                if (bestQuality == null) {
+                    bestQuality = quality;
+                    root = candidate;
+                } else {
+                    VectorMask<Integer> better = bestQuality.compare(VectorOperators.GT, quality)
+                            .and(quality.compare(VectorOperators.NE, -1));
+                    VectorMask<Integer> tie = bestQuality.compare(VectorOperators.EQ, quality);
+                    root = root.blend(candidate, better).blend(root.min(candidate), tie);
+                    bestQuality = bestQuality.blend(quality, better);
+                }
+            }
+        }
+
+        VectorMask<Integer> allMod4 = SPECIES.maskAll(true);
+        VectorMask<Integer> allMod5 = SPECIES.maskAll(true);
+        VectorMask<Integer> allMod3 = SPECIES.maskAll(true);
+        for (int j = 1; j < k; j++) {
+            IntVector d = v[j].sub(v[0]);
+            allMod4 = allMod4.and(d.and(3).compare(VectorOperators.EQ, 0));
+            allMod5 = allMod5.and(d.sub(div5(d).mul(5)).compare(VectorOperators.EQ, 0));
+            allMod3 = allMod3.and(d.sub(div3(d).mul(3)).compare(VectorOperators.EQ, 0));
+        }
+
+        IntVector pcMask = zero;
+        for (int i = 0; i < k; i++) pcMask = pcMask.or(one.lanewise(VectorOperators.LSHL, mod12(v[i])));
+        IntVector tritones = pcMask.and(pcMask.lanewise(VectorOperators.LSHR, 6)).and(0x3F)
+                .lanewise(VectorOperators.BIT_COUNT);
+
+        IntVector flags = zero
+                .lanewise(VectorOperators.OR, (int) BitmaskChordRules.F_LAYERED, allMod4.or(allMod5))
+                .lanewise(VectorOperators.OR, (int) BitmaskChordRules.F_DIM, allMod3)
+                .lanewise(VectorOperators.OR, (int) BitmaskChordRules.F_MULTI_TRITONE, tritones.compare(VectorOperators.GE, 2))
+                .lanewise(VectorOperators.OR, (int) BitmaskChordRules.F_ROOT_IS_BASS, root.compare(VectorOperators.EQ, v[0]))
+                .lanewise(VectorOperators.OR, (int) BitmaskChordRules.F_PC_TRITONE, tritones.compare(VectorOperators.GT, 0));
+
+        icMask.or(repeatedMask.lanewise(VectorOperators.LSHL, 12)).or(flags).intoArray(low, 0);
+        root.intoArray(roots, 0);
+    }
+
+    // Ganzzahl-Division per Multiplikation und Shift, exakt für 0 <= x < 2^16 (MIDI-Töne und ihre Abstände)
+    private static IntVector div3(IntVector x) {
+        return x.mul(0xAAAB).lanewise(VectorOperators.LSHR, 17);
+    }
+
+    private static IntVector div5(IntVector x) {
+        return x.mul(0xCCCD).lanewise(VectorOperators.LSHR, 18);
+    }
+
+    private static IntVector mod12(IntVector x) {
+        IntVector div12 = x.mul(0xAAAB).lanewise(VectorOperators.LSHR, 19);
+        return x.sub(div12.mul(12));
+    }
+}
@@ -0,0 +1,28 @@
+package syrincs.b_application;
+
+import syrincs.a_domain.hindemith.BitmaskChordRules;
+import syrincs.a_domain.hindemith.ChordAnalysis;
+import syrincs.a_domain.hindemith.ChordAnalysisEngine;
+import syrincs.a_domain.hindemith.ChordStructureTable;
+import syrincs.a_domain.hindemith.DecisionTreeChordRules;
+
+/**
+ * Analysis paths that can be verified against the reference rule evaluation.
+ */
+public enum AnalysisPath {
+    /** Default path: structure table, rule evaluation outside the table. */
+    TABLE,
+    BITMASK,
+    DECISION_TREE,
+    /** SIMD engine (Maven profile vector), scalar fallback without it or without jdk.incubator.vector. */
+    VECTOR;
+
+    public ChordAnalysis create() {
+        return switch (this) {
+            case TABLE -> new ChordAnalysis(ChordStructureTable.shared());
+            case BITMASK -> new ChordAnalysis(null, BitmaskChordRules.shared());
+            case DECISION_TREE -> new ChordAnalysis(null, DecisionTreeChordRules.shared());
+            case VECTOR -> new ChordAnalysis(null, ChordAnalysisEngine.vectorizedOrScalar());
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package syrincs.b_application;
+
+import syrincs.a_domain.chord.EnumerationStats;
+import syrincs.a_domain.chord.NoteCombinator;
+import syrincs.a_domain.hindemith.BitmaskChordRules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+/**
+ * Rule coverage audit: evaluates all ChordSpecifications for every chord of a range (not only up to the first
+ * match as the analysis does) and counts chords per group, chords without any matching group and chords that
+ * match several specifications. Runs on the compiled {@link BitmaskChordRules}, which are verified to be
+ * identical to the rule evaluation of ChordAnalysis.
+ */
+public class AuditChordRulesUseCase {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final NoteCombinator combinator;
+    private final BitmaskChordRules rules;
+    private final Logger LOGGER = Logger.getLogger(AuditChordRulesUseCase.class.getName());
+
+    /**
+     * Chords sharing the same outcome, e.g. "no match" or "groups [1, 5]".
+     *
+     * @param groups   matching groups (empty = no match)
+     * @param examples the lexicographically first chords of this category
+     */
+    public record Category(List<Integer> groups, long count, List<List<Integer>> examples) {
+        @Override
+        public String toString() {
+            return (groups.isEmpty() ? "no match" : "groups " + groups) + ": " + count + " chords, e.g. " + examples;
+        }
+    }
+
+    /**
+     * @param firstMatchCounts chords per group as assigned by the analysis (first matching specification)
+     * @param noMatch          chords without any matching specification (the analysis throws for these)
+     * @param overlaps         chords matching several specifications, one category per set of groups, largest first
+     */
+    public record Report(int numNotes, int minLowerNote, int maxUpperNote, int octaves, long chords,
+                         SortedMap<Integer, Long> firstMatchCounts, Category noMatch, List<Category> overlaps) {
+    }
+
+    public AuditChordRulesUseCase(NoteCombinator combinator, BitmaskChordRules rules) {
+        this.combinator = combinator;
+        this.rules = rules;
+    }
+
+    /**
+     * Audits all chords with numNotes notes in the range (unique pitch classes, span of at most octaves).
+     *
+     * @param examples    number of example chords kept per category
+     * @param parallelism worker threads (1 = sequential)
+     */
+    public Report audit(int numNotes, int minLowerNote, int maxUpperNote, int octaves, int examples, int parallelism) {
+        EnumerationStats stats = new EnumerationStats();
+        Tally total = new Tally();
+
+        var batches = combinator.streamBatches(numNotes, minLowerNote, maxUpperNote,
+                NoteCombinator.defaultConstraints(octaves), BATCH_SIZE, stats);
+        ParallelRunner.forEachBatch(batches, parallelism, batch -> {
+            // Je Batch lokal zählen und einmal unter Sperre zusammenführen
+            Tally local = new Tally();
+            int[] notes = batch.notes();
+            for (int c = 0; c < batch.size(); c++) {
+                int from = batch.offset(c);
+                int mask = rules.matchingGroups(notes, from, numNotes);
+                if (mask != 0) local.firstMatch[Integer.numberOfTrailingZeros(mask)]++;
+                if (Integer.bitCount(mask) != 1) {
+                    local.byMask.merge(mask, 1L, Long::sum);
+                    var kept = local.examples.computeIfAbsent(mask, m -> new TreeSet<>(Arrays::compare));
+                    if (kept.size() < examples) kept.add(Arrays.copyOfRange(notes, from, from + numNotes));
+                }
+            }
+            local.chords = batch.size();
+            synchronized (total) {
+                total.add(local, examples);
+            }
+        });
+
+        SortedMap<Integer, Long> counts = new TreeMap<>();
+        for (int g = 0; g < total.firstMatch.length; g++) {
+            if (total.firstMatch[g] > 0) counts.put(g, total.firstMatch[g]);
+        }
+        Category noMatch = category(0, total);
+        List<Category> overlaps = new ArrayList<>();
+        for (Integer mask : total.byMask.keySet()) {
+            if (mask != 0) overlaps.add(category(mask, total));
+        }
+        overlaps.sort(Comparator.comparingLong(Category::count).reversed().thenComparing(c -> c.groups().toString()));
+
+        Report report = new Report(numNotes, minLowerNote, maxUpperNote, octaves, total.chords, counts, noMatch, overlaps);
+        LOGGER.info("Rule audit for " + numNotes + " notes: " + report.chords() + " chords, " + noMatch.count()
+                + " without match, " + overlaps.size() + " overlapping group sets.");
+        return report;
+    }
+
+    // Zähler eines Batches bzw. des ganzen Laufs; Schlüssel der Maps: Maske der passenden Gruppen (Bit g = Gruppe g), 0 = keine
+    private static final class Tally {
+        long chords;
+        final long[] firstMatch = new long[32];
+        final Map<Integer, Long> byMask = new HashMap<>();
+        final Map<Integer, TreeSet<int[]>> examples = new HashMap<>();
+
+        void add(Tally other, int maxExamples) {
+            chords += other.chords;
+            for (int g = 0; g < firstMatch.length; g++) firstMatch[g] += other.firstMatch[g];
+            other.byMask.forEach((mask, count) -> byMask.merge(mask, count, Long::sum));
+            other.examples.forEach((mask, chords) -> {
+                TreeSet<int[]> kept = examples.computeIfAbsent(mask, m -> new TreeSet<>(Arrays::compare));
+                kept.addAll(chords);
+                while (kept.size() > maxExamples) kept.pollLast();
+            });
+        }
+    }
+
+    private static Category category(int mask, Tally total) {
+        List<Integer> groups = new ArrayList<>();
+        for (int g = 0; g < 32; g++) {
+            if ((mask & (1 << g)) != 0) groups.add(g);
+        }
+        List<List<Integer>> examples = new ArrayList<>();
+        for (int[] notes : total.examples.getOrDefault(mask, new TreeSet<>(Arrays::compare))) {
+            examples.add(Arrays.stream(notes).boxed().toList());
+        }
+        return new Category(groups, total.byMask.getOrDefault(mask, 0L), examples);
+    }
+}
@@ -0,0 +1,36 @@
+package syrincs.b_application;
+
+import java.util.List;
+
+/**
+ * Options for the calculate path.
+ *
+ * @param parallelism   number of worker threads for generation and analysis (1 = sequential)
+ * @param ordered       keep the sequential output order when running in parallel (reproducible ids)
+ * @param groups        only keep chords of these Hindemith groups (1-based); empty = all groups
+ * @param revolvingDoor generate in revolving-door order (one note changes per step) with incremental analysis;
+ *                      same chords, different order
+ */
+public record ChordGenerationOptions(int parallelism, boolean ordered, List<Integer> groups, boolean revolvingDoor) {
+
+    public static final ChordGenerationOptions SEQUENTIAL = new ChordGenerationOptions(1, true, List.of());
+
+    public ChordGenerationOptions {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        groups = groups == null ? List.of() : List.copyOf(groups);
+    }
+
+    public ChordGenerationOptions(int parallelism, boolean ordered, List<Integer> groups) {
+        this(parallelism, ordered, groups, false);
+    }
+
+    public boolean isParallel() {
+        return parallelism > 1;
+    }
+
+    public boolean isGroupTargeted() {
+        return !groups.isEmpty();
+    }
+}
@@ -0,0 +1,174 @@
+package syrincs.b_application;
+
+import syrincs.a_domain.chord.ChordBatch;
+import syrincs.b_application.ports.BulkLoadMode;
+import syrincs.b_application.ports.ChunkKey;
+import syrincs.b_application.ports.HindemithChordRepositoryPort;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes a stream of chord batches as separately committed chunks over several connections.
+ *
+ * Every batch is one chunk under the {@link ChunkKey} the producer gives it, and is written through
+ * {@link HindemithChordRepositoryPort#saveChunk} by one of {@code connections} worker threads. A failed chunk is
+ * retried with exponential backoff; if it still fails, no further chunks are accepted and the load fails, but all
+ * committed chunks stay committed. Since the repository records (loadId, key) together with the rows, rerunning
+ * the same load skips the committed chunks and writes only the missing ones. This requires keys derived from the
+ * chunk contents (see {@link GenerateChordsUseCase#generateKeyedBatches}), not from the order of delivery, which
+ * changes with the parallelism of the producer.
+ */
+public class ChunkedChordWriter {
+
+    /**
+     * @param connections    parallel writers (connections)
+     * @param maxAttempts    attempts per chunk including the first one
+     * @param initialBackoff wait before the first retry; doubled for every further retry
+     */
+    public record Options(int connections, int maxAttempts, Duration initialBackoff) {
+        public static final Options DEFAULT = new Options(4, 5, Duration.ofMillis(200));
+
+        public Options {
+            if (connections < 1) throw new IllegalArgumentException("connections must be >= 1");
+            if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be >= 1");
+            Objects.requireNonNull(initialBackoff, "initialBackoff must not be null");
+        }
+    }
+
+    /**
+     * Reported after each chunk is finished, from the writer thread of that chunk.
+     *
+     * @param written  false if the chunk was already committed by an earlier run and therefore skipped
+     * @param attempts attempts needed for this chunk
+     */
+    public record Progress(String loadId, ChunkKey chunk, int rows, boolean written, int attempts,
+                           long chunksDone, long rowsWritten) {
+    }
+
+    public record Result(String loadId, long chunks, long chunksWritten, long chunksSkipped,
+                         long rowsWritten, long rowsSkipped, long retries) {
+    }
+
+    private final HindemithChordRepositoryPort repository;
+    private final Options options;
+    private final Consumer<Progress> progress;
+    private final Logger LOGGER = Logger.getLogger(ChunkedChordWriter.class.getName());
+
+    public ChunkedChordWriter(HindemithChordRepositoryPort repository, Options options, Consumer<Progress> progress) {
+        this.repository = Objects.requireNonNull(repository, "repository must not be null");
+        this.options = Objects.requireNonNull(options, "options must not be null");
+        this.progress = progress == null ? p -> { } : progress;
+    }
+
+    /**
+     * Runs the producer, which hands its batches with their keys to the given sink (possibly from several threads),
+     * and writes them as chunks of the load loadId. Blocks until all chunks are committed (or skipped).
+     *
+     * @throws IllegalStateException if a chunk still fails after maxAttempts (cause: the last failure)
+     */
+    public Result write(String loadId, BulkLoadMode mode, Consumer<BiConsumer<ChunkKey, ChordBatch>> producer) {
+        Objects.requireNonNull(loadId, "loadId must not be null");
+        ExecutorService writers = Executors.newFixedThreadPool(options.connections());
+        // Höchstens zwei Chunks je Verbindung in der Warteschlange, damit der Erzeuger nicht beliebig vorausläuft
+        Semaphore inFlight = new Semaphore(2 * options.connections());
+        AtomicLong chunks = new AtomicLong();
+        AtomicLong chunksWritten = new AtomicLong();
+        AtomicLong chunksSkipped = new AtomicLong();
+        AtomicLong rowsWritten = new AtomicLong();
+        AtomicLong rowsSkipped = new AtomicLong();
+        AtomicLong retries = new AtomicLong();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        BiConsumer<ChunkKey, ChordBatch> sink = (chunk, batch) -> {
+            throwIfFailed(failure);
+            inFlight.acquireUninterruptibly();
+            chunks.incrementAndGet();
+            writers.execute(() -> {
+                try {
+                    if (failure.get() != null) return;
+                    AtomicInteger attempts = new AtomicInteger();
+                    boolean written = writeWithRetry(loadId, chunk, batch, mode, attempts);
+                    retries.addAndGet(attempts.get() - 1);
+                    (written ? chunksWritten : chunksSkipped).incrementAndGet();
+                    (written ? rowsWritten : rowsSkipped).addAndGet(batch.size());
+                    progress.accept(new Progress(loadId, chunk, batch.size(), written, attempts.get(),
+                            chunksWritten.get() + chunksSkipped.get(), rowsWritten.get()));
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        };
+
+        try {
+            producer.accept(sink);
+        } finally {
+            writers.shutdown();
+            awaitTermination(writers);
+        }
+        throwIfFailed(failure);
+
+        Result result = new Result(loadId, chunks.get(), chunksWritten.get(), chunksSkipped.get(),
+                rowsWritten.get(), rowsSkipped.get(), retries.get());
+        LOGGER.info("Chunked load finished: " + result);
+        return result;
+    }
+
+    private boolean writeWithRetry(String loadId, ChunkKey chunk, ChordBatch batch, BulkLoadMode mode, AtomicInteger attempts) {
+        long backoff = options.initialBackoff().toMillis();
+        while (true) {
+            attempts.incrementAndGet();
+            try {
+                return repository.saveChunk(loadId, chunk, batch, mode);
+            } catch (RuntimeException e) {
+                if (attempts.get() >= options.maxAttempts()) {
+                    throw new IllegalStateException("Chunk " + chunk + " of load " + loadId + " failed after "
+                            + attempts.get() + " attempts", e);
+                }
+                LOGGER.log(Level.WARNING, "Chunk " + chunk + " of load " + loadId + " failed (attempt " + attempts.get()
+                        + "), retrying in " + backoff + " ms: " + e.getMessage());
+                sleep(backoff);
+                backoff *= 2;
+            }
+        }
+    }
+
+    private static void throwIfFailed(AtomicReference<RuntimeException> failure) {
+        RuntimeException e = failure.get();
+        if (e != null) throw e;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Chunked load interrupted", e);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService writers) {
+        try {
+            while (!writers.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Weiter warten: laufende Chunks werden nicht abgebrochen, sonst wäre ihr Zustand unklar
+            }
+        } catch (InterruptedException e) {
+            writers.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Chunked load interrupted", e);
+        }
+    }
+}
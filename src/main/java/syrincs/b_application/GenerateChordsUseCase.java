@@ -1,13 +1,31 @@
 package syrincs.b_application;
 
+import syrincs.a_domain.chord.ChordBatch;
+import syrincs.a_domain.chord.ChordConstraint;
+import syrincs.a_domain.chord.EnumerationStats;
+import syrincs.a_domain.chord.RevolvingDoorVisitor;
+import syrincs.a_domain.hindemith.BitmaskChordRules;
 import syrincs.a_domain.hindemith.ChordAnalysis;
+import syrincs.a_domain.hindemith.ChordRules;
+import syrincs.a_domain.hindemith.ChordSpecification;
+import syrincs.a_domain.hindemith.ChordSpecificationRepository;
 import syrincs.a_domain.hindemith.HindemithChord;
+import syrincs.a_domain.hindemith.IncrementalChordAnalyzer;
 import syrincs.a_domain.chord.NoteCombinator;
+import syrincs.b_application.ports.ChunkKey;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class GenerateChordsUseCase {
+    static final List<Integer> NUM_NOTES_TO_FIVE = List.of(3, 4, 5);
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
     private final NoteCombinator combinator;
     private final ChordAnalysis analysis;
     private final int maxOctaves;
@@ -19,24 +37,316 @@ public class GenerateChordsUseCase {
         this.maxOctaves = maxOctaves;
     }
 
+    /**
+     * Materializes all 3-note chords of the range.
+     *
+     * @deprecated holds the whole range in memory; use {@link #stream(int, int, int)} with 3 notes
+     */
+    @Deprecated
     public List<HindemithChord> generateChordsForThreeNotes(int minLowerNote, int maxUpperNote) {
-        return generate(3, minLowerNote, maxUpperNote);
+        return stream(3, minLowerNote, maxUpperNote).toList();
     }
 
+    /**
+     * Materializes all chords with 3, 4 and 5 notes of the range.
+     *
+     * @deprecated holds the whole range in memory; use {@link #streamAllChordsToFiveNotes(int, int)} or the batch
+     * pipeline ({@link #generateBatches(int, int, ChordGenerationOptions, int, Consumer)})
+     */
+    @Deprecated
     public List<HindemithChord> generateAllChordsToFiveNotes(int minLowerNote, int maxUpperNote) {
+        return streamAllChordsToFiveNotes(minLowerNote, maxUpperNote).toList();
+    }
+
+    /**
+     * Materializes all chords with the given number of notes in the range.
+     *
+     * @deprecated holds the whole range in memory; use {@link #stream(int, int, int)}
+     */
+    @Deprecated
+    public List<HindemithChord> generate(int numNote, int minLowerNote, int maxUpperNote) {
+        return stream(numNote, minLowerNote, maxUpperNote).toList();
+    }
+
+    /**
+     * Generates and analyzes chords for 3, 4 and 5 notes according to the options (parallelism, order, groups).
+     */
+    public List<HindemithChord> generateAllChordsToFiveNotes(int minLowerNote, int maxUpperNote, ChordGenerationOptions options) {
         List<HindemithChord> chords = new ArrayList<>();
-        List<Integer> numNotes = new ArrayList<>(List.of(3, 4, 5));
-        LOGGER.info("Starting Generation of Chords: " + numNotes + " notes");
-        for(Integer numNote : numNotes) {
-            chords.addAll(generate(numNote, minLowerNote, maxUpperNote));
-            LOGGER.log(Level.INFO, "Chords with {0} notes generated.", numNote );
+        LOGGER.info("Starting Generation of Chords: " + NUM_NOTES_TO_FIVE + " notes, " + options);
+        for (Integer numNote : NUM_NOTES_TO_FIVE) {
+            chords.addAll(generate(numNote, minLowerNote, maxUpperNote, options));
         }
         return chords;
     }
 
-    public List<HindemithChord> generate(int numNote, int minLowerNote, int maxUpperNote) {
-        List<List<Integer>> noteSets = combinator.generateChords(numNote, minLowerNote, maxUpperNote);
-        noteSets = combinator.keepWidthLessThanOctaves(noteSets, maxOctaves);
+    /**
+     * Generates and analyzes all chords with the given number of notes according to the options.
+     *
+     * In parallel mode the combination space is split by the lowest notes and generation plus analysis run on a
+     * dedicated ForkJoinPool. With groups set, subtrees that cannot belong to any of these groups are pruned
+     * inside the enumeration and the analyzed chords are filtered to the groups.
+     */
+    public List<HindemithChord> generate(int numNote, int minLowerNote, int maxUpperNote, ChordGenerationOptions options) {
+        EnumerationStats stats = new EnumerationStats();
+        Stream<List<Integer>> noteSets = combinator.streamChords(numNote, minLowerNote, maxUpperNote, constraintsFor(options), stats);
+        if (options.isParallel()) noteSets = noteSets.parallel();
+        if (!options.ordered()) noteSets = noteSets.unordered();
+
+        Stream<HindemithChord> chords = analysis.analyzeStream(noteSets);
+        if (options.isGroupTargeted()) {
+            Set<Integer> groups = Set.copyOf(options.groups());
+            chords = chords.filter(c -> groups.contains(c.getGroup()));
+        }
+
+        List<HindemithChord> result = ParallelRunner.call(chords::toList, options.parallelism());
+        LOGGER.log(Level.INFO, "Chords with {0} notes generated: {1}, kept={2}.", new Object[]{numNote, stats, result.size()});
+        return result;
+    }
+
+    /**
+     * Primitive pipeline for 3, 4 and 5 notes: chords are generated into flat {@link ChordBatch}es, analyzed in
+     * place and handed to the sink (e.g. the batch writer of the repository). Memory is bounded by the batch size.
+     *
+     * With ordered options the sink receives the batches in generation order, one at a time; unordered parallel
+     * runs may call the sink concurrently.
+     *
+     * @return number of chords handed to the sink
+     */
+    public long generateBatches(int minLowerNote, int maxUpperNote, ChordGenerationOptions options, int batchSize, Consumer<ChordBatch> sink) {
+        LOGGER.info("Starting batch Generation of Chords: " + NUM_NOTES_TO_FIVE + " notes, " + options);
+        long total = 0;
+        for (Integer numNote : NUM_NOTES_TO_FIVE) {
+            total += generateBatches(numNote, minLowerNote, maxUpperNote, options, batchSize, sink);
+        }
+        return total;
+    }
+
+    public long generateBatches(int numNote, int minLowerNote, int maxUpperNote, ChordGenerationOptions options, int batchSize, Consumer<ChordBatch> sink) {
+        EnumerationStats stats = new EnumerationStats();
+        Stream<ChordBatch> batches;
+        if (options.revolvingDoor()) {
+            // Blöcke je tiefstem Ton sind unabhängig und werden bereits beim Erzeugen analysiert
+            List<ChordConstraint> constraints = constraintsFor(options);
+            IntStream basses = IntStream.rangeClosed(minLowerNote, maxUpperNote);
+            if (options.isParallel()) basses = basses.parallel();
+            batches = basses.boxed()
+                    .mapMulti((Integer bass, Consumer<ChordBatch> emit) ->
+                            revolvingDoorBlock(numNote, bass, maxUpperNote, constraints, batchSize, stats, emit));
+        } else {
+            batches = combinator.streamBatches(numNote, minLowerNote, maxUpperNote, constraintsFor(options), batchSize, stats);
+            if (options.isParallel()) batches = batches.parallel();
+            batches = batches.map(batch -> {
+                analysis.analyzeBatch(batch);
+                return batch;
+            });
+        }
+        if (!options.ordered()) batches = batches.unordered();
+
+        if (options.isGroupTargeted()) {
+            boolean[] keep = new boolean[128];
+            for (Integer g : options.groups()) keep[g] = true;
+            batches = batches.map(batch -> {
+                batch.retainGroups(keep);
+                return batch;
+            }).filter(b -> !b.isEmpty());
+        }
+
+        // Zählen in der Terminaloperation: peek darf vom Stream ausgelassen werden
+        LongAdder count = new LongAdder();
+        Consumer<ChordBatch> counting = batch -> {
+            count.add(batch.size());
+            sink.accept(batch);
+        };
+        Stream<ChordBatch> result = batches;
+        Runnable run = options.ordered() ? () -> result.forEachOrdered(counting) : () -> result.forEach(counting);
+        ParallelRunner.run(run, options.parallelism());
+        LOGGER.log(Level.INFO, "Chords with {0} notes generated: {1}, kept={2}.", new Object[]{numNote, stats, count.sum()});
+        return count.sum();
+    }
+
+    /**
+     * Generates and analyzes like {@link #generateBatches(int, int, ChordGenerationOptions, int, Consumer)}, but cut
+     * into fixed blocks for chunked loads: the chords of every (numNotes, lowest note) pair are enumerated
+     * sequentially and cut into batches of batchSize, each handed to the sink with its {@link ChunkKey}. Contents and
+     * key of a batch therefore depend only on range, groups, order and batchSize, never on the parallelism: the
+     * blocks run in parallel (options.parallelism()) and the sink may then be called concurrently and in any order.
+     *
+     * @return number of chords handed to the sink
+     */
+    public long generateKeyedBatches(int minLowerNote, int maxUpperNote, ChordGenerationOptions options, int batchSize,
+                                     BiConsumer<ChunkKey, ChordBatch> sink) {
+        LOGGER.info("Starting keyed batch Generation of Chords: " + NUM_NOTES_TO_FIVE + " notes, " + options);
+        List<ChordConstraint> constraints = constraintsFor(options);
+        boolean[] keep = new boolean[128];
+        for (Integer g : options.groups()) keep[g] = true;
+        EnumerationStats stats = new EnumerationStats();
+        LongAdder count = new LongAdder();
+
+        Runnable run = () -> {
+            for (Integer numNote : NUM_NOTES_TO_FIVE) {
+                IntStream basses = IntStream.rangeClosed(minLowerNote, maxUpperNote);
+                if (options.isParallel()) basses = basses.parallel();
+                basses.forEach(bass -> {
+                    int[] block = {0};
+                    forEachBlockBatch(numNote, bass, maxUpperNote, options.revolvingDoor(), constraints, batchSize, stats, batch -> {
+                        if (options.isGroupTargeted()) batch.retainGroups(keep);
+                        if (batch.isEmpty()) return;
+                        count.add(batch.size());
+                        sink.accept(new ChunkKey(numNote, bass, block[0]++), batch);
+                    });
+                });
+            }
+        };
+        ParallelRunner.run(run, options.parallelism());
+        LOGGER.log(Level.INFO, "Keyed batch generation finished: {0}, kept={1}.", new Object[]{stats, count.sum()});
+        return count.sum();
+    }
+
+    // Alle Akkorde mit genau diesem tiefsten Ton, sequentiell in Batches und analysiert
+    private void forEachBlockBatch(int numNote, int bass, int maxUpperNote, boolean revolvingDoor, List<ChordConstraint> constraints,
+                                   int batchSize, EnumerationStats stats, Consumer<ChordBatch> emit) {
+        if (revolvingDoor) {
+            revolvingDoorBlock(numNote, bass, maxUpperNote, constraints, batchSize, stats, emit);
+            return;
+        }
+        List<ChordConstraint> block = new ArrayList<>(constraints);
+        block.add(ChordConstraint.lowestNote(bass));
+        combinator.streamBatches(numNote, bass, maxUpperNote, block, batchSize, stats).forEach(batch -> {
+            analysis.analyzeBatch(batch);
+            emit.accept(batch);
+        });
+    }
+
+    /**
+     * Like {@link #generateBatches(int, int, ChordGenerationOptions, int, Consumer)}, but as a
+     * {@link StagedChordPipeline}: one generator thread, options.parallelism() analyzer threads and the sink on the
+     * calling thread, connected by bounded queues. The sink (e.g. the database writer) runs while the next batches
+     * are generated and analyzed; it is never called concurrently.
+     *
+     * @return number of chords handed to the sink
+     */
+    public long generateBatchesPipelined(int minLowerNote, int maxUpperNote, ChordGenerationOptions options, int batchSize,
+                                         int queueCapacity, Consumer<ChordBatch> sink) {
+        LOGGER.info("Starting pipelined Generation of Chords: " + NUM_NOTES_TO_FIVE + " notes, " + options);
+        List<ChordConstraint> constraints = constraintsFor(options);
+        boolean[] keep = new boolean[128];
+        for (Integer g : options.groups()) keep[g] = true;
+        EnumerationStats stats = new EnumerationStats();
+
+        Consumer<Consumer<ChordBatch>> generator = emit -> {
+            for (Integer numNote : NUM_NOTES_TO_FIVE) {
+                if (options.revolvingDoor()) {
+                    // Blöcke je tiefstem Ton werden schon beim Erzeugen inkrementell analysiert
+                    for (int bass = minLowerNote; bass <= maxUpperNote; bass++) {
+                        revolvingDoorBlock(numNote, bass, maxUpperNote, constraints, batchSize, stats, emit);
+                    }
+                } else {
+                    combinator.streamBatches(numNote, minLowerNote, maxUpperNote, constraints, batchSize, stats).forEach(emit);
+                }
+            }
+        };
+        Consumer<ChordBatch> analyzer = batch -> {
+            if (!options.revolvingDoor()) analysis.analyzeBatch(batch);
+            if (options.isGroupTargeted()) batch.retainGroups(keep);
+        };
+
+        StagedChordPipeline.Stats result = StagedChordPipeline.run(generator, analyzer, sink,
+                new StagedChordPipeline.Options(options.parallelism(), queueCapacity, options.ordered()));
+        LOGGER.log(Level.INFO, "Pipelined generation finished: {0}, {1}.", new Object[]{stats, result});
+        return result.chords();
+    }
+
+    /**
+     * All chords with the given lowest note in revolving-door order, analyzed incrementally (one note changes per
+     * step, so the analyzer updates its state in O(k) instead of recomputing all intervals). Every batch is handed to
+     * emit as soon as it is full (the last one when the block ends), so at most one batch per block is held.
+     */
+    private void revolvingDoorBlock(int numNote, int bass, int maxUpperNote, List<ChordConstraint> constraints,
+                                    int batchSize, EnumerationStats stats, Consumer<ChordBatch> emit) {
+        IncrementalChordAnalyzer analyzer = new IncrementalChordAnalyzer(BitmaskChordRules.shared(), numNote);
+        ChordBatch[] current = new ChordBatch[1];
+        combinator.forEachRevolvingDoor(numNote, bass, maxUpperNote, constraints, stats, new RevolvingDoorVisitor() {
+            @Override
+            public void reset(int[] notes, int k) {
+                analyzer.reset(notes, k);
+            }
+
+            @Override
+            public void swap(int removedNote, int addedNote) {
+                analyzer.swap(removedNote, addedNote);
+            }
+
+            @Override
+            public void visit(int[] notes, int k) {
+                int packed = analyzer.classify();
+                if (packed == BitmaskChordRules.NO_GROUP) {
+                    throw new IllegalStateException("Chord has no matching group: " + Arrays.toString(Arrays.copyOf(notes, k)));
+                }
+                if (current[0] == null) current[0] = new ChordBatch(k, batchSize);
+                current[0].add(notes, 0, BitmaskChordRules.rootOf(packed), BitmaskChordRules.groupOf(packed));
+                if (current[0].isFull()) {
+                    emit.accept(current[0]);
+                    current[0] = null;
+                }
+            }
+        });
+        if (current[0] != null) emit.accept(current[0]);
+    }
+
+    /**
+     * Analyzes a uniform random sample of chords for 3, 4 and 5 notes (sampleSize per chord size) instead of the
+     * whole space. Intended for quick statistics on ranges that are too big to materialize.
+     */
+    public List<HindemithChord> sampleAllChordsToFiveNotes(int minLowerNote, int maxUpperNote, int sampleSize, Random random) {
+        List<HindemithChord> chords = new ArrayList<>();
+        for (Integer numNote : NUM_NOTES_TO_FIVE) {
+            chords.addAll(sample(numNote, minLowerNote, maxUpperNote, sampleSize, random));
+        }
+        return chords;
+    }
+
+    /**
+     * Analyzes a uniform random sample of the chords with the given number of notes (same constraints as generate).
+     */
+    public List<HindemithChord> sample(int numNote, int minLowerNote, int maxUpperNote, int sampleSize, Random random) {
+        List<List<Integer>> noteSets = combinator.sampleChords(numNote, minLowerNote, maxUpperNote,
+                NoteCombinator.defaultConstraints(maxOctaves), sampleSize, random);
         return analysis.analyzeList(noteSets);
     }
+
+    private List<ChordConstraint> constraintsFor(ChordGenerationOptions options) {
+        List<ChordConstraint> constraints = new ArrayList<>(NoteCombinator.defaultConstraints(maxOctaves));
+        if (options.isGroupTargeted()) {
+            Map<Integer, ChordSpecification> specs = new ChordSpecificationRepository().getGroupSpecifications();
+            List<ChordSpecification> targeted = new ArrayList<>();
+            for (Integer group : options.groups()) {
+                ChordSpecification spec = specs.get(group - 1); // Gruppen sind 1-basiert, die Spezifikationen 0-basiert
+                if (spec == null) {
+                    throw new IllegalArgumentException("Unknown group: " + group);
+                }
+                targeted.add(spec);
+            }
+            constraints.add(ChordRules.pruningConstraint(targeted));
+        }
+        return constraints;
+    }
+
+    /**
+     * Lazily generates and analyzes chords for 3, 4 and 5 notes (in this order).
+     * Nothing is materialized, so callers that consume the stream incrementally run in constant memory.
+     */
+    public Stream<HindemithChord> streamAllChordsToFiveNotes(int minLowerNote, int maxUpperNote) {
+        LOGGER.info("Starting Generation of Chords: " + NUM_NOTES_TO_FIVE + " notes");
+        return NUM_NOTES_TO_FIVE.stream()
+                .flatMap(numNote -> stream(numNote, minLowerNote, maxUpperNote)
+                        .onClose(() -> LOGGER.log(Level.INFO, "Chords with {0} notes generated.", numNote)));
+    }
+
+    /**
+     * Lazily generates and analyzes all chords with the given number of notes in the range.
+     */
+    public Stream<HindemithChord> stream(int numNote, int minLowerNote, int maxUpperNote) {
+        return analysis.analyzeStream(combinator.streamChords(numNote, minLowerNote, maxUpperNote, maxOctaves));
+    }
 }
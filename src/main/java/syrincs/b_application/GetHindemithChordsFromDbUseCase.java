@@ -1,12 +1,18 @@
 package syrincs.b_application;
 
 import syrincs.a_domain.hindemith.HindemithChord;
+import syrincs.b_application.ports.AsyncHindemithChordRepositoryPort;
+import syrincs.b_application.ports.ChordPage;
+import syrincs.b_application.ports.ChordQuery;
 import syrincs.b_application.ports.HindemithChordRepositoryPort;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
 /**
  * Use case for reading Hindemith chords from the database via the repository port.
@@ -18,9 +24,22 @@ import java.util.Optional;
 public class GetHindemithChordsFromDbUseCase {
 
     private final HindemithChordRepositoryPort repository;
+    private final AsyncHindemithChordRepositoryPort asyncRepository;
 
     public GetHindemithChordsFromDbUseCase(HindemithChordRepositoryPort repository) {
+        this(repository, AsyncHindemithChordRepositoryPort.DEFAULT_MAX_CONCURRENT_QUERIES);
+    }
+
+    /**
+     * @param maxConcurrentQueries cap on concurrent queries of the multi-group lookups, e.g. the connection pool size
+     */
+    public GetHindemithChordsFromDbUseCase(HindemithChordRepositoryPort repository, int maxConcurrentQueries) {
+        this(repository, AsyncHindemithChordRepositoryPort.onVirtualThreads(repository, maxConcurrentQueries));
+    }
+
+    public GetHindemithChordsFromDbUseCase(HindemithChordRepositoryPort repository, AsyncHindemithChordRepositoryPort asyncRepository) {
         this.repository = Objects.requireNonNull(repository, "repository must not be null");
+        this.asyncRepository = Objects.requireNonNull(asyncRepository, "asyncRepository must not be null");
     }
 
     /**
@@ -30,12 +49,46 @@ public class GetHindemithChordsFromDbUseCase {
         return repository.findAll();
     }
 
+    /**
+     * All chords matching the query, loaded with a single repository query.
+     */
+    public List<HindemithChord> find(ChordQuery query) {
+        return repository.find(query);
+    }
+
+    /**
+     * Keyset-paginated read: the page after the position in the continuation token (null = first page).
+     * Pass {@link ChordPage#continuationToken(ChordQuery)} of the result to get the next page.
+     */
+    public ChordPage page(ChordQuery query, String continuationToken, int limit) {
+        return repository.page(query, ChordPage.afterId(continuationToken, query), limit);
+    }
+
+    /**
+     * Streams all persisted chords with a database cursor (fetchSize rows per round trip) in constant memory.
+     * The caller must close the stream.
+     */
+    public Stream<HindemithChord> streamAll(int fetchSize) {
+        return repository.streamAll(fetchSize);
+    }
+
+    /**
+     * Streams the chords of the given groups group by group, each group with its own cursor opened only when the
+     * previous one is exhausted. The caller must close the stream.
+     */
+    public Stream<HindemithChord> streamAllOf(List<Integer> groups, int fetchSize) {
+        return groups.stream().flatMap(group -> repository.streamAllOf(group, fetchSize));
+    }
+
+    /**
+     * One query per group, run concurrently; the result lists the chords group by group in the given order.
+     */
     public List<HindemithChord> getAllOf(List<Integer> groups){
-        List<HindemithChord> hindemithChords = new ArrayList<>();
+        List<CompletableFuture<List<HindemithChord>>> queries = new ArrayList<>();
         for (Integer group : groups) {
-            hindemithChords.addAll(repository.getAllOf(group));
+            queries.add(asyncRepository.getAllOf(group));
         }
-        return hindemithChords;
+        return joinInOrder(queries);
     }
 
     public List<HindemithChord> getAllOf(Integer rootNote){
@@ -51,9 +104,33 @@ public class GetHindemithChordsFromDbUseCase {
     }
 
     public List<HindemithChord> loadHindemithChordsWithGroups(Integer rootNote, List<Integer> groups){
+        return loadHindemithChordsWithRootNotesAndGroups(List.of(rootNote), groups);
+    }
+
+    /**
+     * Fans out one query per (root note, group) pair concurrently. The result is ordered by root note, then group,
+     * both in the given order.
+     */
+    public List<HindemithChord> loadHindemithChordsWithRootNotesAndGroups(List<Integer> rootNotes, List<Integer> groups){
+        List<CompletableFuture<List<HindemithChord>>> queries = new ArrayList<>();
+        for (Integer rootNote : rootNotes) {
+            for (Integer group : groups) {
+                queries.add(asyncRepository.getAllOfRootNoteAndGroup(rootNote, group));
+            }
+        }
+        return joinInOrder(queries);
+    }
+
+    private static List<HindemithChord> joinInOrder(List<CompletableFuture<List<HindemithChord>>> queries) {
+        try {
+            CompletableFuture.allOf(queries.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
         List<HindemithChord> hindemithChords = new ArrayList<>();
-        for(Integer group : groups){
-            repository.getAllOfRootNoteAndGroup(rootNote, group).forEach(hindemithChords::add);
+        for (CompletableFuture<List<HindemithChord>> query : queries) {
+            hindemithChords.addAll(query.join());
         }
         return hindemithChords;
     }
@@ -62,14 +139,14 @@ public class GetHindemithChordsFromDbUseCase {
 
     /**
      * Loads Hindemith chords filtered by a specific root note, a set of groups and allowed numNotes sizes.
-     * Delegates to the repository for an efficient single-query fetch.
+     * Runs as a single {@link ChordQuery}.
      * Returns an empty list if groups or numNotes are null/empty.
      */
     public List<HindemithChord> getAllOfRootNoteGroupsAndNumNotes(int rootNote, List<Integer> groups, List<Integer> numNotes) {
         if (groups == null || groups.isEmpty() || numNotes == null || numNotes.isEmpty()) {
             return List.of();
         }
-        return repository.findByRootNoteAndGroupsAndNumNotes(rootNote, groups, numNotes);
+        return repository.find(new ChordQuery(rootNote, groups, numNotes, null));
     }
 
     /**
@@ -79,7 +156,7 @@ public class GetHindemithChordsFromDbUseCase {
         if (groups == null || groups.isEmpty() || numNotes == null || numNotes.isEmpty()) {
             return List.of();
         }
-        return repository.findByRootNoteAndGroupsAndNumNotesAndRange(rootNote, groups, numNotes, range);
+        return repository.find(new ChordQuery(rootNote, groups, numNotes, range));
     }
 
     /**
@@ -0,0 +1,66 @@
+package syrincs.b_application;
+
+import syrincs.a_domain.chord.ChordBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Runs a task on a dedicated {@link ForkJoinPool} with the given number of workers.
+ *
+ * Parallel streams started inside the task use this pool instead of the common pool, so the parallelism of a
+ * use case does not depend on {@code java.util.concurrent.ForkJoinPool.common.parallelism} and does not compete
+ * with other users of the common pool. With a parallelism of 1 the task runs on the calling thread.
+ */
+final class ParallelRunner {
+
+    private ParallelRunner() {
+    }
+
+    static void run(Runnable task, int parallelism) {
+        if (parallelism <= 1) {
+            task.run();
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        // Den Fehler selbst festhalten: get() lieferte eine für diesen Thread neu erzeugte Kopie der Exception
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        try {
+            pool.submit(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    failure.set(e);
+                }
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel run failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        if (failure.get() != null) throw failure.get();
+    }
+
+    static <T> T call(Supplier<T> task, int parallelism) {
+        List<T> result = new ArrayList<>(1);
+        run(() -> result.add(task.get()), parallelism);
+        return result.getFirst();
+    }
+
+    /**
+     * Hands every batch to the action, in no particular order; with a parallelism above 1 the action is called
+     * concurrently from the workers of the pool.
+     */
+    static void forEachBatch(Stream<ChordBatch> batches, int parallelism, Consumer<ChordBatch> action) {
+        run(() -> (parallelism > 1 ? batches.parallel() : batches).unordered().forEach(action), parallelism);
+    }
+}
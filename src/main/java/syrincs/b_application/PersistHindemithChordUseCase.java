@@ -1,6 +1,8 @@
 package syrincs.b_application;
 
+import syrincs.a_domain.chord.ChordBatch;
 import syrincs.a_domain.hindemith.HindemithChord;
+import syrincs.b_application.ports.BulkLoadMode;
 import syrincs.b_application.ports.HindemithChordRepositoryPort;
 
 import java.util.ArrayList;
@@ -31,5 +33,19 @@ public class PersistHindemithChordUseCase {
         return repository.saveAll(chords);
     }
 
+    /**
+     * Persists an analyzed chord batch in its own transaction and returns the generated ids in order.
+     */
+    public long[] persistBatch(ChordBatch batch) {
+        return repository.saveBatch(batch);
+    }
+
+    /**
+     * Persists an analyzed chord batch with the given bulk-load mode and returns the ids in order.
+     */
+    public long[] persistBatch(ChordBatch batch, BulkLoadMode mode) {
+        return repository.saveBatch(batch, mode);
+    }
+
 
 }
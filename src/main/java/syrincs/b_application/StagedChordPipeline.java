@@ -0,0 +1,196 @@
+package syrincs.b_application;
+
+import syrincs.a_domain.chord.ChordBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Staged generate → analyze → write pipeline over chord batches.
+ *
+ * One generator thread, a pool of analyzer threads and the writer (the calling thread) are connected by bounded
+ * queues, so generation, classification and database writes overlap. At most {@code 2 * queueCapacity + analyzers}
+ * batches are in flight at any time: a full pipeline blocks the generator (backpressure), so the heap use depends
+ * on the queue sizes and not on the size of the range. With ordered options the writer receives the batches in
+ * generation order; the writer is always called from one thread at a time.
+ */
+public final class StagedChordPipeline {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    /**
+     * @param analyzers     analyzer threads
+     * @param queueCapacity capacity of each of the two queues (in batches)
+     * @param ordered       hand the batches to the writer in generation order
+     */
+    public record Options(int analyzers, int queueCapacity, boolean ordered) {
+        public Options {
+            if (analyzers < 1) throw new IllegalArgumentException("analyzers must be >= 1");
+            if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity must be >= 1");
+        }
+    }
+
+    /**
+     * @param generatorBlockedNanos time the generator waited for room in the pipeline (writer or analyzers too slow)
+     * @param writerIdleNanos       time the writer waited for analyzed batches (generation or analysis too slow)
+     */
+    public record Stats(long batches, long chords, long generatorBlockedNanos, long writerIdleNanos) {
+        @Override
+        public String toString() {
+            return String.format("batches=%d chords=%d generatorBlocked=%.1f ms writerIdle=%.1f ms",
+                    batches, chords, generatorBlockedNanos / 1e6, writerIdleNanos / 1e6);
+        }
+    }
+
+    private record Item(long seq, ChordBatch batch) {
+    }
+
+    private static final Item END = new Item(-1, null);
+
+    // Bricht den Generator ab, wenn eine andere Stufe fehlgeschlagen ist
+    private static final class Cancelled extends RuntimeException {
+        Cancelled() {
+            super(null, null, false, false);
+        }
+    }
+
+    private StagedChordPipeline() {
+    }
+
+    /**
+     * Runs the pipeline until the generator is exhausted and every batch is written. Empty batches (e.g. after a
+     * group filter in the analyzer) are not handed to the writer. The first failure of any stage stops all stages
+     * and is rethrown.
+     *
+     * @param generator hands freshly allocated batches to its argument, in a deterministic order
+     * @param analyzer  analyzes (and possibly filters) a batch in place; called concurrently
+     * @param writer    consumes analyzed batches
+     */
+    public static Stats run(Consumer<Consumer<ChordBatch>> generator, Consumer<ChordBatch> analyzer,
+                            Consumer<ChordBatch> writer, Options options) {
+        BlockingQueue<Item> toAnalyze = new ArrayBlockingQueue<>(options.queueCapacity());
+        BlockingQueue<Item> analyzed = new ArrayBlockingQueue<>(options.queueCapacity() + options.analyzers());
+        Semaphore inFlight = new Semaphore(2 * options.queueCapacity() + options.analyzers());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long[] generatorBlocked = new long[1];
+
+        List<Thread> workers = new ArrayList<>();
+        workers.add(Thread.ofPlatform().name("chord-generator").unstarted(() -> {
+            long[] seq = new long[1];
+            try {
+                generator.accept(batch -> {
+                    long start = System.nanoTime();
+                    try {
+                        inFlight.acquire();
+                        toAnalyze.put(new Item(seq[0]++, batch));
+                    } catch (InterruptedException e) {
+                        throw new Cancelled();
+                    }
+                    generatorBlocked[0] += System.nanoTime() - start;
+                });
+                for (int i = 0; i < options.analyzers(); i++) toAnalyze.put(END);
+            } catch (Cancelled | InterruptedException e) {
+                // Andere Stufe fehlgeschlagen, Fehler steht bereits in failure
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }));
+        for (int a = 0; a < options.analyzers(); a++) {
+            workers.add(Thread.ofPlatform().name("chord-analyzer-" + a).unstarted(() -> {
+                try {
+                    while (true) {
+                        Item item = toAnalyze.take();
+                        if (item == END) {
+                            analyzed.put(END);
+                            return;
+                        }
+                        analyzer.accept(item.batch());
+                        analyzed.put(item);
+                    }
+                } catch (InterruptedException e) {
+                    // Abbruch
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+
+        long batches = 0;
+        long chords = 0;
+        long writerIdle = 0;
+        try {
+            Map<Long, ChordBatch> pending = new HashMap<>(); // Umordnungspuffer im geordneten Modus
+            long next = 0;
+            int ended = 0;
+            while (ended < options.analyzers()) {
+                long start = System.nanoTime();
+                Item item = analyzed.poll(100, TimeUnit.MILLISECONDS);
+                writerIdle += System.nanoTime() - start;
+                if (failure.get() != null) break;
+                if (item == null) continue;
+                if (item == END) {
+                    ended++;
+                    continue;
+                }
+                if (!options.ordered()) {
+                    chords += write(item.batch(), writer, inFlight);
+                    batches++;
+                    continue;
+                }
+                pending.put(item.seq(), item.batch());
+                for (ChordBatch batch; (batch = pending.remove(next)) != null; next++) {
+                    chords += write(batch, writer, inFlight);
+                    batches++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, new IllegalStateException("Chord pipeline interrupted", e));
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            if (failure.get() != null) workers.forEach(Thread::interrupt);
+            joinAll(workers);
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException re) throw re;
+        if (t instanceof Error error) throw error;
+        if (t != null) throw new IllegalStateException("Chord pipeline failed", t);
+        return new Stats(batches, chords, generatorBlocked[0], writerIdle);
+    }
+
+    private static int write(ChordBatch batch, Consumer<ChordBatch> writer, Semaphore inFlight) {
+        try {
+            if (batch.isEmpty()) return 0;
+            writer.accept(batch);
+            return batch.size();
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private static void joinAll(List<Thread> workers) {
+        boolean interrupted = false;
+        for (Thread worker : workers) {
+            while (true) {
+                try {
+                    worker.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+}
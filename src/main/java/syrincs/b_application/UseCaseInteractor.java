@@ -1,17 +1,27 @@
 package syrincs.b_application;
 
+import syrincs.a_domain.chord.ChordBatch;
 import syrincs.a_domain.chord.NoteCombinator;
 import syrincs.a_domain.hindemith.HindemithChord;
 import syrincs.a_domain.Tone;
+import syrincs.a_domain.hindemith.BitmaskChordRules;
 import syrincs.a_domain.hindemith.ChordAnalysis;
+import syrincs.a_domain.hindemith.DecisionTreeChordRules;
+import syrincs.b_application.ports.AsyncHindemithChordRepositoryPort;
+import syrincs.b_application.ports.BulkLoadMode;
+import syrincs.b_application.ports.ChordPage;
+import syrincs.b_application.ports.ChordQuery;
 import syrincs.b_application.ports.HindemithChordRepositoryPort;
 import syrincs.b_application.ports.MidiOutputPort;
 
 import javax.sound.midi.InvalidMidiDataException;
 import javax.sound.midi.MidiDevice;
 import javax.sound.midi.MidiUnavailableException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Random;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,13 +38,21 @@ public class UseCaseInteractor {
 
 
     public UseCaseInteractor(MidiOutputPort midiOutput, HindemithChordRepositoryPort repository) {
+        this(midiOutput, repository, AsyncHindemithChordRepositoryPort.DEFAULT_MAX_CONCURRENT_QUERIES);
+    }
+
+    /**
+     * @param maxConcurrentQueries cap on concurrent database queries of multi-group lookups; pass the size of the
+     *                             connection pool behind the repository
+     */
+    public UseCaseInteractor(MidiOutputPort midiOutput, HindemithChordRepositoryPort repository, int maxConcurrentQueries) {
         this.repository = repository;
         this.generateChordsUseCase = new GenerateChordsUseCase(
                 new NoteCombinator(), new ChordAnalysis(), 3
         );
         this.analyseChordByHindemithUseCase = new AnalyseChordByHindemithUseCase();
         this.persistUseCase = new PersistHindemithChordUseCase(repository);
-        this.getHindemithChordsFromDbUseCase = new GetHindemithChordsFromDbUseCase(repository);
+        this.getHindemithChordsFromDbUseCase = new GetHindemithChordsFromDbUseCase(repository, maxConcurrentQueries);
         this.send = new SendToMidiUseCase(midiOutput);
     }
 
@@ -93,9 +111,109 @@ public class UseCaseInteractor {
         return analyseChordByHindemithUseCase.analyze(midiNotes);
     }
 
+    /**
+     * Generates, analyzes and persists all chords for 3..5 notes sequentially through the staged pipeline
+     * (generation and analysis overlap with the inserts) and returns the generated ids in insertion order. Replaces
+     * the stored chords with 3..5 notes, see {@link #calculateAndPersistAllChordsToFiveNotes(int, int, ChordGenerationOptions)}.
+     */
     public List<Long> calculateAndPersistAllChordsToFiveNotes(int minLowerNote, int maxUpperNote) {
-        List<HindemithChord> chords = generateChordsUseCase.generateAllChordsToFiveNotes(minLowerNote, maxUpperNote);
-        return persistUseCase.persist(chords);
+        List<Long> ids = new ArrayList<>();
+        calculateAndPersistAllChordsToFiveNotes(minLowerNote, maxUpperNote, ChordGenerationOptions.SEQUENTIAL, batch -> {
+            for (long id : persistUseCase.persistBatch(batch)) ids.add(id);
+        });
+        return ids;
+    }
+
+    /**
+     * Generates, analyzes and persists chords for 3..5 notes through the staged pipeline (generator, analyzer pool,
+     * writer connected by bounded queues), with parallelism, output order and target groups taken from the options.
+     * With ordered=true the persisted ids are identical to the sequential run.
+     *
+     * The calculation replaces all stored chords with 3..5 notes (also those outside the range or groups): these chord
+     * sizes are truncated first. It is not one transaction, every batch of
+     * {@link GenerateChordsUseCase#DEFAULT_BATCH_SIZE} chords is committed on its own. If a batch fails, the batches
+     * before it stay in the table until the next run, which starts by deleting them again, so a rerun never
+     * duplicates rows. {@link #calculateAndPersistChunked} keeps existing rows and resumes where a failed run stopped.
+     *
+     * @return number of persisted chords
+     */
+    public long calculateAndPersistAllChordsToFiveNotes(int minLowerNote, int maxUpperNote, ChordGenerationOptions options) {
+        return calculateAndPersistAllChordsToFiveNotes(minLowerNote, maxUpperNote, options, BulkLoadMode.BATCH_INSERT);
+    }
+
+    /**
+     * As above, writing each batch with the given bulk-load mode (e.g. COPY instead of batched INSERTs).
+     */
+    public long calculateAndPersistAllChordsToFiveNotes(int minLowerNote, int maxUpperNote, ChordGenerationOptions options,
+                                                        BulkLoadMode mode) {
+        return calculateAndPersistAllChordsToFiveNotes(minLowerNote, maxUpperNote, options,
+                batch -> persistUseCase.persistBatch(batch, mode));
+    }
+
+    private long calculateAndPersistAllChordsToFiveNotes(int minLowerNote, int maxUpperNote, ChordGenerationOptions options,
+                                                         Consumer<ChordBatch> writer) {
+        // Neu berechnete Größen zuerst leeren: Reste eines abgebrochenen Laufs würden sonst doppelt stehen
+        for (int numNotes : GenerateChordsUseCase.NUM_NOTES_TO_FIVE) {
+            repository.truncate(numNotes);
+        }
+        return generateChordsUseCase.generateBatchesPipelined(minLowerNote, maxUpperNote, options,
+                GenerateChordsUseCase.DEFAULT_BATCH_SIZE, StagedChordPipeline.DEFAULT_QUEUE_CAPACITY, writer);
+    }
+
+    /**
+     * Generates and persists like {@link #calculateAndPersistAllChordsToFiveNotes(int, int, ChordGenerationOptions, BulkLoadMode)},
+     * but commits every batch as a separate chunk across several connections with retries. The load id is derived
+     * from range and options, the chunk keys from (numNotes, lowest note, block) (see
+     * {@link GenerateChordsUseCase#generateKeyedBatches}), so rerunning the same calculation after a crash, with any
+     * parallelism, only writes the missing chunks. Ids are not reproducible across runs; rows are.
+     */
+    public ChunkedChordWriter.Result calculateAndPersistChunked(int minLowerNote, int maxUpperNote, ChordGenerationOptions options,
+                                                                BulkLoadMode mode, ChunkedChordWriter.Options writerOptions,
+                                                                Consumer<ChunkedChordWriter.Progress> progress) {
+        // Parallelität und Reihenfolge gehören nicht in die Load-Id: sie ändern weder Inhalt noch Schlüssel der Chunks
+        String loadId = "calculate:" + minLowerNote + "-" + maxUpperNote + ":groups=" + options.groups()
+                + ":" + (options.revolvingDoor() ? "revolving-door" : "lexicographic") + ":blocks=lowest-note"
+                + ":batch=" + GenerateChordsUseCase.DEFAULT_BATCH_SIZE;
+        ChunkedChordWriter writer = new ChunkedChordWriter(repository, writerOptions, progress);
+        return writer.write(loadId, mode, sink -> generateChordsUseCase.generateKeyedBatches(minLowerNote, maxUpperNote, options,
+                GenerateChordsUseCase.DEFAULT_BATCH_SIZE, sink));
+    }
+
+    /**
+     * Analyzes a uniform random sample of sampleSize chords per chord size (3..5 notes) without persisting them.
+     */
+    public List<HindemithChord> sampleAllChordsToFiveNotes(int minLowerNote, int maxUpperNote, int sampleSize, long seed) {
+        return generateChordsUseCase.sampleAllChordsToFiveNotes(minLowerNote, maxUpperNote, sampleSize, new Random(seed));
+    }
+
+    /**
+     * Compares the given analysis path with the reference rule evaluation on every chord with numNotes notes in
+     * the range and returns the first maxReported mismatches plus a checksum of the reference results.
+     */
+    public VerifyChordAnalysisUseCase.Report verifyAnalysis(AnalysisPath path, int numNotes, int minLowerNote, int maxUpperNote,
+                                                            int octaves, int maxReported, int parallelism) {
+        var verify = new VerifyChordAnalysisUseCase(new NoteCombinator(), new ChordAnalysis(null), path.create());
+        return verify.verify(numNotes, minLowerNote, maxUpperNote, octaves, maxReported, parallelism);
+    }
+
+    /**
+     * Like {@link #verifyAnalysis} for {@link AnalysisPath#DECISION_TREE}, but on the given tree, e.g. one from
+     * {@link DecisionTreeChordRules#withCounters()} whose counters then cover exactly the verified chords.
+     */
+    public VerifyChordAnalysisUseCase.Report verifyDecisionTree(DecisionTreeChordRules tree, int numNotes, int minLowerNote,
+                                                                int maxUpperNote, int octaves, int maxReported, int parallelism) {
+        var verify = new VerifyChordAnalysisUseCase(new NoteCombinator(), new ChordAnalysis(null), new ChordAnalysis(null, tree));
+        return verify.verify(numNotes, minLowerNote, maxUpperNote, octaves, maxReported, parallelism);
+    }
+
+    /**
+     * Evaluates all group specifications for every chord with numNotes notes in the range and reports counts per
+     * group, chords without a matching group and chords matching several groups.
+     */
+    public AuditChordRulesUseCase.Report auditRules(int numNotes, int minLowerNote, int maxUpperNote, int octaves,
+                                                    int examples, int parallelism) {
+        var audit = new AuditChordRulesUseCase(new NoteCombinator(), BitmaskChordRules.shared());
+        return audit.audit(numNotes, minLowerNote, maxUpperNote, octaves, examples, parallelism);
     }
 
     public List<HindemithChord> getAllChordsFromDb() {
@@ -106,6 +224,13 @@ public class UseCaseInteractor {
         repository.truncate();
     }
 
+    /**
+     * Deletes only the chords with numNotes notes (e.g. to recalculate one chord size).
+     */
+    public void deleteHindemithChords(int numNotes) {
+        repository.truncate(numNotes);
+    }
+
     // Play the chords using the MIDI output adapter
     public void playChords(List<Integer> numNotes, List<Integer> groups, Integer rootNote,
                            Long durationMs, String deviceNameSubstring)
@@ -120,6 +245,30 @@ public class UseCaseInteractor {
         }
     }
 
+    /**
+     * Plays one keyset page (pageSize chords) of the matching chords and returns the continuation token of the
+     * next page, or null after the last page. Like {@link #playChords}, empty groups or numNotes match nothing.
+     */
+    public String playChordPage(List<Integer> numNotes, List<Integer> groups, Integer rootNote, Integer range,
+                                String continuationToken, int pageSize, Long durationMs, String deviceNameSubstring)
+            throws MidiUnavailableException, InvalidMidiDataException, InterruptedException {
+        // In der ChordQuery hieße eine leere Liste "kein Filter"; hier wie bei playChords: keine Akkorde
+        if (groups == null || groups.isEmpty() || numNotes == null || numNotes.isEmpty()) {
+            System.out.println("[MIDI] No chords available after loading.");
+            return null;
+        }
+        ChordQuery query = new ChordQuery(rootNote, groups, numNotes, range);
+        ChordPage page = getHindemithChordsFromDbUseCase.page(query, continuationToken, pageSize);
+        LOGGER.log(Level.INFO, "{0} chords loaded (page after id {1}).", new Object[]{page.chords().size(), ChordPage.afterId(continuationToken, query)});
+        if (page.chords().isEmpty()) {
+            System.out.println("[MIDI] No chords available after loading.");
+        }
+        for (var hc : page.chords()) {
+            sendChordToDevice(hc, deviceNameSubstring, durationMs);
+        }
+        return page.continuationToken(query);
+    }
+
     // Overload: also filter by range
     public void playChords(List<Integer> numNotes, List<Integer> groups, Integer rootNote, Integer range,
                            Long durationMs, String deviceNameSubstring)
@@ -0,0 +1,166 @@
+package syrincs.b_application;
+
+import syrincs.a_domain.chord.ChordBatch;
+import syrincs.a_domain.chord.EnumerationStats;
+import syrincs.a_domain.chord.NoteCombinator;
+import syrincs.a_domain.hindemith.ChordAnalysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Differential verification of an analysis path against the reference rule evaluation of {@link ChordAnalysis}.
+ *
+ * Streams every chord of a range (same constraints as the generation), analyzes it with the reference
+ * ({@code analyze} without table and engine) and with the candidate ({@code analyzeBatch}, i.e. the path the
+ * calculate pipeline uses) and reports the first mismatches in lexicographic order. Additionally an
+ * order-independent checksum over (notes, root, group) of the reference results is computed, so parallel runs
+ * are reproducible and can be compared with a golden value.
+ */
+public class VerifyChordAnalysisUseCase {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Comparator<int[]> LEXICOGRAPHIC = Arrays::compare;
+
+    private final NoteCombinator combinator;
+    private final ChordAnalysis reference;
+    private final ChordAnalysis candidate;
+    private final Logger LOGGER = Logger.getLogger(VerifyChordAnalysisUseCase.class.getName());
+
+    /**
+     * @param notes    ascending chord notes
+     * @param expected root and group of the reference ("no group" if no group matches)
+     * @param actual   root and group of the candidate
+     */
+    public record Mismatch(int[] notes, String expected, String actual) {
+        @Override
+        public String toString() {
+            return Arrays.toString(notes) + " expected " + expected + " but was " + actual;
+        }
+    }
+
+    public record Report(int numNotes, int minLowerNote, int maxUpperNote, int octaves,
+                         long chords, long mismatches, List<Mismatch> firstMismatches, long checksum) {
+
+        public boolean isClean() {
+            return mismatches == 0;
+        }
+
+        /**
+         * Key of this run in a golden file.
+         */
+        public String goldenKey() {
+            return "k" + numNotes + ".range" + minLowerNote + "-" + maxUpperNote + ".octaves" + octaves;
+        }
+
+        /**
+         * Value of this run in a golden file: number of chords and checksum.
+         */
+        public String goldenValue() {
+            return chords + ":" + String.format("%016x", checksum);
+        }
+
+        @Override
+        public String toString() {
+            return goldenKey() + " chords=" + chords + " mismatches=" + mismatches + " checksum=" + String.format("%016x", checksum);
+        }
+    }
+
+    public VerifyChordAnalysisUseCase(NoteCombinator combinator, ChordAnalysis reference, ChordAnalysis candidate) {
+        this.combinator = combinator;
+        this.reference = reference;
+        this.candidate = candidate;
+    }
+
+    /**
+     * Verifies all chords with numNotes notes in the range (unique pitch classes, span of at most octaves).
+     *
+     * @param maxReported number of mismatches kept in the report (the first ones in lexicographic order)
+     * @param parallelism worker threads (1 = sequential)
+     */
+    public Report verify(int numNotes, int minLowerNote, int maxUpperNote, int octaves, int maxReported, int parallelism) {
+        EnumerationStats stats = new EnumerationStats();
+        LongAdder chords = new LongAdder();
+        LongAdder mismatches = new LongAdder();
+        LongAdder checksum = new LongAdder(); // Summe modulo 2^64, unabhängig von der Reihenfolge
+        TreeSet<Mismatch> first = new TreeSet<>(Comparator.comparing(Mismatch::notes, LEXICOGRAPHIC));
+
+        var batches = combinator.streamBatches(numNotes, minLowerNote, maxUpperNote,
+                NoteCombinator.defaultConstraints(octaves), BATCH_SIZE, stats);
+        ParallelRunner.forEachBatch(batches, parallelism, batch -> {
+            int[] candidateResults = analyzeCandidate(batch);
+            for (int c = 0; c < batch.size(); c++) {
+                int[] notes = Arrays.copyOfRange(batch.notes(), batch.offset(c), batch.offset(c) + numNotes);
+                int expected = analyzeReference(notes);
+                checksum.add(hash(notes, expected));
+                if (expected != candidateResults[c]) {
+                    mismatches.increment();
+                    // Einfügen und Kürzen als Einheit: mit einer nebenläufigen Menge kürzten zwei Threads
+                    // gleichzeitig und verwarfen dabei auch Einträge, die zu den ersten maxReported gehören
+                    synchronized (first) {
+                        first.add(new Mismatch(notes, describe(expected), describe(candidateResults[c])));
+                        while (first.size() > maxReported) first.pollLast();
+                    }
+                }
+            }
+            chords.add(batch.size());
+        });
+
+        Report report = new Report(numNotes, minLowerNote, maxUpperNote, octaves, chords.sum(), mismatches.sum(),
+                new ArrayList<>(first), checksum.sum());
+        LOGGER.log(report.isClean() ? Level.INFO : Level.WARNING, "Verification " + report);
+        return report;
+    }
+
+    // Ergebnisse als (root << 8 | group), 0 = keine Gruppe
+    private int analyzeReference(int[] notes) {
+        try {
+            ChordAnalysis.Result r = reference.analyze(Arrays.stream(notes).boxed().toList());
+            return r.rootNote << 8 | r.group;
+        } catch (IllegalStateException noGroup) {
+            return 0;
+        }
+    }
+
+    private int[] analyzeCandidate(ChordBatch batch) {
+        int[] results = new int[batch.size()];
+        try {
+            candidate.analyzeBatch(batch);
+            for (int c = 0; c < batch.size(); c++) results[c] = batch.rootNotes()[c] << 8 | batch.groups()[c];
+        } catch (IllegalStateException noGroup) {
+            // Einzeln wiederholen, damit nur der betroffene Akkord als Abweichung zählt
+            for (int c = 0; c < batch.size(); c++) {
+                try {
+                    ChordAnalysis.Result r = candidate.analyze(Arrays.stream(batch.notes(), batch.offset(c), batch.offset(c) + batch.getNumNotes()).boxed().toList());
+                    results[c] = r.rootNote << 8 | r.group;
+                } catch (IllegalStateException e) {
+                    results[c] = 0;
+                }
+            }
+        }
+        return results;
+    }
+
+    private static String describe(int result) {
+        return result == 0 ? "no group" : "root=" + (result >>> 8) + " group=" + (result & 0xFF);
+    }
+
+    // SplitMix64-Finalizer über Töne, Grundton und Gruppe
+    static long hash(int[] notes, int result) {
+        long h = 0x9E3779B97F4A7C15L * (notes.length + 1);
+        for (int note : notes) h = mix(h + note);
+        return mix(h + result);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
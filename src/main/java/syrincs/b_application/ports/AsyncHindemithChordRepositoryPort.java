@@ -0,0 +1,81 @@
+package syrincs.b_application.ports;
+
+import syrincs.a_domain.hindemith.HindemithChord;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of the read queries of {@link HindemithChordRepositoryPort}. Lets use cases fan out
+ * several queries (e.g. one per group) concurrently and merge the results in a defined order, so the latency of
+ * a multi-group lookup approaches that of a single query.
+ */
+public interface AsyncHindemithChordRepositoryPort {
+
+    /**
+     * Default cap on concurrent queries: the default size of the database connection pool
+     * ({@code AppConfig.DEFAULT_POOL_SIZE}), so a fan-out never queues for connections inside the pool. Pass the
+     * configured pool size to {@link #onVirtualThreads(HindemithChordRepositoryPort, int)} when it differs.
+     */
+    int DEFAULT_MAX_CONCURRENT_QUERIES = 10;
+
+    CompletableFuture<List<HindemithChord>> getAllOf(Integer group);
+
+    CompletableFuture<List<HindemithChord>> getAllOfRootNote(Integer rootNote);
+
+    CompletableFuture<List<HindemithChord>> getAllOfRootNoteAndGroup(Integer rootNote, Integer group);
+
+    /**
+     * Runs each query of the blocking repository on its own virtual thread, with at most
+     * {@link #DEFAULT_MAX_CONCURRENT_QUERIES} queries (and thus database connections) at a time.
+     * The repository must be safe for concurrent calls.
+     */
+    static AsyncHindemithChordRepositoryPort onVirtualThreads(HindemithChordRepositoryPort repository) {
+        return onVirtualThreads(repository, DEFAULT_MAX_CONCURRENT_QUERIES);
+    }
+
+    /**
+     * Like {@link #onVirtualThreads(HindemithChordRepositoryPort)} with at most maxConcurrentQueries queries at a time,
+     * typically the size of the connection pool behind the repository. Query threads are named chord-query-0, -1, ...
+     */
+    static AsyncHindemithChordRepositoryPort onVirtualThreads(HindemithChordRepositoryPort repository, int maxConcurrentQueries) {
+        Objects.requireNonNull(repository, "repository must not be null");
+        if (maxConcurrentQueries < 1) throw new IllegalArgumentException("maxConcurrentQueries must be >= 1, was " + maxConcurrentQueries);
+        Semaphore permits = new Semaphore(maxConcurrentQueries);
+        // Eine Factory für alle Abfragen: der Zähler im Namen läuft über alle Threads dieses Ports hoch
+        ThreadFactory threads = Thread.ofVirtual().name("chord-query-", 0).factory();
+        Executor executor = task -> threads.newThread(task).start();
+        return new AsyncHindemithChordRepositoryPort() {
+            private <T> CompletableFuture<T> submit(Supplier<T> query) {
+                return CompletableFuture.supplyAsync(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        return query.get();
+                    } finally {
+                        permits.release();
+                    }
+                }, executor);
+            }
+
+            @Override
+            public CompletableFuture<List<HindemithChord>> getAllOf(Integer group) {
+                return submit(() -> repository.getAllOf(group));
+            }
+
+            @Override
+            public CompletableFuture<List<HindemithChord>> getAllOfRootNote(Integer rootNote) {
+                return submit(() -> repository.getAllOfRootNote(rootNote));
+            }
+
+            @Override
+            public CompletableFuture<List<HindemithChord>> getAllOfRootNoteAndGroup(Integer rootNote, Integer group) {
+                return submit(() -> repository.getAllOfRootNoteAndGroup(rootNote, group));
+            }
+        };
+    }
+}
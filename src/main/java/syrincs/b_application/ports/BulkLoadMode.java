@@ -0,0 +1,15 @@
+package syrincs.b_application.ports;
+
+/**
+ * How {@link HindemithChordRepositoryPort#saveAll(java.util.List, BulkLoadMode)} and
+ * {@link HindemithChordRepositoryPort#saveBatch(syrincs.a_domain.chord.ChordBatch, BulkLoadMode)} write rows.
+ * Adapters without a bulk path treat every mode as {@link #BATCH_INSERT}.
+ */
+public enum BulkLoadMode {
+    /** Batched INSERT statements returning the generated ids. */
+    BATCH_INSERT,
+    /** Streams rows in the text COPY format; ids are reserved from the sequence up front. */
+    COPY_TEXT,
+    /** Streams rows in the binary COPY format; ids are reserved from the sequence up front. */
+    COPY_BINARY
+}
@@ -0,0 +1,107 @@
+package syrincs.b_application.ports;
+
+import syrincs.a_domain.hindemith.HindemithChord;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated query: the chords with their ids (ascending) and whether more rows follow.
+ * The next page starts after {@link #lastId()}; clients get that position as an opaque continuation token.
+ */
+public record ChordPage(List<HindemithChord> chords, List<Long> ids, boolean hasMore) {
+
+    public static final long FIRST = 0;
+
+    public ChordPage {
+        chords = List.copyOf(chords);
+        ids = List.copyOf(ids);
+        if (chords.size() != ids.size()) throw new IllegalArgumentException("chords and ids differ in size");
+    }
+
+    /**
+     * Id of the last chord on this page, or {@link #FIRST} if the page is empty.
+     */
+    public long lastId() {
+        return ids.isEmpty() ? FIRST : ids.getLast();
+    }
+
+    /**
+     * Token for the page after this one, bound to the query; null if this is the last page.
+     */
+    public String continuationToken(ChordQuery query) {
+        if (!hasMore) return null;
+        String raw = lastId() + ":" + fingerprint(query);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Position encoded in a continuation token; null or blank means the first page.
+     *
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different query
+     */
+    public static long afterId(String token, ChordQuery query) {
+        if (token == null || token.isBlank()) return FIRST;
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed continuation token: " + token, e);
+        }
+        int colon = raw.indexOf(':');
+        if (colon < 0) throw new IllegalArgumentException("Malformed continuation token: " + token);
+        if (!raw.substring(colon + 1).equals(fingerprint(query))) {
+            throw new IllegalArgumentException("Continuation token does not belong to this query: " + token);
+        }
+        try {
+            return Long.parseLong(raw.substring(0, colon));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed continuation token: " + token, e);
+        }
+    }
+
+    /**
+     * First 16 hex digits of the SHA-256 of {@link #canonical(ChordQuery)}. Unlike hashCode() this is the same in
+     * every JVM and release, so tokens stay valid across restarts and server instances.
+     */
+    static String fingerprint(ChordQuery query) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical(query).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e); // jede JVM muss SHA-256 anbieten
+        }
+    }
+
+    /**
+     * The filters and order of the query as text with fixed field names; groups and sizes sorted, since their
+     * order does not change the result. The limit is left out: it does not change which rows follow a position.
+     */
+    static String canonical(ChordQuery query) {
+        return "rootNote=" + text(query.rootNote())
+                + ";rootPitchClass=" + text(query.rootPitchClass())
+                + ";groups=" + sorted(query.groups())
+                + ";numNotes=" + sorted(query.numNotes())
+                + ";minSpan=" + text(query.minSpan())
+                + ";maxSpan=" + text(query.maxSpan())
+                + ";bassNote=" + text(query.bassNote())
+                + ";requiredPitchClasses=" + text(query.requiredPitchClasses())
+                + ";excludedPitchClasses=" + text(query.excludedPitchClasses())
+                + ";requiredIntervals=" + text(query.requiredIntervals())
+                + ";excludedIntervals=" + text(query.excludedIntervals())
+                + ";order=" + query.order().name();
+    }
+
+    private static String text(Integer value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String sorted(List<Integer> values) {
+        return values.stream().distinct().sorted().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,177 @@
+package syrincs.b_application.ports;
+
+import syrincs.a_domain.hindemith.HindemithChord;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, composable filter for persisted chords. Null or empty components do not filter; combine them with
+ * the {@code with...} methods, e.g. {@code ChordQuery.ALL.withRootNote(60).withGroups(List.of(1, 2)).withMaxSpan(24)}.
+ *
+ * Adapters compile a query into a single statement (see {@link HindemithChordRepositoryPort#find(ChordQuery)});
+ * {@link #matches(HindemithChord)} and {@link #comparator()} are the equivalent in-memory evaluation.
+ *
+ * @param rootNote             root note (MIDI)
+ * @param rootPitchClass       pitch class of the root (0..11)
+ * @param groups               Hindemith groups, any of
+ * @param numNotes             chord sizes, any of
+ * @param minSpan              minimum span maxNote - minNote
+ * @param maxSpan              maximum span maxNote - minNote
+ * @param bassNote             lowest note (MIDI)
+ * @param requiredPitchClasses 12-bit mask of pitch classes the chord must all contain
+ * @param excludedPitchClasses 12-bit mask of pitch classes the chord must not contain
+ * @param requiredIntervals    12-bit mask of intervals (|a - b| % 12 over all note pairs) the chord must all contain
+ * @param excludedIntervals    12-bit mask of intervals the chord must not contain
+ * @param limit                maximum number of chords
+ * @param order                result order; ties are always broken by id (insertion order)
+ */
+public record ChordQuery(Integer rootNote, Integer rootPitchClass, List<Integer> groups, List<Integer> numNotes,
+                         Integer minSpan, Integer maxSpan, Integer bassNote,
+                         Integer requiredPitchClasses, Integer excludedPitchClasses,
+                         Integer requiredIntervals, Integer excludedIntervals,
+                         Integer limit, Order order) {
+
+    public enum Order {
+        ID, ROOT_NOTE, BASS_NOTE, SPAN
+    }
+
+    /** All 12 pitch classes or intervals. */
+    public static final int FULL_MASK = 0xFFF;
+
+    public static final ChordQuery ALL = new ChordQuery(null, null, List.of(), List.of(), null, null, null,
+            null, null, null, null, null, Order.ID);
+
+    public ChordQuery {
+        groups = groups == null ? List.of() : List.copyOf(groups);
+        numNotes = numNotes == null ? List.of() : List.copyOf(numNotes);
+        order = order == null ? Order.ID : order;
+        if (rootPitchClass != null && (rootPitchClass < 0 || rootPitchClass > 11)) {
+            throw new IllegalArgumentException("rootPitchClass must be 0..11, was " + rootPitchClass);
+        }
+        checkMask("requiredPitchClasses", requiredPitchClasses);
+        checkMask("excludedPitchClasses", excludedPitchClasses);
+        checkMask("requiredIntervals", requiredIntervals);
+        checkMask("excludedIntervals", excludedIntervals);
+        if (limit != null && limit < 0) throw new IllegalArgumentException("limit must be >= 0, was " + limit);
+    }
+
+    public ChordQuery(Integer rootNote, List<Integer> groups, List<Integer> numNotes, Integer maxSpan) {
+        this(rootNote, null, groups, numNotes, null, maxSpan, null, null, null, null, null, null, Order.ID);
+    }
+
+    public ChordQuery withRootNote(Integer rootNote) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    public ChordQuery withRootPitchClass(Integer rootPitchClass) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    public ChordQuery withGroups(List<Integer> groups) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    public ChordQuery withNumNotes(List<Integer> numNotes) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    public ChordQuery withSpan(Integer minSpan, Integer maxSpan) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    public ChordQuery withMaxSpan(Integer maxSpan) {
+        return withSpan(minSpan, maxSpan);
+    }
+
+    public ChordQuery withBassNote(Integer bassNote) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    public ChordQuery withRequiredPitchClasses(Integer requiredPitchClasses) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    public ChordQuery withExcludedPitchClasses(Integer excludedPitchClasses) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    /**
+     * Only chords whose pitch classes all lie in the mask, e.g. the {@code Scale.getPitchClassMask()} of cIonic.
+     */
+    public ChordQuery withPitchClassesWithin(int allowedPitchClasses) {
+        return withExcludedPitchClasses(~allowedPitchClasses & FULL_MASK);
+    }
+
+    public ChordQuery withRequiredIntervals(Integer requiredIntervals) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    public ChordQuery withExcludedIntervals(Integer excludedIntervals) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    public ChordQuery withLimit(Integer limit) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    public ChordQuery withOrder(Order order) {
+        return new ChordQuery(rootNote, rootPitchClass, groups, numNotes, minSpan, maxSpan, bassNote,
+                requiredPitchClasses, excludedPitchClasses, requiredIntervals, excludedIntervals, limit, order);
+    }
+
+    /**
+     * In-memory evaluation of all filters (not limit and order).
+     */
+    public boolean matches(HindemithChord chord) {
+        int span = chord.getFrameInterval();
+        return (rootNote == null || rootNote.equals(chord.getRootNote()))
+                && (rootPitchClass == null || rootPitchClass == chord.getRootNotePitchClass())
+                && (groups.isEmpty() || groups.contains(chord.getGroup()))
+                && (numNotes.isEmpty() || numNotes.contains(chord.getNumNotes()))
+                && (minSpan == null || span >= minSpan)
+                && (maxSpan == null || span <= maxSpan)
+                && (bassNote == null || bassNote == lowestNote(chord))
+                && fits(chord.getPitchClassMask(), requiredPitchClasses, excludedPitchClasses)
+                && fits(chord.getIntervalMask(), requiredIntervals, excludedIntervals);
+    }
+
+    private static boolean fits(int mask, Integer required, Integer excluded) {
+        return (required == null || (mask & required) == required) && (excluded == null || (mask & excluded) == 0);
+    }
+
+    private static void checkMask(String name, Integer mask) {
+        if (mask != null && (mask & ~FULL_MASK) != 0) {
+            throw new IllegalArgumentException(name + " must be a 12-bit mask, was " + mask);
+        }
+    }
+
+    /**
+     * In-memory order; apply it with a stable sort to chords in id order so ties stay in id order.
+     */
+    public Comparator<HindemithChord> comparator() {
+        return switch (order) {
+            case ID -> (a, b) -> 0;
+            case ROOT_NOTE -> Comparator.comparingInt(HindemithChord::getRootNote);
+            case BASS_NOTE -> Comparator.comparingInt(ChordQuery::lowestNote);
+            case SPAN -> Comparator.comparingInt(HindemithChord::getFrameInterval);
+        };
+    }
+
+    private static int lowestNote(HindemithChord chord) {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < chord.getNumNotes(); i++) min = Math.min(min, chord.getNote(i));
+        return min;
+    }
+}
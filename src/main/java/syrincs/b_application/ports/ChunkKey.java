@@ -0,0 +1,32 @@
+package syrincs.b_application.ports;
+
+/**
+ * Deterministic key of one chunk of a chunked load: the block-th batch of the chords with numNotes notes and the
+ * given lowest note. The key depends only on what the chunk contains, not on when or by which thread it was
+ * produced, so a rerun with different parallelism finds the chunks of an earlier run again.
+ */
+public record ChunkKey(int numNotes, int lowestNote, int block) implements Comparable<ChunkKey> {
+
+    public ChunkKey {
+        if (numNotes < 1 || numNotes > 127) throw new IllegalArgumentException("numNotes must be 1..127");
+        if (lowestNote < 0 || lowestNote > 127) throw new IllegalArgumentException("lowestNote must be 0..127");
+        if (block < 0) throw new IllegalArgumentException("block must be >= 0");
+    }
+
+    /**
+     * The key as one number, ordered like the key itself (numNotes, then lowest note, then block).
+     */
+    public long value() {
+        return (long) numNotes << 40 | (long) lowestNote << 32 | block;
+    }
+
+    @Override
+    public int compareTo(ChunkKey other) {
+        return Long.compare(value(), other.value());
+    }
+
+    @Override
+    public String toString() {
+        return numNotes + "/" + lowestNote + "/" + block;
+    }
+}
@@ -1,10 +1,14 @@
 package syrincs.b_application.ports;
 
+import syrincs.a_domain.chord.ChordBatch;
 import syrincs.a_domain.hindemith.HindemithChord;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Application-side repository port for persisting and loading Hindemith chords.
@@ -15,6 +19,9 @@ import java.util.Optional;
  */
 public interface HindemithChordRepositoryPort {
 
+    /** Rows fetched per round trip by the streaming finders unless the caller chooses otherwise. */
+    int DEFAULT_FETCH_SIZE = 1000;
+
     /**
      * Persists the chord and returns the generated database id.
      */
@@ -26,6 +33,43 @@ public interface HindemithChordRepositoryPort {
      */
     List<Long> saveAll(List<HindemithChord> chords);
 
+    /**
+     * Persists all analyzed chords of the batch (notes, rootNotes, groups) and returns the generated ids in order.
+     * Adapters should override this to write directly from the primitive arrays; the default maps the batch to
+     * HindemithChords and delegates to {@link #saveAll(List)}.
+     */
+    default long[] saveBatch(ChordBatch batch) {
+        List<HindemithChord> chords = new ArrayList<>(batch.size());
+        for (int c = 0; c < batch.size(); c++) {
+            List<Integer> notes = new ArrayList<>(batch.getNumNotes());
+            for (int i = 0; i < batch.getNumNotes(); i++) notes.add(batch.note(c, i));
+            chords.add(new HindemithChord(notes, batch.rootNotes()[c], (int) batch.groups()[c]));
+        }
+        return saveAll(chords).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Like {@link #saveAll(List)}, written with the given bulk-load mode; ids are returned in insertion order.
+     */
+    default List<Long> saveAll(List<HindemithChord> chords, BulkLoadMode mode) {
+        return saveAll(chords);
+    }
+
+    /**
+     * Like {@link #saveBatch(ChordBatch)}, written with the given bulk-load mode; ids are returned in order.
+     */
+    default long[] saveBatch(ChordBatch batch, BulkLoadMode mode) {
+        return saveBatch(batch);
+    }
+
+    /**
+     * Persists the batch as chunk {@code chunk} of the load {@code loadId} in its own transaction, at most once per
+     * (loadId, chunk): if that chunk was already committed (e.g. a load rerun after a crash, or a retry after a lost
+     * commit acknowledgement), nothing is written and false is returned. {@link #truncate()} forgets all committed
+     * chunks, {@link #truncate(int)} those with that chord size, so a rerun after a delete writes them again.
+     */
+    boolean saveChunk(String loadId, ChunkKey chunk, ChordBatch batch, BulkLoadMode mode);
+
     /**
      * Loads a chord by its database id.
      */
@@ -36,6 +80,36 @@ public interface HindemithChordRepositoryPort {
      */
     List<HindemithChord> findAll();
 
+    /**
+     * Streams all persisted chords (ordered by id) instead of materializing them. Adapters should back this with
+     * a server-side cursor reading fetchSize rows per round trip, so consumers start on the first row and run in
+     * constant memory. The stream holds database resources and must be closed (try-with-resources).
+     */
+    default Stream<HindemithChord> streamAll(int fetchSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Streaming variant of {@link #getAllOf(Integer)}; see {@link #streamAll(int)}.
+     */
+    default Stream<HindemithChord> streamAllOf(Integer group, int fetchSize) {
+        return getAllOf(group).stream();
+    }
+
+    /**
+     * Streaming variant of {@link #getAllOfRootNote(Integer)}; see {@link #streamAll(int)}.
+     */
+    default Stream<HindemithChord> streamAllOfRootNote(Integer rootNote, int fetchSize) {
+        return getAllOfRootNote(rootNote).stream();
+    }
+
+    /**
+     * Keyset pagination: at most limit chords matching the query with id > afterId, ascending by id. Adapters
+     * should serve this with an index range scan (WHERE id > ? ... ORDER BY id LIMIT ?), so every page costs the
+     * same regardless of how deep the client has paged. Use {@link ChordPage#FIRST} for the first page.
+     */
+    ChordPage page(ChordQuery query, long afterId, int limit);
+
     /**
      * Deletes a chord by id. No-op if not present.
      */
@@ -43,25 +117,69 @@ public interface HindemithChordRepositoryPort {
 
     /**
      * Truncates the hindemithChords table and restarts the identity/sequence.
-     * Implementations should use a fast table-level TRUNCATE operation if possible.
+     * Implementations should use a fast table-level TRUNCATE operation if possible. Clears the chunk ledger of
+     * {@link #saveChunk} in the same transaction.
      */
     void truncate();
 
-    List<HindemithChord> getAllOf(Integer group);
+    /**
+     * Deletes all chords with numNotes notes, e.g. before recalculating one chord size. Adapters that keep each
+     * chord size in its own partition should truncate just that partition. Committed chunks of that chord size are
+     * removed from the chunk ledger in the same transaction.
+     */
+    void truncate(int numNotes);
 
-    List<HindemithChord> getAllOfRootNote(Integer rootNote);
+    /**
+     * All chords matching the query, in the query's order (ties by id). Adapters should compile the query into a
+     * single statement; the finders below are shortcuts for common queries.
+     */
+    List<HindemithChord> find(ChordQuery query);
 
-    List<HindemithChord> getAllOfRootNoteAndGroup(Integer rootNote, Integer group);
+    default List<HindemithChord> getAllOf(Integer group) {
+        return find(ChordQuery.ALL.withGroups(List.of(group)));
+    }
 
-    List<HindemithChord> getAllOfRootNoteAndMaxGroup(Integer rootNote, Integer maxGroup);
-    
-    List<HindemithChord> findByRootNoteAndGroupsAndNumNotes(int rootNote,
-                                                            Collection<Integer> groups,
-                                                            Collection<Integer> numNotes);
+    default List<HindemithChord> getAllOfRootNote(Integer rootNote) {
+        return find(ChordQuery.ALL.withRootNote(rootNote));
+    }
 
-    List<HindemithChord> findByRootNoteAndGroupsAndNumNotesAndRange(int rootNote,
-                                                                     Collection<Integer> groups,
-                                                                     Collection<Integer> numNotes,
-                                                                     int range);
+    default List<HindemithChord> getAllOfRootNoteAndGroup(Integer rootNote, Integer group) {
+        return find(ChordQuery.ALL.withRootNote(rootNote).withGroups(List.of(group)));
+    }
+
+    /**
+     * Groups 1..maxGroup of the root note.
+     */
+    default List<HindemithChord> getAllOfRootNoteAndMaxGroup(Integer rootNote, Integer maxGroup) {
+        List<Integer> groups = new ArrayList<>();
+        for (int g = 1; g <= maxGroup; g++) groups.add(g);
+        if (groups.isEmpty()) return List.of();
+        return find(ChordQuery.ALL.withRootNote(rootNote).withGroups(groups));
+    }
+
+    /**
+     * Empty groups or numNotes match nothing.
+     */
+    default List<HindemithChord> findByRootNoteAndGroupsAndNumNotes(int rootNote,
+                                                                    Collection<Integer> groups,
+                                                                    Collection<Integer> numNotes) {
+        Objects.requireNonNull(groups, "groups must not be null");
+        Objects.requireNonNull(numNotes, "numNotes must not be null");
+        if (groups.isEmpty() || numNotes.isEmpty()) return List.of();
+        return find(new ChordQuery(rootNote, List.copyOf(groups), List.copyOf(numNotes), null));
+    }
+
+    /**
+     * Like {@link #findByRootNoteAndGroupsAndNumNotes}, restricted to chords spanning at most range semitones.
+     */
+    default List<HindemithChord> findByRootNoteAndGroupsAndNumNotesAndRange(int rootNote,
+                                                                            Collection<Integer> groups,
+                                                                            Collection<Integer> numNotes,
+                                                                            int range) {
+        Objects.requireNonNull(groups, "groups must not be null");
+        Objects.requireNonNull(numNotes, "numNotes must not be null");
+        if (groups.isEmpty() || numNotes.isEmpty()) return List.of();
+        return find(new ChordQuery(rootNote, List.copyOf(groups), List.copyOf(numNotes), range));
+    }
 
 }
@@ -6,14 +6,30 @@ import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 import picocli.CommandLine.ParentCommand;
 import syrincs.a_domain.Tone;
+import syrincs.a_domain.hindemith.DecisionTreeChordRules;
 import syrincs.a_domain.hindemith.HindemithChord;
+import syrincs.b_application.AnalysisPath;
+import syrincs.b_application.AuditChordRulesUseCase;
+import syrincs.b_application.ChordGenerationOptions;
+import syrincs.b_application.ChunkedChordWriter;
 import syrincs.b_application.UseCaseInteractor;
+import syrincs.b_application.VerifyChordAnalysisUseCase;
+import syrincs.b_application.ports.BulkLoadMode;
 
 import javax.sound.midi.InvalidMidiDataException;
 import javax.sound.midi.MidiUnavailableException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 
 /**
  * PicoCli-based command tree for Syrincs. This coexists with the legacy CliController for now.
@@ -28,6 +44,8 @@ import java.util.concurrent.Callable;
                 RootCmd.PlayCmd.class,
                 RootCmd.CalculateCmd.class,
                 RootCmd.AnalyzeCmd.class,
+                RootCmd.VerifyCmd.class,
+                RootCmd.AuditCmd.class,
                 RootCmd.DeleteCmd.class
         }
 )
@@ -125,17 +143,30 @@ public class RootCmd implements Runnable {
         @Option(names = "range", description = "Max chord span (maxNote - minNote), default: 24", defaultValue = "24")
         int range;
 
+        @Option(names = "--page-size", description = "Play only the next N chords and print a continuation token")
+        Integer pageSize;
+
+        @Option(names = "--after", description = "Continuation token printed by the previous page")
+        String after;
+
         @Override
         public Integer call() throws Exception {
             var interactor = parentPlay.parent.interactor;
             List<Integer> nn = (numNotes == null || numNotes.length == 0) ? List.of(3,4,5) : Arrays.stream(numNotes).boxed().toList();
             List<Integer> gr = (groups   == null || groups.length   == 0) ? List.of(1,2,3,4,5,6,7,8,9) : Arrays.stream(groups).boxed().toList();
+            if (pageSize != null || after != null) {
+                String next = interactor.playChordPage(nn, gr, rootNote, range, after, pageSize == null ? 50 : pageSize, 200L, null);
+                System.out.println(next == null ? "[DB] Last page." : "[DB] Next page: --after " + next);
+                return 0;
+            }
             interactor.playChords(nn, gr, rootNote, range, 200L, null);
             return 0;
         }
     }
 
-    @Command(name = "calculate", aliases = {"calc"}, description = "Generate chords and persist")
+    @Command(name = "calculate", aliases = {"calc"}, description = {"Generate chords and persist",
+            "Replaces all stored chords with 3..5 notes and commits per batch of 1000; rerun after a failure to complete the table.",
+            "With --connections existing chords are kept and a rerun only writes the missing chunks."})
     public static class CalculateCmd implements Callable<Integer> {
         @ParentCommand RootCmd parent;
 
@@ -145,13 +176,70 @@ public class RootCmd implements Runnable {
         @Parameters(index = "1", description = "maxUpperNote")
         int maxUpperNote;
 
+        @Option(names = "--parallelism", description = "Worker threads for generation and analysis (default: 1 = sequential)", defaultValue = "1")
+        int parallelism;
+
+        @Option(names = "--unordered", description = "Allow parallel results in any order (ids are not reproducible)")
+        boolean unordered;
+
+        @Option(names = "--group", arity = "1..*", split = ",", description = "Only generate chords of these Hindemith groups (1..18); impossible subtrees are pruned")
+        int[] groups;
+
+        @Option(names = "--revolving-door", description = "Enumerate in revolving-door order (one note changes per step) with incremental analysis; same chords, different order")
+        boolean revolvingDoor;
+
+        @Option(names = "--bulk-load", description = "How chords are written: ${COMPLETION-CANDIDATES} (default: BATCH_INSERT)", defaultValue = "BATCH_INSERT")
+        BulkLoadMode bulkLoad;
+
+        @Option(names = "--connections", description = "Write in separately committed chunks over N parallel connections with retries; rerunning the same calculation skips committed chunks")
+        Integer connections;
+
+        @Option(names = "--max-attempts", description = "Attempts per chunk with --connections (default: 5)", defaultValue = "5")
+        int maxAttempts;
+
+        @Option(names = "--sample", description = "Analyze only a uniform random sample of N chords per chord size and print group statistics (nothing is persisted)")
+        Integer sample;
+
+        @Option(names = "--seed", description = "Random seed for --sample (default: 1)", defaultValue = "1")
+        long seed;
+
         @Override
         public Integer call() {
             var interactor = parent.interactor;
-            var ids = interactor.calculateAndPersistAllChordsToFiveNotes(minLowerNote, maxUpperNote);
-            System.out.printf("[DB] Persisted %d chords for range [%d, %d].%n", ids.size(), minLowerNote, maxUpperNote);
+            if (sample != null) {
+                printSampleStatistics(interactor.sampleAllChordsToFiveNotes(minLowerNote, maxUpperNote, sample, seed));
+                return 0;
+            }
+            List<Integer> gr = (groups == null) ? List.of() : Arrays.stream(groups).boxed().toList();
+            var options = new ChordGenerationOptions(parallelism, !unordered, gr, revolvingDoor);
+            if (connections != null) {
+                var writerOptions = new ChunkedChordWriter.Options(connections, maxAttempts, ChunkedChordWriter.Options.DEFAULT.initialBackoff());
+                var result = interactor.calculateAndPersistChunked(minLowerNote, maxUpperNote, options, bulkLoad, writerOptions, p -> {
+                    if (p.chunksDone() % 100 == 0) {
+                        System.out.printf("[DB] %d chunks done, %d chords written%n", p.chunksDone(), p.rowsWritten());
+                    }
+                });
+                System.out.printf("[DB] Persisted %d chords in %d chunks for range [%d, %d] (%d chunks already committed, %d retries).%n",
+                        result.rowsWritten(), result.chunksWritten(), minLowerNote, maxUpperNote, result.chunksSkipped(), result.retries());
+                return 0;
+            }
+            long persisted = interactor.calculateAndPersistAllChordsToFiveNotes(minLowerNote, maxUpperNote, options, bulkLoad);
+            System.out.printf("[DB] Persisted %d chords for range [%d, %d] (stored chords with 3..5 notes replaced).%n",
+                    persisted, minLowerNote, maxUpperNote);
             return 0;
         }
+
+        private void printSampleStatistics(List<HindemithChord> chords) {
+            Map<Integer, Map<Integer, Long>> bySizeAndGroup = chords.stream()
+                    .collect(Collectors.groupingBy(HindemithChord::getNumNotes, TreeMap::new,
+                            Collectors.groupingBy(HindemithChord::getGroup, TreeMap::new, Collectors.counting())));
+            System.out.printf("[SAMPLE] %d chords for range [%d, %d] (seed=%d)%n", chords.size(), minLowerNote, maxUpperNote, seed);
+            bySizeAndGroup.forEach((numNotes, groupCounts) -> {
+                long total = groupCounts.values().stream().mapToLong(Long::longValue).sum();
+                groupCounts.forEach((group, count) ->
+                        System.out.printf("[SAMPLE] notes=%d group=%2d count=%d (%.1f%%)%n", numNotes, group, count, 100.0 * count / total));
+            });
+        }
     }
 
     @Command(name = "analyze", aliases = {"analyse"}, description = "Analyze chord by Hindemith")
@@ -171,11 +259,137 @@ public class RootCmd implements Runnable {
         }
     }
 
+    @Command(name = "verify", description = "Compare an analysis path with the reference rule evaluation on every chord of a range")
+    public static class VerifyCmd implements Callable<Integer> {
+        @ParentCommand RootCmd parent;
+
+        @Parameters(index = "0", description = "minLowerNote")
+        int minLowerNote;
+
+        @Parameters(index = "1", description = "maxUpperNote")
+        int maxUpperNote;
+
+        @Option(names = "--engine", description = "Analysis path to verify: ${COMPLETION-CANDIDATES} (default: TABLE)", defaultValue = "TABLE")
+        AnalysisPath engine;
+
+        @Option(names = "--notes", arity = "1..*", split = ",", description = "Chord sizes (default: 3,4,5)", defaultValue = "3,4,5")
+        int[] numNotes;
+
+        @Option(names = "--octaves", description = "Maximum span in octaves (default: 3)", defaultValue = "3")
+        int octaves;
+
+        @Option(names = "--parallelism", description = "Worker threads (default: all processors)")
+        Integer parallelism;
+
+        @Option(names = "--report", description = "Number of mismatches to print (default: 10)", defaultValue = "10")
+        int maxReported;
+
+        @Option(names = "--golden", description = "Golden checksum file: compared if it contains the run, otherwise the run is added")
+        Path golden;
+
+        @Option(names = "--counters", description = "With --engine DECISION_TREE: count predicate evaluations per tree node and print the tree with its counters")
+        boolean counters;
+
+        @Override
+        public Integer call() throws IOException {
+            if (counters && engine != AnalysisPath.DECISION_TREE) {
+                System.out.println("[VERIFY] --counters requires --engine DECISION_TREE");
+                return 2;
+            }
+            // Eigener Baum mit Zählern, der gemeinsame zählt nicht
+            DecisionTreeChordRules tree = counters ? DecisionTreeChordRules.withCounters() : null;
+            int threads = parallelism != null ? parallelism : Runtime.getRuntime().availableProcessors();
+            Properties goldenValues = new Properties();
+            if (golden != null && Files.exists(golden)) {
+                try (InputStream in = Files.newInputStream(golden)) {
+                    goldenValues.load(in);
+                }
+            }
+            boolean ok = true;
+            boolean goldenChanged = false;
+            for (int k : numNotes) {
+                VerifyChordAnalysisUseCase.Report report = tree != null
+                        ? parent.interactor.verifyDecisionTree(tree, k, minLowerNote, maxUpperNote, octaves, maxReported, threads)
+                        : parent.interactor.verifyAnalysis(engine, k, minLowerNote, maxUpperNote, octaves, maxReported, threads);
+                System.out.printf("[VERIFY] %s %s%n", engine, report);
+                report.firstMismatches().forEach(m -> System.out.println("[VERIFY]   " + m));
+                ok &= report.isClean();
+                if (golden != null) {
+                    String expected = goldenValues.getProperty(report.goldenKey());
+                    if (expected == null) {
+                        goldenValues.setProperty(report.goldenKey(), report.goldenValue());
+                        goldenChanged = true;
+                    } else if (!expected.equals(report.goldenValue())) {
+                        System.out.printf("[VERIFY] Golden checksum differs for %s: expected %s but was %s%n", report.goldenKey(), expected, report.goldenValue());
+                        ok = false;
+                    }
+                }
+            }
+            if (goldenChanged) {
+                try (OutputStream out = Files.newOutputStream(golden)) {
+                    goldenValues.store(out, "Hindemith analysis checksums: chords:checksum");
+                }
+                System.out.println("[VERIFY] Golden file updated: " + golden);
+            }
+            if (tree != null) {
+                tree.report().lines().forEach(line -> System.out.println("[COUNTERS] " + line));
+            }
+            return ok ? 0 : 1;
+        }
+    }
+
+    @Command(name = "audit", description = "Evaluate all group specifications for every chord of a range: counts per group, chords without match, chords matching several groups")
+    public static class AuditCmd implements Callable<Integer> {
+        @ParentCommand RootCmd parent;
+
+        @Parameters(index = "0", description = "minLowerNote")
+        int minLowerNote;
+
+        @Parameters(index = "1", description = "maxUpperNote")
+        int maxUpperNote;
+
+        @Option(names = "--notes", arity = "1..*", split = ",", description = "Chord sizes (default: 3,4,5)", defaultValue = "3,4,5")
+        int[] numNotes;
+
+        @Option(names = "--octaves", description = "Maximum span in octaves (default: 3)", defaultValue = "3")
+        int octaves;
+
+        @Option(names = "--parallelism", description = "Worker threads (default: all processors)")
+        Integer parallelism;
+
+        @Option(names = "--examples", description = "Example chords per category (default: 5)", defaultValue = "5")
+        int examples;
+
+        @Override
+        public Integer call() {
+            int threads = parallelism != null ? parallelism : Runtime.getRuntime().availableProcessors();
+            for (int k : numNotes) {
+                // Bericht je Akkordgröße ausgeben, sobald sie fertig ist
+                AuditChordRulesUseCase.Report report = parent.interactor.auditRules(k, minLowerNote, maxUpperNote, octaves, examples, threads);
+                System.out.printf("[AUDIT] notes=%d range=[%d, %d] octaves=%d chords=%d%n", k, minLowerNote, maxUpperNote, octaves, report.chords());
+                report.firstMatchCounts().forEach((group, count) ->
+                        System.out.printf("[AUDIT]   group=%2d count=%d%n", group, count));
+                System.out.println("[AUDIT]   " + report.noMatch());
+                report.overlaps().forEach(o -> System.out.println("[AUDIT]   " + o));
+                System.out.flush();
+            }
+            return 0;
+        }
+    }
+
     @Command(name = "delete", description = "Truncate Hindemith chords table")
     public static class DeleteCmd implements Callable<Integer> {
         @ParentCommand RootCmd parent;
+
+        @Option(names = "--num-notes", description = "Only delete chords with this many notes (truncates just their partition)")
+        Integer numNotes;
+
         @Override public Integer call() {
-            parent.interactor.deleteHindemithChords();
+            if (numNotes != null) {
+                parent.interactor.deleteHindemithChords(numNotes);
+            } else {
+                parent.interactor.deleteHindemithChords();
+            }
             return 0;
         }
     }
@@ -0,0 +1,138 @@
+package syrincs.c_adapters.postgres;
+
+import syrincs.b_application.ports.ChordQuery;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link ChordQuery} compiled into one parameterised SELECT on hindemithChords.
+ *
+ * The SQL text only depends on which filters are set, not on their values (mask filters also on how many mask
+ * values qualify), so the statement cache of the connection pool and the server-side prepared statements of the
+ * driver reuse the plan across calls. Span and root pitch class are filtered on the generated columns span and
+ * rootPitchClass, so their indexes apply (see {@link PostgresSchema}). numNotes and rootPitchClass are the partition
+ * keys; a query with a single chord size and a root note is pruned to one leaf partition.
+ */
+record ChordQuerySql(String sql, List<Object> parameters) {
+
+    static final String COLUMNS = "id, notes, rootNote, chordGroup";
+
+    /** Mask filters with at most this many qualifying mask values are compiled to an index-friendly list. */
+    static final int MAX_ENUMERATED_MASKS = 256;
+
+    /**
+     * @param afterId keyset position (only rows with id > afterId), or null
+     */
+    static ChordQuerySql compile(ChordQuery query, Long afterId) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM public.hindemithChords");
+        List<Object> parameters = new ArrayList<>();
+        List<String> where = new ArrayList<>();
+        if (afterId != null) {
+            where.add("id > ?");
+            parameters.add(afterId);
+        }
+        if (query.rootNote() != null) {
+            where.add("rootNote = ?");
+            parameters.add(query.rootNote());
+        }
+        // Die Tonklasse ist Partitionsschlüssel: mit dem Grundton mitgegeben, bleibt nur eine Hash-Partition übrig
+        Integer rootPitchClass = query.rootPitchClass() != null ? query.rootPitchClass()
+                : query.rootNote() != null ? Integer.valueOf(query.rootNote() % 12) : null;
+        if (rootPitchClass != null) {
+            where.add("rootPitchClass = ?");
+            parameters.add(rootPitchClass);
+        }
+        if (!query.groups().isEmpty()) {
+            where.add("chordGroup = ANY(?)");
+            parameters.add(query.groups().toArray(new Integer[0]));
+        }
+        if (query.numNotes().size() == 1) {
+            // Gleichheit statt ANY: Partition Pruning auch bei generischen Plänen vorbereiteter Statements
+            where.add("numNotes = ?");
+            parameters.add(query.numNotes().get(0));
+        } else if (!query.numNotes().isEmpty()) {
+            where.add("numNotes = ANY(?)");
+            parameters.add(query.numNotes().toArray(new Integer[0]));
+        }
+        if (query.minSpan() != null) {
+            where.add("span >= ?");
+            parameters.add(query.minSpan());
+        }
+        if (query.maxSpan() != null) {
+            where.add("span <= ?");
+            parameters.add(query.maxSpan());
+        }
+        if (query.bassNote() != null) {
+            where.add("minNote = ?");
+            parameters.add(query.bassNote());
+        }
+        mask("pitchClassMask", query.requiredPitchClasses(), query.excludedPitchClasses(), where, parameters);
+        mask("intervalMask", query.requiredIntervals(), query.excludedIntervals(), where, parameters);
+        if (!where.isEmpty()) sql.append(" WHERE ").append(String.join(" AND ", where));
+        sql.append(" ORDER BY ").append(switch (query.order()) {
+            case ID -> "id";
+            case ROOT_NOTE -> "rootNote, id";
+            case BASS_NOTE -> "minNote, id";
+            case SPAN -> "span, id";
+        });
+        if (query.limit() != null) {
+            sql.append(" LIMIT ?");
+            parameters.add(query.limit());
+        }
+        return new ChordQuerySql(sql.toString(), List.copyOf(parameters));
+    }
+
+    /**
+     * A mask filter as bitwise predicates, or, if at most {@link #MAX_ENUMERATED_MASKS} of the 4096 mask values
+     * qualify, as {@code column = ANY(...)} over exactly those values: the bitwise form can not use an index, the
+     * list can (btree index on the mask column). Contradicting masks give an empty list.
+     */
+    private static void mask(String column, Integer required, Integer excluded, List<String> where, List<Object> parameters) {
+        if (required == null && excluded == null) return;
+        int req = required == null ? 0 : required;
+        int exc = excluded == null ? 0 : excluded;
+        int free = ChordQuery.FULL_MASK & ~(req | exc);
+        if ((req & exc) != 0 || 1 << Integer.bitCount(free) <= MAX_ENUMERATED_MASKS) {
+            where.add(column + " = ANY(?)");
+            parameters.add((req & exc) != 0 ? new Integer[0] : masks(req, free));
+            return;
+        }
+        if (exc != 0) {
+            where.add("(" + column + " & ?) = 0");
+            parameters.add(exc);
+        }
+        if (req != 0) {
+            where.add("(" + column + " & ?) = ?");
+            parameters.add(req);
+            parameters.add(req);
+        }
+    }
+
+    // Alle Masken required | s für jede Teilmenge s von free, aufsteigend
+    private static Integer[] masks(int required, int free) {
+        Integer[] masks = new Integer[1 << Integer.bitCount(free)];
+        int i = masks.length;
+        for (int s = free; ; s = (s - 1) & free) {
+            masks[--i] = required | s;
+            if (s == 0) break;
+        }
+        return masks;
+    }
+
+    void bind(Connection con, PreparedStatement ps) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            Object p = parameters.get(i);
+            if (p instanceof Integer[] array) {
+                ps.setArray(i + 1, con.createArrayOf("int4", array));
+            } else if (p instanceof Long l) {
+                ps.setLong(i + 1, l);
+            } else {
+                ps.setInt(i + 1, (Integer) p);
+            }
+        }
+    }
+}
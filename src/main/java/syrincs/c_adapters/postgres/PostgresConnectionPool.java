@@ -0,0 +1,481 @@
+package syrincs.c_adapters.postgres;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded JDBC connection pool of the Postgres adapter.
+ *
+ * - At most {@code maxSize} connections are handed out; further callers wait up to {@code acquireTimeout}.
+ * - Idle connections are validated ({@link Connection#isValid}) before reuse when they were idle longer than
+ *   {@code validationInterval}, and closed by a background task after {@code idleTimeout}.
+ * - Each physical connection keeps an LRU cache of prepared statements. A cached statement is checked out to one
+ *   caller at a time and reset (parameters, batch, fetch size, max rows, query timeout, open result sets) when
+ *   closed; closing a connection handed out by the pool closes its statements and returns it.
+ * - {@link #metrics()} exposes active/idle counts and the wait time for a connection.
+ */
+public final class PostgresConnectionPool implements AutoCloseable {
+
+    /** Opens a physical connection. */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * @param maxSize            maximum number of open connections
+     * @param statementCacheSize prepared statements cached per connection (0 = no caching)
+     */
+    public record Config(int maxSize, long acquireTimeoutMs, long idleTimeoutMs, long validationIntervalMs,
+                         int statementCacheSize) {
+        public static final int DEFAULT_MAX_SIZE = 10;
+
+        public Config {
+            if (maxSize < 1) throw new IllegalArgumentException("maxSize must be >= 1, was " + maxSize);
+            if (statementCacheSize < 0) throw new IllegalArgumentException("statementCacheSize must be >= 0");
+        }
+
+        public static Config ofSize(int maxSize) {
+            return new Config(maxSize, 30_000, 600_000, 5_000, 64);
+        }
+    }
+
+    /**
+     * Snapshot of the pool state. Wait times are measured from the request of a connection until it is handed out.
+     */
+    public record Metrics(int active, int idle, int maxSize, long acquired, long created, long evicted,
+                          long totalWaitNanos, long maxWaitNanos) {
+        public double meanWaitMillis() {
+            return acquired == 0 ? 0 : totalWaitNanos / 1e6 / acquired;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d idle=%d max=%d acquired=%d created=%d evicted=%d wait(mean=%.3f ms, max=%.3f ms)",
+                    active, idle, maxSize, acquired, created, evicted, meanWaitMillis(), maxWaitNanos / 1e6);
+        }
+    }
+
+    private final ConnectionFactory factory;
+    private final Config config;
+    private final Semaphore permits;
+    private final Deque<Pooled> idle = new ArrayDeque<>(); // LIFO: zuletzt benutzte Verbindung zuerst, die ältesten altern aus
+    private final ScheduledExecutorService evictor;
+    private final Logger LOGGER = Logger.getLogger(PostgresConnectionPool.class.getName());
+
+    private int active;
+    private boolean closed;
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public PostgresConnectionPool(String url, String user, String password, Config config) {
+        this(() -> DriverManager.getConnection(url, user, password), config);
+    }
+
+    public PostgresConnectionPool(ConnectionFactory factory, Config config) {
+        this.factory = Objects.requireNonNull(factory, "factory must not be null");
+        this.config = Objects.requireNonNull(config, "config must not be null");
+        this.permits = new Semaphore(config.maxSize(), true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "postgres-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1, config.idleTimeoutMs() / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection; {@link Connection#close()} returns it to the pool.
+     *
+     * @throws SQLException if no connection becomes available within the acquire timeout or opening one fails
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.acquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + config.acquireTimeoutMs() + " ms waiting for a connection (" + metrics() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        try {
+            Pooled pooled = takeHealthyIdle();
+            if (pooled == null) {
+                pooled = new Pooled(factory.open());
+                created.incrementAndGet();
+            }
+            synchronized (this) {
+                active++;
+            }
+            long waited = System.nanoTime() - start;
+            acquired.incrementAndGet();
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public synchronized Metrics metrics() {
+        return new Metrics(active, idle.size(), config.maxSize(), acquired.get(), created.get(), evicted.get(),
+                totalWaitNanos.get(), maxWaitNanos.get());
+    }
+
+    @Override
+    public void close() {
+        List<Pooled> toClose;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            toClose = List.copyOf(idle);
+            idle.clear();
+        }
+        evictor.shutdownNow();
+        toClose.forEach(Pooled::closePhysical);
+        LOGGER.info("Connection pool closed: " + metrics());
+    }
+
+    private Pooled takeHealthyIdle() {
+        while (true) {
+            Pooled pooled;
+            synchronized (this) {
+                if (closed) throw new IllegalStateException("Connection pool is closed");
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) return null;
+            if (System.currentTimeMillis() - pooled.lastUsed < config.validationIntervalMs() || pooled.isValid()) {
+                return pooled;
+            }
+            evicted.incrementAndGet();
+            pooled.closePhysical();
+        }
+    }
+
+    private void release(Pooled pooled, boolean healthy) {
+        boolean keep;
+        synchronized (this) {
+            active--;
+            keep = healthy && !closed;
+            if (keep) {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.addFirst(pooled);
+            }
+        }
+        if (!keep) pooled.closePhysical();
+        permits.release();
+    }
+
+    void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<Pooled> expired = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<Pooled> it = idle.descendingIterator(); it.hasNext(); ) {
+                Pooled pooled = it.next();
+                if (now - pooled.lastUsed < config.idleTimeoutMs()) break;
+                it.remove();
+                expired.add(pooled);
+            }
+        }
+        evicted.addAndGet(expired.size());
+        expired.forEach(Pooled::closePhysical);
+    }
+
+    /** A physical connection with its statement cache. */
+    private final class Pooled {
+        final Connection physical;
+        final Map<String, CachedStatement> statements;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        Pooled(Connection physical) {
+            this.physical = physical;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() <= config.statementCacheSize()) return false;
+                    // Ein ausgeliehenes Statement wird erst bei der Rückgabe geschlossen
+                    CachedStatement cached = eldest.getValue();
+                    cached.evicted = true;
+                    if (!cached.inUse) cached.closeQuietly();
+                    return true;
+                }
+            };
+        }
+
+        boolean isValid() {
+            try {
+                return physical.isValid((int) Math.max(1, config.validationIntervalMs() / 1000));
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        Connection lease() {
+            LeaseHandler handler = new LeaseHandler(this);
+            Connection lease = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, handler);
+            handler.proxy = lease;
+            return lease;
+        }
+
+        /**
+         * createStatement, prepareStatement or prepareCall for the lease. prepareStatement(sql) and
+         * prepareStatement(sql, autoGeneratedKeys) come from the cache, unless the cached statement for that SQL is
+         * checked out already (e.g. two open statements with the same SQL): then the second one gets an uncached
+         * statement of its own, so both never share one physical statement.
+         */
+        Statement statement(LeaseHandler lease, Method method, Object[] args) throws Throwable {
+            boolean cacheable = config.statementCacheSize() > 0 && method.getName().equals("prepareStatement")
+                    && (args.length == 1 || (args.length == 2 && args[1] instanceof Integer));
+            if (!cacheable) return lease.track((Statement) invoke(physical, method, args), null, method.getReturnType());
+            String key = args.length == 1 ? (String) args[0] : args[1] + ":" + args[0];
+            CachedStatement cached = statements.get(key);
+            if (cached != null && cached.statement.isClosed()) {
+                statements.remove(key);
+                cached = null;
+            }
+            if (cached != null && cached.inUse) {
+                return lease.track((Statement) invoke(physical, method, args), null, PreparedStatement.class);
+            }
+            if (cached == null) {
+                cached = new CachedStatement((PreparedStatement) invoke(physical, method, args));
+                statements.put(key, cached);
+            }
+            cached.inUse = true;
+            return lease.track(cached.statement, cached, PreparedStatement.class);
+        }
+
+        void closePhysical() {
+            statements.values().forEach(CachedStatement::closeQuietly);
+            statements.clear();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Failed to close pooled connection", e);
+            }
+        }
+    }
+
+    /** A cached physical statement with the settings it had when prepared, restored on every return. */
+    private final class CachedStatement {
+        final PreparedStatement statement;
+        final int fetchSize;
+        final int maxRows;
+        final int queryTimeout;
+        boolean inUse;
+        boolean evicted;
+
+        CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        // Zurücksetzen für den nächsten Ausleiher; schlägt das fehl, fliegt das Statement aus dem Cache
+        void release() {
+            inUse = false;
+            if (!evicted) {
+                try {
+                    statement.clearBatch();
+                    statement.clearParameters();
+                    statement.setFetchSize(fetchSize);
+                    statement.setMaxRows(maxRows);
+                    statement.setQueryTimeout(queryTimeout);
+                    return;
+                } catch (SQLException e) {
+                    LOGGER.log(Level.FINE, "Discarding cached statement", e);
+                    evicted = true;
+                }
+            }
+            closeQuietly();
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Failed to close cached statement", e);
+            }
+        }
+    }
+
+    /** Connection handed out to one caller; close() closes its statements, resets the session state and returns it. */
+    private final class LeaseHandler implements InvocationHandler {
+        private final Pooled pooled;
+        private final List<StatementHandler> statements = new ArrayList<>();
+        private Connection proxy;
+        private boolean returned;
+
+        LeaseHandler(Pooled pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        release(pooled, closeStatements() & reset());
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || pooled.physical.isClosed();
+                }
+                case "unwrap", "isWrapperFor", "equals", "hashCode", "toString" -> {
+                    return PostgresConnectionPool.invoke(method.getDeclaringClass() == Object.class ? this : pooled.physical, method, args);
+                }
+                default -> {
+                    if (returned) throw new SQLException("Connection has been returned to the pool");
+                    return switch (method.getName()) {
+                        case "createStatement", "prepareStatement", "prepareCall" -> pooled.statement(this, method, args);
+                        default -> PostgresConnectionPool.invoke(pooled.physical, method, args);
+                    };
+                }
+            }
+        }
+
+        Statement track(Statement statement, CachedStatement cached, Class<?> type) {
+            StatementHandler handler = new StatementHandler(this, statement, cached);
+            statements.add(handler);
+            return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        // Vom Aufrufer offen gelassene Statements schließen wie beim Schließen einer echten Verbindung
+        private boolean closeStatements() {
+            boolean ok = true;
+            for (StatementHandler statement : List.copyOf(statements)) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.FINE, "Failed to close statement of returned connection", e);
+                    ok = false;
+                }
+            }
+            return ok;
+        }
+
+        // Offene Transaktion verwerfen und Autocommit wiederherstellen; schlägt das fehl, ist die Verbindung kaputt
+        private boolean reset() {
+            try {
+                if (pooled.physical.isClosed()) return false;
+                if (!pooled.physical.getAutoCommit()) {
+                    pooled.physical.rollback();
+                    pooled.physical.setAutoCommit(true);
+                }
+                return true;
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Discarding pooled connection", e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Statement handed out with a lease. close() closes the result sets it produced and then either returns the
+     * cached statement to the cache or closes the uncached one; getConnection() answers the lease, not the physical
+     * connection, so closing that returns it to the pool.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final LeaseHandler lease;
+        private final Statement statement;
+        private final CachedStatement cached;
+        private final List<ResultSet> results = new ArrayList<>();
+        private boolean closed;
+
+        StatementHandler(LeaseHandler lease, Statement statement, CachedStatement cached) {
+            this.lease = lease;
+            this.statement = statement;
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    close();
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || statement.isClosed();
+                }
+                case "unwrap", "isWrapperFor", "equals", "hashCode", "toString" -> {
+                    return PostgresConnectionPool.invoke(method.getDeclaringClass() == Object.class ? this : statement, method, args);
+                }
+                default -> {
+                    if (closed) throw new SQLException("Statement has been closed");
+                    if (method.getName().equals("getConnection")) return lease.proxy;
+                    Object result = PostgresConnectionPool.invoke(statement, method, args);
+                    if (result instanceof ResultSet rs) {
+                        results.removeIf(StatementHandler::isClosed);
+                        results.add(rs);
+                    }
+                    return result;
+                }
+            }
+        }
+
+        void close() throws SQLException {
+            if (closed) return;
+            closed = true;
+            lease.statements.remove(this);
+            try {
+                for (ResultSet rs : results) rs.close();
+            } finally {
+                results.clear();
+                if (cached != null) {
+                    cached.release();
+                } else {
+                    statement.close();
+                }
+            }
+        }
+
+        private static boolean isClosed(ResultSet rs) {
+            try {
+                return rs.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
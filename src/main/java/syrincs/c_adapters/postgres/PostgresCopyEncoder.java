@@ -0,0 +1,141 @@
+package syrincs.c_adapters.postgres;
+
+import syrincs.a_domain.chord.Chord;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes hindemithChords rows for {@code COPY ... FROM STDIN} in the text or binary format.
+ *
+ * Column order is {@link #COLUMNS}. In the binary format every integer column is written with the byte width of
+ * its column type (2, 4 or 8), the notes as a one-dimensional int4[] without NULLs, tagged with the element type OID
+ * read from the catalog (see {@link Layout}). A null group is written as NULL.
+ * The pitch-class and interval masks are computed from the notes (see {@link Chord#pitchClassMask}), the root pitch
+ * class (a partition key, see {@link PostgresSchema}) from the root note.
+ */
+final class PostgresCopyEncoder {
+
+    static final String[] COLUMNS = {"id", "notes", "numNotes", "minNote", "maxNote", "rootNote", "chordGroup",
+            "pitchClassMask", "intervalMask", "rootPitchClass"};
+
+    private static final byte[] BINARY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    /**
+     * Column types of the target table as the binary format needs them.
+     *
+     * @param widths          byte width per column of {@link #COLUMNS} (index 1, the notes, is not used)
+     * @param notesElementOid OID of the element type of the notes array (int4)
+     */
+    record Layout(int[] widths, int notesElementOid) {
+
+        /** The text format takes neither widths nor OIDs from the layout. */
+        static final Layout TEXT = new Layout(new int[COLUMNS.length], 0);
+
+        Layout {
+            if (widths.length != COLUMNS.length) throw new IllegalArgumentException("widths must have one entry per column");
+            widths = widths.clone();
+        }
+    }
+
+    private final DataOutputStream out;
+    private final boolean binary;
+    private final Layout layout;
+    private final StringBuilder line = new StringBuilder(64);
+
+    /**
+     * @param layout column types; only used in the binary format
+     */
+    PostgresCopyEncoder(OutputStream out, boolean binary, Layout layout) {
+        this.out = new DataOutputStream(out);
+        this.binary = binary;
+        this.layout = layout;
+    }
+
+    static String copySql(boolean binary) {
+        return "COPY public.hindemithChords (" + String.join(", ", COLUMNS) + ") FROM STDIN"
+                + (binary ? " (FORMAT binary)" : "");
+    }
+
+    void writeHeader() throws IOException {
+        if (!binary) return;
+        out.write(BINARY_SIGNATURE);
+        out.writeInt(0); // Flags
+        out.writeInt(0); // Länge der Header-Erweiterung
+    }
+
+    /**
+     * Writes the chord notes[from .. from + numNotes - 1].
+     */
+    void writeRow(long id, int[] notes, int from, int numNotes, int rootNote, Integer group) throws IOException {
+        int min = notes[from];
+        int max = notes[from];
+        for (int i = 1; i < numNotes; i++) {
+            min = Math.min(min, notes[from + i]);
+            max = Math.max(max, notes[from + i]);
+        }
+        int pitchClassMask = Chord.pitchClassMask(notes, from, numNotes);
+        int intervalMask = Chord.intervalMask(notes, from, numNotes);
+        if (binary) {
+            out.writeShort(COLUMNS.length);
+            writeInteger(0, id);
+            out.writeInt(20 + 8 * numNotes);
+            out.writeInt(1);        // Dimensionen
+            out.writeInt(0);        // keine NULL-Elemente
+            out.writeInt(layout.notesElementOid());
+            out.writeInt(numNotes);
+            out.writeInt(1);        // Untergrenze
+            for (int i = 0; i < numNotes; i++) {
+                out.writeInt(4);
+                out.writeInt(notes[from + i]);
+            }
+            writeInteger(2, numNotes);
+            writeInteger(3, min);
+            writeInteger(4, max);
+            writeInteger(5, rootNote);
+            if (group == null) {
+                out.writeInt(-1);
+            } else {
+                writeInteger(6, group);
+            }
+            writeInteger(7, pitchClassMask);
+            writeInteger(8, intervalMask);
+            writeInteger(9, rootNote % 12);
+        } else {
+            line.setLength(0);
+            line.append(id).append('\t').append('{');
+            for (int i = 0; i < numNotes; i++) {
+                if (i > 0) line.append(',');
+                line.append(notes[from + i]);
+            }
+            line.append('}').append('\t').append(numNotes)
+                    .append('\t').append(min)
+                    .append('\t').append(max)
+                    .append('\t').append(rootNote)
+                    .append('\t').append(group == null ? "\\N" : group.toString())
+                    .append('\t').append(pitchClassMask)
+                    .append('\t').append(intervalMask)
+                    .append('\t').append(rootNote % 12)
+                    .append('\n');
+            out.write(line.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    void writeTrailer() throws IOException {
+        if (binary) out.writeShort(-1);
+        out.flush();
+    }
+
+    private void writeInteger(int column, long value) throws IOException {
+        int width = layout.widths()[column];
+        out.writeInt(width);
+        switch (width) {
+            case 2 -> out.writeShort((int) value);
+            case 4 -> out.writeInt((int) value);
+            case 8 -> out.writeLong(value);
+            default -> throw new IllegalStateException("Unsupported integer width " + width + " for column " + COLUMNS[column]);
+        }
+    }
+}
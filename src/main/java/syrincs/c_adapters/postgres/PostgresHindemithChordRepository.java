@@ -1,12 +1,24 @@
 package syrincs.c_adapters.postgres;
 
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import syrincs.a_domain.chord.Chord;
+import syrincs.a_domain.chord.ChordBatch;
 import syrincs.a_domain.hindemith.HindemithChord;
+import syrincs.b_application.ports.BulkLoadMode;
+import syrincs.b_application.ports.ChordPage;
+import syrincs.b_application.ports.ChordQuery;
+import syrincs.b_application.ports.ChunkKey;
 import syrincs.b_application.ports.HindemithChordRepositoryPort;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Postgres implementation of the Hindemith chord repository.
@@ -14,28 +26,64 @@ import java.util.logging.Logger;
  * Notes about Clean Architecture placement:
  * - This class is an outer-layer adapter (c_adapters). It depends on JDBC and Postgres types.
  * - It maps between DB rows (hindemithChords table) and the domain entity HindemithChord.
+ * - Connections come from a bounded {@link PostgresConnectionPool} (with prepared-statement cache), so a query
+ *   does not pay connect, authentication and backend start each time. Close the repository to close the pool.
+ * - Tables and indexes are managed by {@link PostgresSchema} and migrated before the first query.
  */
-public class PostgresHindemithChordRepository implements HindemithChordRepositoryPort {
+public class PostgresHindemithChordRepository implements HindemithChordRepositoryPort, AutoCloseable {
 
-    private final String url;
-    private final String user;
-    private final String password;
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private final PostgresConnectionPool pool;
+    private volatile PostgresCopyEncoder.Layout copyLayout;
+    private volatile boolean schemaReady;
 
     private final Logger LOGGER = Logger.getLogger(PostgresHindemithChordRepository.class.getName());
 
     public PostgresHindemithChordRepository(String url, String user, String password) {
-        this.url = url;
-        this.user = user;
-        this.password = password;
+        this(url, user, password, PostgresConnectionPool.Config.DEFAULT_MAX_SIZE);
+    }
+
+    public PostgresHindemithChordRepository(String url, String user, String password, int poolSize) {
+        this(new PostgresConnectionPool(url, user, password, PostgresConnectionPool.Config.ofSize(poolSize)));
+    }
+
+    public PostgresHindemithChordRepository(PostgresConnectionPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool must not be null");
     }
 
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(url, user, password);
+        if (!schemaReady) migrateSchema();
+        return pool.getConnection();
+    }
+
+    /**
+     * Creates or upgrades the chord tables and indexes (see {@link PostgresSchema}) and returns the schema version.
+     * Runs automatically before the first query; call it explicitly to migrate at startup.
+     */
+    public synchronized int migrateSchema() throws SQLException {
+        try (Connection con = pool.getConnection()) {
+            int version = PostgresSchema.migrate(con);
+            schemaReady = true;
+            return version;
+        }
+    }
+
+    /**
+     * Current state of the connection pool (active, idle, wait times).
+     */
+    public PostgresConnectionPool.Metrics poolMetrics() {
+        return pool.metrics();
+    }
+
+    @Override
+    public void close() {
+        pool.close();
     }
 
     @Override
     public long save(HindemithChord chord) {
-        String sql = "INSERT INTO public.hindemithChords (notes, numNotes, minNote, maxNote, rootNote, chordGroup) VALUES (?,?,?,?,?,?) RETURNING id";
+        String sql = "INSERT INTO public.hindemithChords (notes, numNotes, minNote, maxNote, rootNote, chordGroup, pitchClassMask, intervalMask, rootPitchClass) VALUES (?,?,?,?,?,?,?,?,?) RETURNING id";
         List<Integer> notes = chord.getNotes();
         int numNotes = notes.size();
         int min = notes.stream().mapToInt(Integer::intValue).min().orElseThrow();
@@ -53,6 +101,9 @@ public class PostgresHindemithChordRepository implements HindemithChordRepositor
             ps.setInt(4, max);
             ps.setInt(5, root);
             ps.setInt(6, group);
+            ps.setInt(7, chord.getPitchClassMask());
+            ps.setInt(8, chord.getIntervalMask());
+            ps.setInt(9, chord.getRootNotePitchClass());
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -70,7 +121,7 @@ public class PostgresHindemithChordRepository implements HindemithChordRepositor
         Objects.requireNonNull(chords, "chords must not be null");
         if (chords.isEmpty()) return Collections.emptyList();
 
-        String sql = "INSERT INTO public.hindemithChords (notes, numNotes, minNote, maxNote, rootNote, chordGroup) VALUES (?,?,?,?,?,?)";
+        String sql = "INSERT INTO public.hindemithChords (notes, numNotes, minNote, maxNote, rootNote, chordGroup, pitchClassMask, intervalMask, rootPitchClass) VALUES (?,?,?,?,?,?,?,?,?)";
         final int batchSize = 1000;
         List<Long> ids = new ArrayList<>(chords.size());
 
@@ -95,6 +146,9 @@ public class PostgresHindemithChordRepository implements HindemithChordRepositor
                 ps.setInt(4, max);
                 ps.setInt(5, root);
                 ps.setInt(6, group);
+                ps.setInt(7, chord.getPitchClassMask());
+                ps.setInt(8, chord.getIntervalMask());
+                ps.setInt(9, chord.getRootNotePitchClass());
 
                 ps.addBatch();
                 count++;
@@ -125,6 +179,230 @@ public class PostgresHindemithChordRepository implements HindemithChordRepositor
         return ids;
     }
 
+    /**
+     * Writes the batch straight from its primitive arrays: the notes are sent as an int4[] text literal, min/max
+     * are the first/last note of each (ascending) chord, so no boxing or createArrayOf per row.
+     */
+    @Override
+    public long[] saveBatch(ChordBatch batch) {
+        Objects.requireNonNull(batch, "batch must not be null");
+        if (batch.isEmpty()) return new long[0];
+        try (Connection con = getConnection()) {
+            con.setAutoCommit(false);
+            long[] ids = insertBatch(con, batch);
+            con.commit();
+            return ids;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to batch save ChordBatch", e);
+        }
+    }
+
+    private long[] insertBatch(Connection con, ChordBatch batch) throws SQLException {
+        String sql = "INSERT INTO public.hindemithChords (notes, numNotes, minNote, maxNote, rootNote, chordGroup, pitchClassMask, intervalMask, rootPitchClass) VALUES (?::int4[],?,?,?,?,?,?,?,?)";
+        final int batchSize = 1000;
+        long[] ids = new long[batch.size()];
+        int idCount = 0;
+        int numNotes = batch.getNumNotes();
+        int[] notes = batch.notes();
+        int[] roots = batch.rootNotes();
+        byte[] groups = batch.groups();
+        StringBuilder literal = new StringBuilder(numNotes * 4 + 2);
+
+        try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int c = 0; c < batch.size(); c++) {
+                int from = batch.offset(c);
+                literal.setLength(0);
+                literal.append('{');
+                for (int i = 0; i < numNotes; i++) {
+                    if (i > 0) literal.append(',');
+                    literal.append(notes[from + i]);
+                }
+                literal.append('}');
+
+                ps.setString(1, literal.toString());
+                ps.setInt(2, numNotes);
+                ps.setInt(3, notes[from]);
+                ps.setInt(4, notes[from + numNotes - 1]);
+                ps.setInt(5, roots[c]);
+                ps.setInt(6, groups[c]);
+                ps.setInt(7, Chord.pitchClassMask(notes, from, numNotes));
+                ps.setInt(8, Chord.intervalMask(notes, from, numNotes));
+                ps.setInt(9, roots[c] % 12);
+                ps.addBatch();
+
+                if ((c + 1) % batchSize == 0 || c == batch.size() - 1) {
+                    ps.executeBatch();
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        while (rs.next()) {
+                            ids[idCount++] = rs.getLong(1);
+                        }
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public List<Long> saveAll(List<HindemithChord> chords, BulkLoadMode mode) {
+        Objects.requireNonNull(chords, "chords must not be null");
+        if (mode == BulkLoadMode.BATCH_INSERT) return saveAll(chords);
+        if (chords.isEmpty()) return Collections.emptyList();
+        int[] notes = new int[128];
+        long[] ids = copyInTransaction(chords.size(), mode == BulkLoadMode.COPY_BINARY, (encoder, c, id) -> {
+            HindemithChord chord = chords.get(c);
+            int numNotes = chord.getNumNotes();
+            for (int i = 0; i < numNotes; i++) notes[i] = chord.getNote(i);
+            encoder.writeRow(id, notes, 0, numNotes, chord.getRootNote(), chord.getGroup());
+        });
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    @Override
+    public long[] saveBatch(ChordBatch batch, BulkLoadMode mode) {
+        Objects.requireNonNull(batch, "batch must not be null");
+        if (mode == BulkLoadMode.BATCH_INSERT) return saveBatch(batch);
+        if (batch.isEmpty()) return new long[0];
+        return copyInTransaction(batch.size(), mode == BulkLoadMode.COPY_BINARY, batchRows(batch));
+    }
+
+    /**
+     * Writes the batch and a row (loadId, chunk) into the chunk ledger hindemithChordLoadChunks in one
+     * transaction. The ledger's primary key makes the chunk exactly-once: if it is already there (rerun, or a retry
+     * after a commit whose acknowledgement was lost), the transaction is rolled back and false is returned. The key
+     * is stored as {@link ChunkKey#value()} plus its parts, so {@link #truncate(int)} finds the chunks of a size.
+     */
+    @Override
+    public boolean saveChunk(String loadId, ChunkKey chunk, ChordBatch batch, BulkLoadMode mode) {
+        Objects.requireNonNull(loadId, "loadId must not be null");
+        Objects.requireNonNull(chunk, "chunk must not be null");
+        Objects.requireNonNull(batch, "batch must not be null");
+        if (chunk.numNotes() != batch.getNumNotes()) {
+            throw new IllegalArgumentException("Chunk " + chunk + " does not match a batch of " + batch.getNumNotes() + " notes");
+        }
+        String claim = "INSERT INTO public.hindemithChordLoadChunks (loadId, chunk, numNotes, lowestNote, block, numRows) " +
+                "VALUES (?,?,?,?,?,?) ON CONFLICT DO NOTHING";
+        try (Connection con = getConnection()) {
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(claim)) {
+                ps.setString(1, loadId);
+                ps.setLong(2, chunk.value());
+                ps.setInt(3, chunk.numNotes());
+                ps.setInt(4, chunk.lowestNote());
+                ps.setInt(5, chunk.block());
+                ps.setInt(6, batch.size());
+                if (ps.executeUpdate() == 0) {
+                    con.rollback();
+                    return false;
+                }
+            }
+            if (!batch.isEmpty()) {
+                if (mode == BulkLoadMode.BATCH_INSERT) {
+                    insertBatch(con, batch);
+                } else {
+                    copy(con, batch.size(), mode == BulkLoadMode.COPY_BINARY, batchRows(batch));
+                }
+            }
+            con.commit();
+            return true;
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Failed to save chunk " + chunk + " of load " + loadId, e);
+        }
+    }
+
+    private static CopyRowWriter batchRows(ChordBatch batch) {
+        int[] notes = batch.notes();
+        int[] roots = batch.rootNotes();
+        byte[] groups = batch.groups();
+        return (encoder, c, id) ->
+                encoder.writeRow(id, notes, batch.offset(c), batch.getNumNotes(), roots[c], (int) groups[c]);
+    }
+
+    @FunctionalInterface
+    private interface CopyRowWriter {
+        void write(PostgresCopyEncoder encoder, int row, long id) throws IOException;
+    }
+
+    /**
+     * Bulk load via COPY FROM STDIN in one transaction: reserves rows ids from the id sequence first (so the ids
+     * are known without RETURNING and come back in insertion order), then streams the rows through the CopyManager.
+     */
+    private long[] copyInTransaction(int rows, boolean binary, CopyRowWriter writer) {
+        try (Connection con = getConnection()) {
+            con.setAutoCommit(false);
+            long[] ids = copy(con, rows, binary, writer);
+            con.commit();
+            return ids;
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Failed to bulk load HindemithChords via COPY", e);
+        }
+    }
+
+    private long[] copy(Connection con, int rows, boolean binary, CopyRowWriter writer) throws SQLException, IOException {
+        long[] ids = reserveIds(con, rows);
+        PostgresCopyEncoder.Layout layout = binary ? copyLayout(con) : PostgresCopyEncoder.Layout.TEXT;
+        PGCopyOutputStream stream = new PGCopyOutputStream(con.unwrap(PGConnection.class),
+                PostgresCopyEncoder.copySql(binary), COPY_BUFFER_SIZE);
+        try {
+            PostgresCopyEncoder encoder = new PostgresCopyEncoder(stream, binary, layout);
+            encoder.writeHeader();
+            for (int r = 0; r < rows; r++) {
+                writer.write(encoder, r, ids[r]);
+            }
+            encoder.writeTrailer();
+            stream.endCopy();
+        } finally {
+            if (stream.isActive()) stream.cancelCopy();
+        }
+        return ids;
+    }
+
+    // Ids nur aus der Sequenz: seit Migration 6 sichert allein sie die Eindeutigkeit von id (siehe PostgresSchema)
+    private long[] reserveIds(Connection con, int count) throws SQLException {
+        String sql = "SELECT nextval(pg_get_serial_sequence('public.hindemithChords', 'id')) FROM generate_series(1, ?) ORDER BY 1";
+        long[] ids = new long[count];
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, count);
+            try (ResultSet rs = ps.executeQuery()) {
+                int i = 0;
+                while (rs.next()) ids[i++] = rs.getLong(1);
+                if (i != count) throw new SQLException("Reserved " + i + " ids instead of " + count);
+            }
+        }
+        return ids;
+    }
+
+    // Bytebreite der Ganzzahl-Spalten (int2/int4/int8) und Elementtyp der Töne für das binäre COPY-Format, einmal aus dem Katalog gelesen
+    private PostgresCopyEncoder.Layout copyLayout(Connection con) throws SQLException {
+        PostgresCopyEncoder.Layout layout = copyLayout;
+        if (layout != null) return layout;
+        String sql = "SELECT a.attname, t.typlen, t.typelem, e.typlen FROM pg_attribute a JOIN pg_type t ON t.oid = a.atttypid " +
+                "LEFT JOIN pg_type e ON e.oid = t.typelem " +
+                "WHERE a.attrelid = 'public.hindemithChords'::regclass AND a.attnum > 0 AND NOT a.attisdropped";
+        Map<String, Integer> byName = new HashMap<>();
+        int notesElementOid = 0;
+        try (PreparedStatement ps = con.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String column = rs.getString(1).toLowerCase(Locale.ROOT);
+                byName.put(column, rs.getInt(2));
+                if (column.equals("notes")) {
+                    // Der Encoder schreibt die Elemente als 4-Byte-Ganzzahlen
+                    if (rs.getInt(4) != 4) throw new SQLException("Column notes of hindemithChords is not an int4 array");
+                    notesElementOid = rs.getInt(3);
+                }
+            }
+        }
+        int[] widths = new int[PostgresCopyEncoder.COLUMNS.length];
+        for (int i = 0; i < widths.length; i++) {
+            Integer width = byName.get(PostgresCopyEncoder.COLUMNS[i].toLowerCase(Locale.ROOT));
+            if (width == null) throw new SQLException("Column " + PostgresCopyEncoder.COLUMNS[i] + " not found in hindemithChords");
+            widths[i] = width;
+        }
+        layout = new PostgresCopyEncoder.Layout(widths, notesElementOid);
+        copyLayout = layout;
+        return layout;
+    }
+
     @Override
     public Optional<HindemithChord> findById(long id) {
         String sql = "SELECT notes, rootNote, chordGroup FROM public.hindemithChords WHERE id = ?";
@@ -141,83 +419,120 @@ public class PostgresHindemithChordRepository implements HindemithChordRepositor
 
     @Override
     public List<HindemithChord> findAll() {
-        String sql = "SELECT notes, rootNote, chordGroup FROM public.hindemithChords ORDER BY id";
-        return trySql(sql);
+        return find(ChordQuery.ALL);
     }
 
+    /**
+     * Runs the query as one statement compiled by {@link ChordQuerySql}.
+     */
     @Override
-    public List<HindemithChord> getAllOf(Integer group) {
-        String sql = "SELECT notes, rootNote, chordGroup FROM public.hindemithChords WHERE chordGroup = ? ORDER BY id";
-        return trySql(sql, group);
+    public List<HindemithChord> find(ChordQuery query) {
+        Objects.requireNonNull(query, "query must not be null");
+        ChordQuerySql compiled = ChordQuerySql.compile(query, null);
+        try (Connection con = getConnection(); PreparedStatement ps = con.prepareStatement(compiled.sql())) {
+            compiled.bind(con, ps);
+            return executeQuery(ps);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load HindemithChords for " + query, e);
+        }
     }
 
-
-
+    /**
+     * Keyset page: the predicate id > ? together with ORDER BY id LIMIT lets Postgres start an index range scan
+     * right after the last row of the previous page instead of skipping OFFSET rows. One extra row is fetched to
+     * know whether another page follows.
+     */
     @Override
-    public List<HindemithChord> getAllOfRootNote(Integer rootNote){
-        String sql = "SELECT notes, rootNote , chordGroup FROM public.hindemithChords WHERE rootNote = ? ORDER BY id";
-        return trySql(sql, rootNote);
+    public ChordPage page(ChordQuery query, long afterId, int limit) {
+        Objects.requireNonNull(query, "query must not be null");
+        if (limit < 1) throw new IllegalArgumentException("limit must be >= 1, was " + limit);
+        if (query.order() != ChordQuery.Order.ID) throw new IllegalArgumentException("pages are ordered by id, was " + query.order());
+        ChordQuerySql compiled = ChordQuerySql.compile(query.withLimit(limit + 1), afterId);
+
+        try (Connection con = getConnection(); PreparedStatement ps = con.prepareStatement(compiled.sql())) {
+            compiled.bind(con, ps);
+            List<HindemithChord> chords = new ArrayList<>(limit);
+            List<Long> ids = new ArrayList<>(limit);
+            boolean hasMore = false;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (chords.size() == limit) {
+                        hasMore = true;
+                        break;
+                    }
+                    ids.add(rs.getLong("id"));
+                    chords.add(mapRow(rs));
+                }
+            }
+            return new ChordPage(chords, ids, hasMore);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load page of HindemithChords", e);
+        }
     }
 
-    public List<HindemithChord> getAllOfRootNoteAndGroup(Integer rootNote, Integer group){
-        String sql = "SELECT notes, rootNote , chordGroup FROM public.hindemithChords WHERE rootNote = ? AND chordGroup = ? ORDER BY id";
-        return trySql(sql, rootNote, group);
-
+    @Override
+    public Stream<HindemithChord> streamAll(int fetchSize) {
+        return streamQuery(ChordQuery.ALL, fetchSize);
     }
 
-    public List<HindemithChord> getAllOfRootNoteAndMaxGroup(Integer rootNote, Integer group){
-        String sql = "SELECT notes, rootNote , chordGroup FROM public.hindemithChords WHERE rootNote = ? AND chordGroup <= ? ORDER BY id";
-        return trySql(sql, rootNote, group);
+    @Override
+    public Stream<HindemithChord> streamAllOf(Integer group, int fetchSize) {
+        return streamQuery(ChordQuery.ALL.withGroups(List.of(group)), fetchSize);
     }
 
     @Override
-    public List<HindemithChord> findByRootNoteAndGroupsAndNumNotes(int rootNote,
-                                                                   Collection<Integer> groups,
-                                                                   Collection<Integer> numNotes) {
-        Objects.requireNonNull(groups, "groups must not be null");
-        Objects.requireNonNull(numNotes, "numNotes must not be null");
-        if (groups.isEmpty() || numNotes.isEmpty()) {
-            return Collections.emptyList();
-        }
-        String sql = "SELECT notes, rootNote, chordGroup FROM public.hindemithChords " +
-                "WHERE rootNote = ? AND chordGroup = ANY(?) AND numNotes = ANY(?) ORDER BY id";
-        try (Connection con = getConnection(); PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, rootNote);
-            Array groupsArr = con.createArrayOf("int4", groups.toArray(new Integer[0]));
-            Array numNotesArr = con.createArrayOf("int4", numNotes.toArray(new Integer[0]));
-            ps.setArray(2, groupsArr);
-            ps.setArray(3, numNotesArr);
-            return executeQuery(ps);
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to load HindemithChords by rootNote, groups, and numNotes", e);
-        }
+    public Stream<HindemithChord> streamAllOfRootNote(Integer rootNote, int fetchSize) {
+        return streamQuery(ChordQuery.ALL.withRootNote(rootNote), fetchSize);
     }
 
-    @Override
-    public List<HindemithChord> findByRootNoteAndGroupsAndNumNotesAndRange(int rootNote,
-                                                                            Collection<Integer> groups,
-                                                                            Collection<Integer> numNotes,
-                                                                            int range) {
-        Objects.requireNonNull(groups, "groups must not be null");
-        Objects.requireNonNull(numNotes, "numNotes must not be null");
-        if (groups.isEmpty() || numNotes.isEmpty()) {
-            return Collections.emptyList();
-        }
-        String sql = "SELECT notes, rootNote, chordGroup FROM public.hindemithChords " +
-                "WHERE rootNote = ? AND chordGroup = ANY(?) AND numNotes = ANY(?) AND (maxNote - minNote) <= ? ORDER BY id";
-        try (Connection con = getConnection(); PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, rootNote);
-            Array groupsArr = con.createArrayOf("int4", groups.toArray(new Integer[0]));
-            Array numNotesArr = con.createArrayOf("int4", numNotes.toArray(new Integer[0]));
-            ps.setArray(2, groupsArr);
-            ps.setArray(3, numNotesArr);
-            ps.setInt(4, range);
-            return executeQuery(ps);
+    /**
+     * Runs the query with a server-side cursor: the Postgres driver only fetches in portions of fetchSize rows if
+     * autocommit is off and the result set is forward-only. Connection, statement and result set stay open until
+     * the stream is closed; the pool then rolls back the read-only transaction.
+     */
+    private Stream<HindemithChord> streamQuery(ChordQuery query, int fetchSize) {
+        if (fetchSize < 1) throw new IllegalArgumentException("fetchSize must be >= 1, was " + fetchSize);
+        ChordQuerySql compiled = ChordQuerySql.compile(query, null);
+        Connection con = null;
+        PreparedStatement ps = null;
+        try {
+            con = getConnection();
+            con.setAutoCommit(false);
+            ps = con.prepareStatement(compiled.sql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            compiled.bind(con, ps);
+            ResultSet rs = ps.executeQuery();
+            Connection openCon = con;
+            PreparedStatement openPs = ps;
+            Spliterator<HindemithChord> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super HindemithChord> action) {
+                    try {
+                        if (!rs.next()) return false;
+                        action.accept(mapRow(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new RuntimeException("Failed to stream HindemithChords", e);
+                    }
+                }
+            };
+            return StreamSupport.stream(rows, false).onClose(() -> closeQuietly(rs, openPs, openCon));
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to load HindemithChords by rootNote, groups, numNotes and range", e);
+            closeQuietly(null, ps, con);
+            throw new RuntimeException("Failed to open HindemithChord stream", e);
         }
     }
 
+    private void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) continue;
+            try {
+                resource.close();
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Failed to close streaming resource", e);
+            }
+        }
+    }
 
     @Override
     public void deleteById(long id) {
@@ -230,9 +545,13 @@ public class PostgresHindemithChordRepository implements HindemithChordRepositor
         }
     }
 
+    /**
+     * Truncates the chords together with the chunk ledger (one statement, one transaction): otherwise a rerun of
+     * a chunked load would skip all chunks and leave the table empty.
+     */
     @Override
     public void truncate() {
-        String sql = "TRUNCATE TABLE public.hindemithChords RESTART IDENTITY";
+        String sql = "TRUNCATE TABLE public.hindemithChords, public.hindemithChordLoadChunks RESTART IDENTITY";
         try (Connection con = getConnection(); Statement st = con.createStatement()) {
             st.executeUpdate(sql);
         } catch (SQLException e) {
@@ -240,6 +559,41 @@ public class PostgresHindemithChordRepository implements HindemithChordRepositor
         }
     }
 
+    /**
+     * Truncates the chord size's own partition (with its hash partitions and their indexes) instead of deleting row
+     * by row; sizes without a partition of their own are deleted from the default partition. The ledger rows of
+     * the chunks with that size are deleted in the same transaction.
+     */
+    @Override
+    public void truncate(int numNotes) {
+        String partition = PostgresSchema.numNotesPartition(numNotes);
+        try (Connection con = getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                if (partition != null) {
+                    try (Statement st = con.createStatement()) {
+                        st.executeUpdate("TRUNCATE TABLE " + partition);
+                    }
+                } else {
+                    try (PreparedStatement ps = con.prepareStatement("DELETE FROM public.hindemithChords WHERE numNotes = ?")) {
+                        ps.setInt(1, numNotes);
+                        ps.executeUpdate();
+                    }
+                }
+                try (PreparedStatement ps = con.prepareStatement("DELETE FROM public.hindemithChordLoadChunks WHERE numNotes = ?")) {
+                    ps.setInt(1, numNotes);
+                    ps.executeUpdate();
+                }
+                con.commit();
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to truncate hindemithChords with " + numNotes + " notes", e);
+        }
+    }
+
     private HindemithChord mapRow(ResultSet rs) throws SQLException {
         Array arr = rs.getArray("notes");
         Integer[] noteArray = (Integer[]) arr.getArray();
@@ -250,40 +604,6 @@ public class PostgresHindemithChordRepository implements HindemithChordRepositor
     }
 
 
-    // Overloaded SQL helpers: execute a query and map rows to HindemithChord
-    private List<HindemithChord> trySql(String sql) {
-        List<HindemithChord> chords = new ArrayList<>();
-        try (Connection con = getConnection(); PreparedStatement ps = con.prepareStatement(sql)) {
-            chords = executeQuery(ps);
-        } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, "Failed to load HindemithChords", e);
-        }
-        return chords;
-    }
-
-    private List<HindemithChord> trySql(String sql, Integer p1) {
-        List<HindemithChord> chords = new ArrayList<>();
-        try (Connection con = getConnection(); PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, p1);
-            chords = executeQuery(ps);
-        } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, "Failed to load HindemithChords", e);
-        }
-        return chords;
-    }
-
-    private List<HindemithChord> trySql(String sql, Integer p1, Integer p2) {
-        List<HindemithChord> chords = new ArrayList<>();
-        try (Connection con = getConnection(); PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, p1);
-            ps.setInt(2, p2);
-            chords = executeQuery(ps);
-        } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, "Failed to load HindemithChords", e);
-        }
-        return chords;
-    }
-
     private List<HindemithChord> executeQuery(PreparedStatement ps) throws SQLException {
         List<HindemithChord> result = new ArrayList<>();
         try (ResultSet rs = ps.executeQuery()) {
@@ -0,0 +1,212 @@
+package syrincs.c_adapters.postgres;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Versioned schema of the chord tables, applied by {@link #migrate(Connection)}.
+ *
+ * Applied versions are recorded in hindemithSchemaVersion. A migration runs with all its statements in one
+ * transaction under an advisory lock, so concurrent starts of the application migrate exactly once. Migrations are
+ * append-only: never edit a released one, add a new version instead.
+ *
+ * From version 6 on, hindemithChords is partitioned: one list partition per chord size in
+ * {@link #NUM_NOTES_PARTITIONS} (other sizes go to a default partition), each split into
+ * {@link #ROOT_PITCH_CLASS_PARTITIONS} hash partitions on rootPitchClass. A query pinning numNotes and root note
+ * (or root pitch class) touches one leaf partition; a chord size can be truncated on its own.
+ *
+ * A primary key of a partitioned table must contain the partition keys, so from version 6 on the key is
+ * (id, numNotes, rootPitchClass) and the database no longer enforces that id alone is unique. Uniqueness rests on
+ * the identity sequence: every writer takes its ids from it (INSERT by the column default, COPY by reserving ids with
+ * nextval before the copy, see {@link PostgresHindemithChordRepository}), a sequence never hands out a value twice,
+ * and migration 6 moves it past the highest copied id. Rows must therefore never be written with ids chosen by the
+ * caller. A per-row check (trigger or a global unique index) would cost every bulk load a lookup per row and is
+ * deliberately not installed.
+ */
+final class PostgresSchema {
+
+    // Akkordgrößen der Generierung (ChordStructureTable.MIN_NOTES..MAX_NOTES), fest für Migration 6
+    static final List<Integer> NUM_NOTES_PARTITIONS = List.of(3, 4, 5);
+    static final int ROOT_PITCH_CLASS_PARTITIONS = 4;
+
+    /**
+     * @param statements DDL run in order inside one transaction
+     */
+    record Migration(int version, String description, List<String> statements) {
+    }
+
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "chord table", List.of(
+                    "CREATE TABLE IF NOT EXISTS public.hindemithChords (" +
+                            "id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                            "notes int4[] NOT NULL, numNotes smallint NOT NULL, minNote smallint NOT NULL, " +
+                            "maxNote smallint NOT NULL, rootNote smallint NOT NULL, chordGroup smallint)")),
+            new Migration(2, "chunk ledger for idempotent loads", List.of(
+                    "CREATE TABLE IF NOT EXISTS public.hindemithChordLoadChunks (" +
+                            "loadId text NOT NULL, chunk bigint NOT NULL, numRows int NOT NULL, " +
+                            "committedAt timestamptz NOT NULL DEFAULT now(), PRIMARY KEY (loadId, chunk))")),
+            // Gespeicherte generierte Spalten: Filter auf Spannweite und Grundton-Tonklasse werden indexierbar
+            new Migration(3, "generated span and root pitch class", List.of(
+                    "ALTER TABLE public.hindemithChords ADD COLUMN IF NOT EXISTS span smallint " +
+                            "GENERATED ALWAYS AS (maxNote - minNote) STORED",
+                    "ALTER TABLE public.hindemithChords ADD COLUMN IF NOT EXISTS rootPitchClass smallint " +
+                            "GENERATED ALWAYS AS (rootNote % 12) STORED")),
+            new Migration(4, "indexes for the finder predicates", List.of(
+                    "CREATE INDEX IF NOT EXISTS hindemithchords_root_group_numnotes_idx " +
+                            "ON public.hindemithChords (rootNote, chordGroup, numNotes)",
+                    "CREATE INDEX IF NOT EXISTS hindemithchords_group_numnotes_idx " +
+                            "ON public.hindemithChords (chordGroup, numNotes)",
+                    "CREATE INDEX IF NOT EXISTS hindemithchords_root_span_idx " +
+                            "ON public.hindemithChords (rootNote, span)",
+                    "CREATE INDEX IF NOT EXISTS hindemithchords_pitchclass_group_idx " +
+                            "ON public.hindemithChords (rootPitchClass, chordGroup)",
+                    "ANALYZE public.hindemithChords")),
+            // Masken schreibt die Anwendung beim Speichern (Chord.getPitchClassMask/getIntervalMask); hier nur Altbestand
+            new Migration(5, "pitch-class and interval masks", List.of(
+                    "ALTER TABLE public.hindemithChords ADD COLUMN IF NOT EXISTS pitchClassMask smallint",
+                    "ALTER TABLE public.hindemithChords ADD COLUMN IF NOT EXISTS intervalMask smallint",
+                    "UPDATE public.hindemithChords SET " +
+                            "pitchClassMask = (SELECT bit_or(1 << (n % 12)) FROM unnest(notes) n), " +
+                            "intervalMask = coalesce((SELECT bit_or(1 << (abs(a.n - b.n) % 12)) " +
+                            "FROM unnest(notes) WITH ORDINALITY a(n, i) " +
+                            "JOIN unnest(notes) WITH ORDINALITY b(n, j) ON a.i < b.j), 0) " +
+                            "WHERE pitchClassMask IS NULL",
+                    "ALTER TABLE public.hindemithChords ALTER COLUMN pitchClassMask SET NOT NULL",
+                    "ALTER TABLE public.hindemithChords ALTER COLUMN intervalMask SET NOT NULL",
+                    "CREATE INDEX IF NOT EXISTS hindemithchords_pitchclassmask_idx " +
+                            "ON public.hindemithChords (pitchClassMask)",
+                    "CREATE INDEX IF NOT EXISTS hindemithchords_intervalmask_idx " +
+                            "ON public.hindemithChords (intervalMask)",
+                    "ANALYZE public.hindemithChords")),
+            new Migration(6, "partitions by numNotes and root pitch class", partitionedLayout()),
+            // Chunk-Nummern bis hier waren Zählerstände der Auslieferung, für neue Läufe bedeutungslos: verwerfen
+            new Migration(7, "deterministic chunk keys in the ledger", List.of(
+                    "DELETE FROM public.hindemithChordLoadChunks",
+                    "ALTER TABLE public.hindemithChordLoadChunks ADD COLUMN numNotes smallint NOT NULL, " +
+                            "ADD COLUMN lowestNote smallint NOT NULL, ADD COLUMN block int NOT NULL",
+                    "CREATE INDEX hindemithchordloadchunks_numnotes_idx ON public.hindemithChordLoadChunks (numNotes)"))
+    );
+
+    // Schlüssel für pg_advisory_xact_lock, beliebig aber fest
+    private static final long LOCK_KEY = 0x53797269_6E637301L;
+
+    private static final Logger LOGGER = Logger.getLogger(PostgresSchema.class.getName());
+
+    private PostgresSchema() {
+    }
+
+    /**
+     * The partition holding all chords with numNotes notes, or null if they share the default partition.
+     */
+    static String numNotesPartition(int numNotes) {
+        return NUM_NOTES_PARTITIONS.contains(numNotes) ? "public.hindemithChords_n" + numNotes : null;
+    }
+
+    /**
+     * Rebuilds hindemithChords as a partitioned table and moves all rows over (one INSERT ... SELECT, so on a large
+     * table plan for the migration to take a while). rootPitchClass becomes a plain column written on save, because
+     * generated columns can not be partition keys; the primary key has to contain the partition keys (ids stay unique
+     * through the identity sequence, see the class comment).
+     */
+    private static List<String> partitionedLayout() {
+        List<String> sql = new ArrayList<>();
+        sql.add("CREATE TABLE public.hindemithChords_partitioned (" +
+                "id bigint GENERATED BY DEFAULT AS IDENTITY, " +
+                "notes int4[] NOT NULL, numNotes smallint NOT NULL, minNote smallint NOT NULL, " +
+                "maxNote smallint NOT NULL, rootNote smallint NOT NULL, chordGroup smallint, " +
+                "span smallint GENERATED ALWAYS AS (maxNote - minNote) STORED, " +
+                "rootPitchClass smallint NOT NULL, pitchClassMask smallint NOT NULL, intervalMask smallint NOT NULL, " +
+                "PRIMARY KEY (id, numNotes, rootPitchClass)) PARTITION BY LIST (numNotes)");
+        for (int numNotes : NUM_NOTES_PARTITIONS) {
+            sql.addAll(hashPartitioned("hindemithChords_n" + numNotes, "FOR VALUES IN (" + numNotes + ")"));
+        }
+        sql.addAll(hashPartitioned("hindemithChords_nother", "DEFAULT"));
+        sql.add("INSERT INTO public.hindemithChords_partitioned (id, notes, numNotes, minNote, maxNote, rootNote, " +
+                "chordGroup, rootPitchClass, pitchClassMask, intervalMask) " +
+                "SELECT id, notes, numNotes, minNote, maxNote, rootNote, chordGroup, rootNote % 12, pitchClassMask, " +
+                "intervalMask FROM public.hindemithChords");
+        sql.add("DROP TABLE public.hindemithChords");
+        sql.add("ALTER TABLE public.hindemithChords_partitioned RENAME TO hindemithChords");
+        sql.add("SELECT setval(pg_get_serial_sequence('public.hindemithChords', 'id'), " +
+                "coalesce((SELECT max(id) FROM public.hindemithChords), 0) + 1, false)");
+        // Indizes auf der Elterntabelle werden auf jeder Partition angelegt
+        sql.add("CREATE INDEX hindemithchords_root_group_numnotes_idx ON public.hindemithChords (rootNote, chordGroup, numNotes)");
+        sql.add("CREATE INDEX hindemithchords_group_numnotes_idx ON public.hindemithChords (chordGroup, numNotes)");
+        sql.add("CREATE INDEX hindemithchords_root_span_idx ON public.hindemithChords (rootNote, span)");
+        sql.add("CREATE INDEX hindemithchords_pitchclass_group_idx ON public.hindemithChords (rootPitchClass, chordGroup)");
+        sql.add("CREATE INDEX hindemithchords_pitchclassmask_idx ON public.hindemithChords (pitchClassMask)");
+        sql.add("CREATE INDEX hindemithchords_intervalmask_idx ON public.hindemithChords (intervalMask)");
+        sql.add("ANALYZE public.hindemithChords");
+        return sql;
+    }
+
+    private static List<String> hashPartitioned(String name, String bounds) {
+        List<String> sql = new ArrayList<>();
+        sql.add("CREATE TABLE public." + name + " PARTITION OF public.hindemithChords_partitioned " + bounds +
+                " PARTITION BY HASH (rootPitchClass)");
+        for (int r = 0; r < ROOT_PITCH_CLASS_PARTITIONS; r++) {
+            sql.add("CREATE TABLE public." + name + "_h" + r + " PARTITION OF public." + name +
+                    " FOR VALUES WITH (MODULUS " + ROOT_PITCH_CLASS_PARTITIONS + ", REMAINDER " + r + ")");
+        }
+        return sql;
+    }
+
+    static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    /**
+     * Applies all pending migrations and returns the schema version afterwards. Leaves the connection in
+     * autocommit mode.
+     */
+    static int migrate(Connection con) throws SQLException {
+        con.setAutoCommit(false);
+        try {
+            try (PreparedStatement ps = con.prepareStatement("SELECT pg_advisory_xact_lock(?)")) {
+                ps.setLong(1, LOCK_KEY);
+                ps.execute();
+            }
+            try (Statement st = con.createStatement()) {
+                st.executeUpdate("CREATE TABLE IF NOT EXISTS public.hindemithSchemaVersion (" +
+                        "version int PRIMARY KEY, description text NOT NULL, " +
+                        "appliedAt timestamptz NOT NULL DEFAULT now())");
+            }
+            int current = currentVersion(con);
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version() <= current) continue;
+                try (Statement st = con.createStatement()) {
+                    for (String sql : migration.statements()) st.execute(sql);
+                }
+                try (PreparedStatement ps = con.prepareStatement(
+                        "INSERT INTO public.hindemithSchemaVersion (version, description) VALUES (?,?)")) {
+                    ps.setInt(1, migration.version());
+                    ps.setString(2, migration.description());
+                    ps.executeUpdate();
+                }
+                LOGGER.info("Applied schema migration " + migration.version() + ": " + migration.description());
+                current = migration.version();
+            }
+            con.commit();
+            return current;
+        } catch (SQLException | RuntimeException e) {
+            con.rollback();
+            throw e;
+        } finally {
+            con.setAutoCommit(true);
+        }
+    }
+
+    private static int currentVersion(Connection con) throws SQLException {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT coalesce(max(version), 0) FROM public.hindemithSchemaVersion")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
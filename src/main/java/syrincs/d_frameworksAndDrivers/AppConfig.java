@@ -18,13 +18,22 @@ public final class AppConfig {
         public final String url;
         public final String user;
         public final String password;
+        /** Maximum number of pooled connections. */
+        public final int poolSize;
         public DbConfig(String url, String user, String password) {
+            this(url, user, password, DEFAULT_POOL_SIZE);
+        }
+        public DbConfig(String url, String user, String password, int poolSize) {
             this.url = Objects.requireNonNull(url, "url");
             this.user = Objects.requireNonNull(user, "user");
             this.password = Objects.requireNonNull(password, "password");
+            if (poolSize < 1) throw new IllegalArgumentException("DB pool size must be >= 1, was " + poolSize);
+            this.poolSize = poolSize;
         }
     }
 
+    public static final int DEFAULT_POOL_SIZE = 10;
+
     private static String envOr(String key, String def) {
         String v = System.getenv(key);
         return (v == null || v.isBlank()) ? def : v;
@@ -32,8 +41,8 @@ public final class AppConfig {
 
     /**
      * Resolve DB configuration from, in order of precedence:
-     * 1) CLI flags: --db-url=, --db-user=, --db-pass=
-     * 2) Environment variables: HINDEMITH_DB_URL, HINDEMITH_DB_USER, HINDEMITH_DB_PASSWORD
+     * 1) CLI flags: --db-url=, --db-user=, --db-pass=, --db-pool-size=
+     * 2) Environment variables: HINDEMITH_DB_URL, HINDEMITH_DB_USER, HINDEMITH_DB_PASSWORD, HINDEMITH_DB_POOL_SIZE
      * 3) Safe defaults
      *
      * Additionally:
@@ -42,19 +51,21 @@ public final class AppConfig {
      * - Fail fast if the user resolves to a disallowed value (e.g., "philipp").
      */
     public static DbConfig loadDbConfig(String[] args) {
-        String cliUrl = null, cliUser = null, cliPass = null;
+        String cliUrl = null, cliUser = null, cliPass = null, cliPoolSize = null;
         if (args != null) {
             for (String a : args) {
                 if (a == null) continue;
                 if (a.startsWith("--db-url="))  cliUrl  = a.substring("--db-url=".length());
                 else if (a.startsWith("--db-user=")) cliUser = a.substring("--db-user=".length());
                 else if (a.startsWith("--db-pass=")) cliPass = a.substring("--db-pass=".length());
+                else if (a.startsWith("--db-pool-size=")) cliPoolSize = a.substring("--db-pool-size=".length());
             }
         }
 
         String url  = (cliUrl  != null && !cliUrl.isBlank())  ? cliUrl  : envOr("HINDEMITH_DB_URL",  "jdbc:postgresql://localhost:5432/hindemith");
         String user = (cliUser != null && !cliUser.isBlank()) ? cliUser : envOr("HINDEMITH_DB_USER", "syrincs");
         String pass = (cliPass != null && !cliPass.isBlank()) ? cliPass : envOr("HINDEMITH_DB_PASSWORD", "syrincs");
+        String poolSize = (cliPoolSize != null && !cliPoolSize.isBlank()) ? cliPoolSize : envOr("HINDEMITH_DB_POOL_SIZE", String.valueOf(DEFAULT_POOL_SIZE));
 
         if (user == null || user.isBlank()) {
             throw new IllegalStateException("DB user is blank after resolution. Set HINDEMITH_DB_USER or --db-user.");
@@ -63,6 +74,10 @@ public final class AppConfig {
         if ("philipp".equalsIgnoreCase(user)) {
             throw new IllegalStateException("Refusing to run with DB user 'philipp'. Set HINDEMITH_DB_USER or --db-user.");
         }
-        return new DbConfig(url, user, pass);
+        try {
+            return new DbConfig(url, user, pass, Integer.parseInt(poolSize.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid DB pool size '" + poolSize + "'. Set HINDEMITH_DB_POOL_SIZE or --db-pool-size.", e);
+        }
     }
 }
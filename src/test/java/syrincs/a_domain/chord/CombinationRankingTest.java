@@ -0,0 +1,54 @@
+package syrincs.a_domain.chord;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CombinationRankingTest {
+
+    @Test
+    @DisplayName("rank/unrank: bijektiv und in der Reihenfolge der Enumeration")
+    void rankAndUnrank_followEnumerationOrder() {
+        for (int k = 1; k <= 5; k++) {
+            CombinationRanking ranking = new CombinationRanking(k, 60, 75);
+            List<List<Integer>> all = new NoteCombinator()
+                    .streamChords(k, 60, 75, List.of(), new EnumerationStats())
+                    .toList();
+            assertEquals(all.size(), ranking.size(), "k=" + k);
+            for (int i = 0; i < all.size(); i++) {
+                assertEquals(i, ranking.rank(all.get(i)));
+                assertEquals(all.get(i), ranking.unrank(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("unrank: letzter Rang der ganzen Klavier-Range ohne Enumeration")
+    void unrank_fullPianoRange() {
+        CombinationRanking ranking = new CombinationRanking(5, 21, 108);
+        assertEquals(39_175_752L, ranking.size());
+        assertEquals(List.of(104, 105, 106, 107, 108), ranking.unrank(ranking.size() - 1));
+        assertEquals(ranking.size() - 1, ranking.rank(List.of(104, 105, 106, 107, 108)));
+    }
+
+    @Test
+    @DisplayName("sampleChords: liefert nur zulässige, verschiedene Akkorde in lexikografischer Reihenfolge")
+    void sampleChords_respectsConstraints() {
+        NoteCombinator combinator = new NoteCombinator();
+        List<ChordConstraint> constraints = NoteCombinator.defaultConstraints(1);
+        List<List<Integer>> sample = combinator.sampleChords(4, 21, 108, constraints, 200, new Random(42));
+        assertEquals(200, sample.size());
+        assertEquals(200, sample.stream().distinct().count());
+        CombinationRanking ranking = new CombinationRanking(4, 21, 108);
+        for (int i = 0; i < sample.size(); i++) {
+            List<Integer> chord = sample.get(i);
+            assertTrue(chord.getLast() - chord.getFirst() <= 12, chord::toString);
+            assertEquals(4, chord.stream().map(n -> n % 12).distinct().count(), chord::toString);
+            if (i > 0) assertTrue(ranking.rank(sample.get(i - 1)) < ranking.rank(chord));
+        }
+    }
+}
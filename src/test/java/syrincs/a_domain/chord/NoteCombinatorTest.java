@@ -0,0 +1,72 @@
+package syrincs.a_domain.chord;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NoteCombinatorTest {
+
+    private final NoteCombinator combinator = new NoteCombinator();
+
+    @Test
+    @DisplayName("streamChords: liefert dieselben Akkorde in derselben Reihenfolge wie generateChords")
+    void streamChords_matchesGenerateChords() {
+        for (int k = 3; k <= 5; k++) {
+            List<List<Integer>> expected = combinator.keepWidthLessThanOctaves(combinator.generateChords(k, 48, 72), 1);
+            List<List<Integer>> streamed = combinator.streamChords(k, 48, 72, 1).toList();
+            assertEquals(expected, streamed, "k=" + k);
+        }
+    }
+
+    @Test
+    @DisplayName("streamChords: leerer Stream, wenn die Range zu klein ist")
+    void streamChords_emptyForTooSmallRange() {
+        assertEquals(0, combinator.streamChords(4, 60, 62).count());
+        assertEquals(0, combinator.streamChords(3, 62, 60).count());
+    }
+
+    @Test
+    @DisplayName("streamChords: ist lazy und kann über die ganze Klavier-Range begrenzt konsumiert werden")
+    void streamChords_isLazy() {
+        List<List<Integer>> firstTwo = combinator.streamChords(5, 21, 108).limit(2).toList();
+        assertEquals(List.of(List.of(21, 22, 23, 24, 25), List.of(21, 22, 23, 24, 26)), firstTwo);
+    }
+
+    @Test
+    @DisplayName("streamChords mit Constraints: Pruning besucht weniger Kandidaten und liefert dieselben Akkorde")
+    void streamChords_withConstraints_prunesSubtrees() {
+        EnumerationStats stats = new EnumerationStats();
+        List<ChordConstraint> constraints = List.of(ChordConstraint.maxSpan(12), ChordConstraint.uniquePitchClasses(),
+                ChordConstraint.excludeIntervals(Set.of(1, 2, 6, 10, 11)));
+        List<List<Integer>> pruned = combinator.streamChords(3, 48, 72, constraints, stats).toList();
+
+        List<List<Integer>> expected = combinator.streamChords(3, 48, 72, 1)
+                .filter(c -> c.stream().allMatch(a -> c.stream().filter(b -> b > a)
+                        .noneMatch(b -> Set.of(1, 2, 6, 10, 11).contains((b - a) % 12))))
+                .toList();
+        assertEquals(expected, pruned);
+        assertEquals(pruned.size(), stats.getEmitted());
+        assertTrue(stats.getVisited() > stats.getEmitted());
+    }
+
+    @Test
+    @DisplayName("streamBatches: flache Batches enthalten dieselben Akkorde in derselben Reihenfolge wie streamChords")
+    void streamBatches_matchesStreamChords() {
+        for (int k = 3; k <= 5; k++) {
+            List<List<Integer>> expected = combinator.streamChords(k, 48, 72, 1).toList();
+            List<List<Integer>> batched = combinator.streamBatches(k, 48, 72, NoteCombinator.defaultConstraints(1), 100, new EnumerationStats())
+                    .flatMap(b -> {
+                        assertTrue(b.size() <= 100);
+                        return IntStream.range(0, b.size()).mapToObj(c ->
+                                IntStream.range(0, b.getNumNotes()).mapToObj(i -> b.note(c, i)).toList());
+                    })
+                    .toList();
+            assertEquals(expected, batched, "k=" + k);
+        }
+    }
+}
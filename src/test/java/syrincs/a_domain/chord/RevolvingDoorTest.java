@@ -0,0 +1,80 @@
+package syrincs.a_domain.chord;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevolvingDoorTest {
+
+    @Test
+    @DisplayName("RevolvingDoor: jede Kombination genau einmal, pro Schritt wird genau ein Element getauscht")
+    void visitsEveryCombinationOnceWithSingleSwaps() {
+        for (int n = 1; n <= 10; n++) {
+            for (int t = 1; t <= Math.min(n, 5); t++) {
+                RevolvingDoor door = new RevolvingDoor(n, t);
+                Set<List<Integer>> seen = new HashSet<>();
+                List<Integer> previous = current(door, t);
+                seen.add(previous);
+                while (door.next()) {
+                    List<Integer> combination = current(door, t);
+                    for (int i = 1; i < t; i++) assertTrue(combination.get(i - 1) < combination.get(i), combination::toString);
+                    assertTrue(combination.get(t - 1) < n);
+
+                    Set<Integer> left = new HashSet<>(previous);
+                    left.removeAll(combination);
+                    Set<Integer> entered = new HashSet<>(combination);
+                    entered.removeAll(previous);
+                    assertEquals(Set.of(door.removed()), left, "n=" + n + " t=" + t);
+                    assertEquals(Set.of(door.added()), entered, "n=" + n + " t=" + t);
+
+                    assertTrue(seen.add(combination), "duplicate " + combination);
+                    previous = combination;
+                }
+                assertEquals(CombinationRanking.binomial(n, t), seen.size(), "n=" + n + " t=" + t);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("forEachRevolvingDoor: je tiefstem Ton dieselben Akkorde wie streamChords")
+    void forEachRevolvingDoor_matchesStreamChords() {
+        NoteCombinator combinator = new NoteCombinator();
+        List<ChordConstraint> constraints = NoteCombinator.defaultConstraints(1);
+        for (int k = 3; k <= 5; k++) {
+            Set<List<Integer>> expected = new HashSet<>(combinator.streamChords(k, 48, 72, constraints, new EnumerationStats()).toList());
+            List<List<Integer>> visited = new ArrayList<>();
+            for (int bass = 48; bass <= 72; bass++) {
+                combinator.forEachRevolvingDoor(k, bass, 72, constraints, new EnumerationStats(), new RevolvingDoorVisitor() {
+                    @Override
+                    public void reset(int[] notes, int k) {
+                    }
+
+                    @Override
+                    public void swap(int removedNote, int addedNote) {
+                    }
+
+                    @Override
+                    public void visit(int[] notes, int k) {
+                        List<Integer> chord = new ArrayList<>();
+                        for (int i = 0; i < k; i++) chord.add(notes[i]);
+                        visited.add(chord);
+                    }
+                });
+            }
+            assertEquals(expected.size(), visited.size(), "k=" + k);
+            assertEquals(expected, new HashSet<>(visited), "k=" + k);
+        }
+    }
+
+    private static List<Integer> current(RevolvingDoor door, int t) {
+        List<Integer> combination = new ArrayList<>(t);
+        for (int i = 0; i < t; i++) combination.add(door.get(i));
+        return combination;
+    }
+}
@@ -0,0 +1,53 @@
+package syrincs.a_domain.hindemith;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.EnumerationStats;
+import syrincs.a_domain.chord.NoteCombinator;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitmaskChordRulesTest {
+
+    private final ChordAnalysis reference = new ChordAnalysis(null);
+    private final ChordAnalysis bitmask = new ChordAnalysis(null, BitmaskChordRules.shared());
+
+    @Test
+    @DisplayName("Bitmasken-Engine: identische Ergebnisse wie die Regel-Auswertung, auch mit doppelten Tonklassen")
+    void bitmaskEngine_matchesReference() {
+        NoteCombinator combinator = new NoteCombinator();
+        for (int k = 3; k <= 5; k++) {
+            // Ohne Constraints: auch Oktavverdopplungen und weite Lagen
+            List<List<Integer>> chords = combinator.streamChords(k, 48, 74, List.of(), new EnumerationStats()).toList();
+            for (List<Integer> notes : chords) {
+                assertSameResult(notes);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Bitmasken-Engine: Grenzfälle mit Primen und unsortierter Eingabe")
+    void bitmaskEngine_edgeCases() {
+        assertSameResult(List.of(60, 60, 64, 67));
+        assertSameResult(List.of(67, 60, 64));
+        assertSameResult(List.of(21, 54, 108));
+    }
+
+    private void assertSameResult(List<Integer> notes) {
+        ChordAnalysis.Result expected;
+        try {
+            expected = reference.analyze(notes);
+        } catch (IllegalStateException noGroup) {
+            assertThrows(IllegalStateException.class, () -> bitmask.analyze(notes), notes::toString);
+            return;
+        }
+        ChordAnalysis.Result actual = bitmask.analyze(notes);
+        assertEquals(expected.column, actual.column, notes::toString);
+        assertEquals(expected.rootNote, actual.rootNote, notes::toString);
+        assertEquals(expected.group, actual.group, notes::toString);
+        assertEquals(expected.frameInterval, actual.frameInterval, notes::toString);
+        assertEquals(expected.notes, actual.notes, notes::toString);
+    }
+}
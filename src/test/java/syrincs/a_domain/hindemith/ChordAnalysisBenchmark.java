@@ -0,0 +1,60 @@
+package syrincs.a_domain.hindemith;
+
+import syrincs.a_domain.chord.NoteCombinator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Benchmark: time per chord of the reference rule evaluation ({@code new ChordAnalysis(null)}) and the bitmask
+ * engine ({@code new ChordAnalysis(null, BitmaskChordRules.shared())}) on the same chords, both through
+ * {@link ChordAnalysis#analyze}. Not a test; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=syrincs.a_domain.hindemith.ChordAnalysisBenchmark -Dexec.args="48 72"}.
+ */
+public final class ChordAnalysisBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(ChordAnalysisBenchmark.class.getName());
+
+    private ChordAnalysisBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int min = args.length > 1 ? Integer.parseInt(args[0]) : 48;
+        int max = args.length > 1 ? Integer.parseInt(args[1]) : 72;
+        NoteCombinator combinator = new NoteCombinator();
+        List<List<Integer>> chords = new ArrayList<>();
+        for (int k = 3; k <= 5; k++) {
+            combinator.streamChords(k, min, max, 2)
+                    .forEach(chords::add);
+        }
+        ChordAnalysis reference = new ChordAnalysis(null);
+        ChordAnalysis bitmask = new ChordAnalysis(null, BitmaskChordRules.shared());
+
+        for (List<Integer> notes : chords) {
+            ChordAnalysis.Result expected = reference.analyze(notes);
+            ChordAnalysis.Result actual = bitmask.analyze(notes);
+            if (expected.group != actual.group || expected.rootNote != actual.rootNote) {
+                throw new IllegalStateException("Bitmask engine differs from the reference for " + notes);
+            }
+        }
+
+        for (int round = 0; round < 5; round++) {
+            double referenceMicros = microsPerChord(reference, chords);
+            double bitmaskMicros = microsPerChord(bitmask, chords);
+            LOGGER.info(String.format("round %d: %d chords, reference %.2f µs/chord, bitmask %.2f µs/chord (x%.1f)",
+                    round, chords.size(), referenceMicros, bitmaskMicros, referenceMicros / bitmaskMicros));
+        }
+    }
+
+    private static double microsPerChord(ChordAnalysis analysis, List<List<Integer>> chords) {
+        long groups = 0;
+        long start = System.nanoTime();
+        for (List<Integer> notes : chords) groups += analysis.analyze(notes).group;
+        double micros = (System.nanoTime() - start) / 1e3 / chords.size();
+        // Summe verwenden, damit der JIT die Analyse nicht wegoptimiert
+        if (groups < 0) throw new IllegalStateException();
+        return micros;
+    }
+}
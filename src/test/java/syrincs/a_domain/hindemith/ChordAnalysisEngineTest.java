@@ -0,0 +1,33 @@
+package syrincs.a_domain.hindemith;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.ChordBatch;
+import syrincs.a_domain.chord.NoteCombinator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Läuft ohne und (Profil "vector") mit jdk.incubator.vector
+class ChordAnalysisEngineTest {
+
+    @Test
+    @DisplayName("vectorizedOrScalar: ohne jdk.incubator.vector die skalare Engine, mit Modul die Vektor-Engine; gleiche Ergebnisse")
+    void vectorizedOrScalar_fallsBackWithoutModule() {
+        ChordAnalysisEngine engine = ChordAnalysisEngine.vectorizedOrScalar();
+        boolean module = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        if (module) {
+            assertEquals("VectorChordRules", engine.getClass().getSimpleName());
+        } else {
+            assertSame(BitmaskChordRules.shared(), engine);
+        }
+
+        ChordBatch batch = new ChordBatch(4, 100);
+        new NoteCombinator().streamChords(4, 48, 72, 2).limit(100)
+                .forEach(notes -> batch.add(notes.stream().mapToInt(Integer::intValue).toArray(), 0));
+        int[] expected = new int[batch.size()];
+        int[] actual = new int[batch.size()];
+        BitmaskChordRules.shared().classifyBatch(batch, expected);
+        engine.classifyBatch(batch, actual);
+        assertArrayEquals(expected, actual);
+    }
+}
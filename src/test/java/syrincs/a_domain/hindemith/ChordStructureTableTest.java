@@ -0,0 +1,59 @@
+package syrincs.a_domain.hindemith;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.NoteCombinator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChordStructureTableTest {
+
+    private final ChordAnalysis fullAnalysis = new ChordAnalysis(null);
+
+    @Test
+    @DisplayName("Ressource: ausgelieferte Tabelle entspricht einer frisch aus den Regeln gebauten Tabelle")
+    void shippedTable_matchesRules() throws IOException {
+        ChordStructureTable shipped = ChordStructureTable.shared();
+        assertNotNull(shipped, "resource " + ChordStructureTable.RESOURCE + " must be on the classpath");
+        assertArrayEquals(bytes(ChordStructureTable.build(fullAnalysis)), bytes(shipped),
+                "chord-structures.bin is stale, regenerate it with ChordStructureTable.main");
+    }
+
+    @Test
+    @DisplayName("analyze: Tabellen-Lookup liefert dasselbe wie die volle Analyse, auch transponiert")
+    void lookup_matchesFullAnalysis() {
+        ChordAnalysis tableAnalysis = new ChordAnalysis(ChordStructureTable.shared());
+        NoteCombinator combinator = new NoteCombinator();
+        for (int k = 3; k <= 5; k++) {
+            List<List<Integer>> chords = combinator.streamChords(k, 40, 70, 3).toList();
+            for (List<Integer> notes : chords) {
+                ChordAnalysis.Result expected = fullAnalysis.analyze(notes);
+                ChordAnalysis.Result actual = tableAnalysis.analyze(notes);
+                assertEquals(expected.column, actual.column, notes::toString);
+                assertEquals(expected.rootNote, actual.rootNote, notes::toString);
+                assertEquals(expected.group, actual.group, notes::toString);
+                assertEquals(expected.frameInterval, actual.frameInterval, notes::toString);
+                assertEquals(expected.notes, actual.notes, notes::toString);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("lookup: nicht abgedeckte Akkorde (zu weit, zu viele Töne) liefern null")
+    void lookup_uncoveredChords() {
+        ChordStructureTable table = ChordStructureTable.shared();
+        assertNull(table.lookup(List.of(20, 60, 70)));
+        assertNull(table.lookup(List.of(60, 62, 64, 65, 67, 69)));
+        assertNotNull(table.lookup(List.of(60, 64, 67)));
+    }
+
+    private static byte[] bytes(ChordStructureTable table) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        table.writeTo(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+package syrincs.a_domain.hindemith;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.EnumerationStats;
+import syrincs.a_domain.chord.NoteCombinator;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionTreeChordRulesTest {
+
+    @Test
+    @DisplayName("Entscheidungsbaum: dieselbe Gruppe und derselbe Grundton wie die Bitmasken-Engine (first match)")
+    void decisionTree_matchesBitmaskEngine() {
+        BitmaskChordRules linear = BitmaskChordRules.shared();
+        DecisionTreeChordRules tree = DecisionTreeChordRules.compile(linear);
+        NoteCombinator combinator = new NoteCombinator();
+        for (int k = 3; k <= 5; k++) {
+            List<List<Integer>> chords = combinator.streamChords(k, 48, 76, List.of(), new EnumerationStats()).toList();
+            for (List<Integer> notes : chords) {
+                int[] buf = notes.stream().mapToInt(Integer::intValue).toArray();
+                assertEquals(linear.classify(buf, 0, k), tree.classify(buf, 0, k), notes::toString);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Entscheidungsbaum: dieselben Ergebnisse wie die Regel-Auswertung mit ChordRules, auch ohne Gruppe")
+    void decisionTree_matchesChordRules() {
+        ChordAnalysis reference = new ChordAnalysis(null);
+        ChordAnalysis tree = new ChordAnalysis(null, DecisionTreeChordRules.shared());
+        NoteCombinator combinator = new NoteCombinator();
+        for (int k = 3; k <= 5; k++) {
+            // Ohne Constraints: auch Oktavverdopplungen und weite Lagen
+            List<List<Integer>> chords = combinator.streamChords(k, 48, 72, List.of(), new EnumerationStats()).toList();
+            for (List<Integer> notes : chords) {
+                ChordAnalysis.Result expected;
+                try {
+                    expected = reference.analyze(notes);
+                } catch (IllegalStateException noGroup) {
+                    assertThrows(IllegalStateException.class, () -> tree.analyze(notes), notes::toString);
+                    continue;
+                }
+                ChordAnalysis.Result actual = tree.analyze(notes);
+                assertEquals(expected.column, actual.column, notes::toString);
+                assertEquals(expected.rootNote, actual.rootNote, notes::toString);
+                assertEquals(expected.group, actual.group, notes::toString);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Zähler: nur mit counting, der gemeinsame Baum zählt nicht")
+    void counters_onlyWhenCounting() {
+        DecisionTreeChordRules shared = DecisionTreeChordRules.shared();
+        assertFalse(shared.isCounting());
+        assertThrows(IllegalStateException.class, shared::getClassifiedChords);
+        assertThrows(IllegalStateException.class, shared::report);
+        assertFalse(DecisionTreeChordRules.compile(BitmaskChordRules.shared()).isCounting());
+    }
+
+    @Test
+    @DisplayName("Zähler: Knoten zählen Auswertungen und Treffer, die Blätter zusammen alle Akkorde")
+    void counters_areExposed() {
+        DecisionTreeChordRules tree = DecisionTreeChordRules.compile(BitmaskChordRules.shared(), List.of(), true);
+        ChordAnalysis analysis = new ChordAnalysis(null, tree);
+        List<List<Integer>> chords = new NoteCombinator().streamChords(4, 48, 72, 2).toList();
+        chords.forEach(analysis::analyze);
+
+        assertEquals(chords.size(), tree.getClassifiedChords());
+        List<DecisionTreeChordRules.NodeStats> stats = tree.getNodeStats();
+        assertEquals(chords.size(), stats.getFirst().evaluations(), "root is evaluated for every chord");
+        long leafHits = stats.stream().filter(s -> s.evaluations() == 0).mapToLong(DecisionTreeChordRules.NodeStats::hits).sum();
+        assertEquals(chords.size(), leafHits);
+        assertTrue(tree.getAveragePredicateEvaluations() > 0);
+
+        tree.resetCounters();
+        assertEquals(0, tree.getClassifiedChords());
+    }
+}
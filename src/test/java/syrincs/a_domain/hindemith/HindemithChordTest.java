@@ -0,0 +1,66 @@
+package syrincs.a_domain.hindemith;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.Chord;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HindemithChordTest {
+
+    @Test
+    @DisplayName("HindemithChord: Töne, Grundton, Gruppe und berechnete Intervall-Sichten")
+    void views_areComputedFromPackedNotes() {
+        HindemithChord chord = new HindemithChord(List.of(60, 64, 67, 72), 60, 1);
+        assertEquals(List.of(60, 64, 67, 72), chord.getNotes());
+        assertEquals(4, chord.getNumNotes());
+        assertEquals(60, chord.getRootNote());
+        assertEquals(0, chord.getRootNotePitchClass());
+        assertEquals(1, chord.getGroup());
+        assertEquals(12, chord.getFrameInterval());
+        assertEquals(6, chord.getAllIntervals().size());
+        assertEquals(List.of(4, 7, 0), chord.getRootIntervals().stream().map(HindemithInterval::getDifferenceWithoutOctavations).toList());
+        assertThrows(UnsupportedOperationException.class, () -> chord.getNotes().set(0, 61));
+
+        HindemithChord up = chord.transpose(2);
+        assertEquals(List.of(62, 66, 69, 74), up.getNotes());
+        assertEquals(62, up.getRootNote());
+        assertNull(new HindemithChord(List.of(60, 64, 67), 60, null).getGroup());
+    }
+
+    @Test
+    @DisplayName("HindemithChord: 12-Bit-Masken der Tonklassen und Intervalle, gleich für Objekt und Array")
+    void pitchClassAndIntervalMasks() {
+        HindemithChord chord = new HindemithChord(List.of(59, 65, 72), 65, 4); // h f c: Tritonus, kleine Sekunde
+        assertEquals(1 << 11 | 1 << 5 | 1, chord.getPitchClassMask());
+        assertEquals(1 << 6 | 1 << 7 | 1 << 1, chord.getIntervalMask()); // 6, 13 → 1, 7
+        assertEquals(chord.getPitchClassMask(), Chord.pitchClassMask(new int[]{0, 59, 65, 72}, 1, 3));
+        assertEquals(chord.getIntervalMask(), Chord.intervalMask(new int[]{0, 59, 65, 72}, 1, 3));
+        assertEquals(1, new HindemithChord(List.of(48, 60), 48, 1).getIntervalMask()); // Oktave → Bit 0
+    }
+
+    @Test
+    @DisplayName("HindemithChord: Speicherlayout nur aus primitiven Feldern und dem byte[] der Töne (keine Listen, kein Boxing)")
+    void footprint_onlyPrimitiveFields() throws ReflectiveOperationException {
+        Map<String, Class<?>> fields = new TreeMap<>();
+        for (Class<?> c = HindemithChord.class; c != Object.class; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(f.getModifiers())) fields.put(c.getSimpleName() + "." + f.getName(), f.getType());
+            }
+        }
+        assertEquals(Map.of("Chord.notes", byte[].class, "HindemithChord.rootNote", byte.class,
+                "HindemithChord.group", byte.class), fields);
+
+        // Ein Byte pro Ton, nichts vorab berechnet
+        Field notes = Chord.class.getDeclaredField("notes");
+        notes.setAccessible(true);
+        HindemithChord chord = new HindemithChord(List.of(48, 52, 55, 58, 62), 48, 3);
+        assertEquals(5, ((byte[]) notes.get(chord)).length);
+    }
+}
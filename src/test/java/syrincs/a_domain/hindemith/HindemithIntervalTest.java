@@ -0,0 +1,42 @@
+package syrincs.a_domain.hindemith;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HindemithIntervalTest {
+
+    @Test
+    @DisplayName("HindemithInterval.of: geteilte Instanzen mit vorberechneter Qualität und Grundton")
+    void of_returnsInternedInstances() {
+        HindemithInterval fifth = HindemithInterval.of(60, 67);
+        assertSame(fifth, HindemithInterval.of(60, 67));
+        assertEquals(0, fifth.getQuality());
+        assertEquals(60, fifth.getRootNote());
+
+        HindemithInterval fourth = HindemithInterval.of(60, 65);
+        assertEquals(1, fourth.getQuality());
+        assertEquals(65, fourth.getRootNote());
+
+        HindemithInterval tritone = HindemithInterval.of(66, 60);
+        assertEquals(60, tritone.getLowNote());
+        assertEquals(66, tritone.getHighNote());
+        assertEquals(10, tritone.getQuality());
+        assertEquals(-1, HindemithInterval.of(60, 72).getQuality());
+    }
+
+    @Test
+    @DisplayName("HindemithInterval.of: Tabelle ist threadsicher über parallele Streams nutzbar")
+    void of_isSharedAcrossThreads() {
+        List<HindemithInterval> parallel = IntStream.range(0, 128 * 128).parallel()
+                .mapToObj(i -> HindemithInterval.of(i / 128, i % 128))
+                .toList();
+        for (int i = 0; i < parallel.size(); i++) {
+            assertSame(HindemithInterval.of(i / 128, i % 128), parallel.get(i));
+        }
+    }
+}
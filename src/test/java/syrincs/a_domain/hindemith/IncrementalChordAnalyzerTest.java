@@ -0,0 +1,55 @@
+package syrincs.a_domain.hindemith;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.EnumerationStats;
+import syrincs.a_domain.chord.NoteCombinator;
+import syrincs.a_domain.chord.RevolvingDoorVisitor;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalChordAnalyzerTest {
+
+    @Test
+    @DisplayName("Inkrementelle Analyse: nach jedem Tausch dasselbe Ergebnis wie die Bitmasken-Engine, auch mit Oktaven")
+    void incrementalAnalysis_matchesBitmaskEngine() {
+        BitmaskChordRules rules = BitmaskChordRules.shared();
+        NoteCombinator combinator = new NoteCombinator();
+        for (int k = 3; k <= 5; k++) {
+            IncrementalChordAnalyzer analyzer = new IncrementalChordAnalyzer(rules, k);
+            int[] checked = new int[1];
+            for (int bass = 40; bass <= 52; bass++) {
+                // Ohne Constraints: Oktaven und Primen im ersten Tonpaar prüfen die Sonderfälle der Grundtonsuche
+                combinator.forEachRevolvingDoor(k, bass, 70, List.of(), new EnumerationStats(), new RevolvingDoorVisitor() {
+                    @Override
+                    public void reset(int[] notes, int k) {
+                        analyzer.reset(notes, k);
+                    }
+
+                    @Override
+                    public void swap(int removedNote, int addedNote) {
+                        analyzer.swap(removedNote, addedNote);
+                    }
+
+                    @Override
+                    public void visit(int[] notes, int k) {
+                        assertEquals(rules.classify(notes, 0, k), analyzer.classify(), () -> Arrays.toString(Arrays.copyOf(notes, k)));
+                        checked[0]++;
+                    }
+                });
+            }
+            assertTrue(checked[0] > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Inkrementelle Analyse: remove eines fremden Tons wird abgelehnt")
+    void remove_unknownNote_throws() {
+        IncrementalChordAnalyzer analyzer = new IncrementalChordAnalyzer(BitmaskChordRules.shared(), 3);
+        analyzer.reset(new int[]{60, 64, 67}, 3);
+        assertThrows(IllegalArgumentException.class, () -> analyzer.remove(61));
+    }
+}
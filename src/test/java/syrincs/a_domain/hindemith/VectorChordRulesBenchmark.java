@@ -0,0 +1,61 @@
+package syrincs.a_domain.hindemith;
+
+import syrincs.a_domain.chord.ChordBatch;
+import syrincs.a_domain.chord.EnumerationStats;
+import syrincs.a_domain.chord.NoteCombinator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Benchmark: chords per second of the scalar and the vector engine on the same batches. Not a test; run with
+ * {@code mvn -Pvector test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=syrincs.a_domain.hindemith.VectorChordRulesBenchmark -Dexec.args="36 84"}
+ * (MAVEN_OPTS="--add-modules jdk.incubator.vector").
+ */
+public final class VectorChordRulesBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(VectorChordRulesBenchmark.class.getName());
+
+    private VectorChordRulesBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int min = args.length > 1 ? Integer.parseInt(args[0]) : 36;
+        int max = args.length > 1 ? Integer.parseInt(args[1]) : 84;
+        NoteCombinator combinator = new NoteCombinator();
+        List<ChordBatch> batches = new ArrayList<>();
+        for (int k = 3; k <= 5; k++) {
+            combinator.streamBatches(k, min, max, NoteCombinator.defaultConstraints(3), 1000, new EnumerationStats())
+                    .forEach(batches::add);
+        }
+        long chords = batches.stream().mapToLong(ChordBatch::size).sum();
+        ChordAnalysisEngine scalar = BitmaskChordRules.shared();
+        ChordAnalysisEngine vector = VectorChordRules.shared();
+
+        int[] expected = new int[1000];
+        int[] actual = new int[1000];
+        for (ChordBatch batch : batches) {
+            scalar.classifyBatch(batch, expected);
+            vector.classifyBatch(batch, actual);
+            if (!Arrays.equals(expected, 0, batch.size(), actual, 0, batch.size())) {
+                throw new IllegalStateException("Vector engine differs from scalar engine in " + batch);
+            }
+        }
+
+        for (int round = 0; round < 5; round++) {
+            double scalarRate = chordsPerSecond(scalar, batches, chords, expected);
+            double vectorRate = chordsPerSecond(vector, batches, chords, actual);
+            LOGGER.info(String.format("round %d: %d chords, scalar %.0f chords/s, vector %.0f chords/s (%d lanes, x%.2f)",
+                    round, chords, scalarRate, vectorRate, VectorChordRules.lanes(), vectorRate / scalarRate));
+        }
+    }
+
+    private static double chordsPerSecond(ChordAnalysisEngine engine, List<ChordBatch> batches, long chords, int[] packed) {
+        long start = System.nanoTime();
+        for (ChordBatch batch : batches) engine.classifyBatch(batch, packed);
+        return chords / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,52 @@
+package syrincs.a_domain.hindemith;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.ChordBatch;
+import syrincs.a_domain.chord.EnumerationStats;
+import syrincs.a_domain.chord.NoteCombinator;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorChordRulesTest {
+
+    @Test
+    @DisplayName("Vektor-Engine: identische Ergebnisse wie die skalare Bitmasken-Engine, auch mit doppelten Tonklassen")
+    void vectorEngine_matchesScalar() {
+        NoteCombinator combinator = new NoteCombinator();
+        BitmaskChordRules scalar = BitmaskChordRules.shared();
+        VectorChordRules vector = VectorChordRules.shared();
+        for (int k = 3; k <= 5; k++) {
+            // Batchgröße absichtlich kein Vielfaches der Lane-Anzahl, damit der skalare Rest mitgetestet wird
+            List<ChordBatch> batches = combinator.streamBatches(k, 21, 60, List.of(), 997, new EnumerationStats()).toList();
+            for (ChordBatch batch : batches) {
+                int[] expected = new int[batch.size()];
+                int[] actual = new int[batch.size()];
+                scalar.classifyBatch(batch, expected);
+                vector.classifyBatch(batch, actual);
+                assertArrayEquals(expected, actual, "k=" + k + " " + batch);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("vectorizedOrScalar: mit jdk.incubator.vector die Vektor-Engine, analyzeBatch liefert dieselben Gruppen")
+    void vectorizedOrScalar_usesVectorEngineWhenModulePresent() {
+        assertInstanceOf(VectorChordRules.class, ChordAnalysisEngine.vectorizedOrScalar());
+
+        ChordBatch viaVector = new ChordBatch(4, 64);
+        ChordBatch viaScalar = new ChordBatch(4, 64);
+        new NoteCombinator().streamChords(4, 60, 72).limit(64).forEach(notes -> {
+            int[] n = notes.stream().mapToInt(Integer::intValue).toArray();
+            viaVector.add(n, 0);
+            viaScalar.add(n, 0);
+        });
+        new ChordAnalysis(null, ChordAnalysisEngine.vectorizedOrScalar()).analyzeBatch(viaVector);
+        new ChordAnalysis(null, BitmaskChordRules.shared()).analyzeBatch(viaScalar);
+        assertArrayEquals(viaScalar.rootNotes(), viaVector.rootNotes());
+        assertTrue(Arrays.equals(viaScalar.groups(), viaVector.groups()));
+    }
+}
@@ -0,0 +1,109 @@
+package syrincs.b_application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.Chord;
+import syrincs.a_domain.chord.NoteCombinator;
+import syrincs.a_domain.hindemith.BitmaskChordRules;
+import syrincs.a_domain.hindemith.ChordAnalysis;
+import syrincs.a_domain.hindemith.ChordRules;
+import syrincs.a_domain.hindemith.ChordSpecification;
+import syrincs.a_domain.hindemith.ChordSpecificationRepository;
+import syrincs.a_domain.hindemith.ChordStructureTable;
+import syrincs.a_domain.hindemith.HindemithChord;
+import syrincs.a_domain.hindemith.HindemithInterval;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditChordRulesUseCaseTest {
+
+    private static final ChordAnalysis REFERENCE = new ChordAnalysis(null);
+    private static final Map<Integer, ChordSpecification> SPECS = new ChordSpecificationRepository().getGroupSpecifications();
+
+    @Test
+    @DisplayName("audit: Zählung je Gruppe entspricht der Analyse (erste passende Spezifikation), parallel wie sequentiell")
+    void audit_firstMatchCountsMatchAnalysis() {
+        AuditChordRulesUseCase audit = new AuditChordRulesUseCase(new NoteCombinator(), BitmaskChordRules.shared());
+        GenerateChordsUseCase generate = new GenerateChordsUseCase(new NoteCombinator(), new ChordAnalysis(), 2);
+
+        AuditChordRulesUseCase.Report sequential = audit.audit(4, 48, 72, 2, 3, 1);
+        AuditChordRulesUseCase.Report parallel = audit.audit(4, 48, 72, 2, 3, 4);
+
+        Map<Integer, Long> expected = generate.stream(4, 48, 72)
+                .collect(Collectors.groupingBy(HindemithChord::getGroup, Collectors.counting()));
+        assertEquals(expected, sequential.firstMatchCounts());
+        assertEquals(0, sequential.noMatch().count());
+        assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(), sequential.chords());
+
+        assertEquals(sequential.firstMatchCounts(), parallel.firstMatchCounts());
+        assertEquals(sequential.overlaps(), parallel.overlaps());
+    }
+
+    @Test
+    @DisplayName("audit: Überschneidungen stimmen mit der Referenz überein, jeder Akkord genau einmal gezählt")
+    void audit_overlapsMatchReference() {
+        AuditChordRulesUseCase.Report report = new AuditChordRulesUseCase(new NoteCombinator(), BitmaskChordRules.shared())
+                .audit(3, 48, 72, 2, 2, 2);
+        Map<List<Integer>, Long> expected = new NoteCombinator().streamChords(3, 48, 72, 2)
+                .map(AuditChordRulesUseCaseTest::referenceGroups)
+                .filter(groups -> groups.size() >= 2)
+                .collect(Collectors.groupingBy(groups -> groups, Collectors.counting()));
+        Map<List<Integer>, Long> actual = new HashMap<>();
+        for (AuditChordRulesUseCase.Category category : report.overlaps()) {
+            actual.put(category.groups(), category.count());
+            assertTrue(category.examples().size() <= 2);
+            for (List<Integer> notes : category.examples()) {
+                assertEquals(category.groups(), referenceGroups(notes), notes::toString);
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("matchingGroups: jede der 18 Spezifikationen einzeln wie ChordRules, auch wenn eine frühere Gruppe schon passt")
+    void matchingGroups_everySpecificationMatchesChordRules() {
+        BitmaskChordRules rules = BitmaskChordRules.shared();
+        int[] laterMatches = new int[ChordStructureTable.MAX_NOTES + 1];
+        for (int k = 3; k <= 4; k++) {
+            for (List<Integer> notes : new NoteCombinator().streamChords(k, 48, 66, 2).toList()) {
+                int[] n = notes.stream().mapToInt(Integer::intValue).toArray();
+                int mask = rules.matchingGroups(n, 0, n.length);
+                List<Integer> expected = referenceGroups(notes);
+                for (int g = 1; g <= SPECS.size(); g++) {
+                    assertEquals(expected.contains(g), (mask & (1 << g)) != 0, "group " + g + " " + notes);
+                }
+                if (expected.size() >= 2) laterMatches[k]++;
+            }
+        }
+        assertEquals(18, SPECS.size());
+        // Sonst prüfte der Test nur erste Treffer, die schon die Analyse abdeckt
+        assertTrue(laterMatches[3] > 0 && laterMatches[4] > 0);
+    }
+
+    // Alle Gruppen (1-basiert), deren Spezifikation nach der Referenzauswertung von ChordRules passt
+    private static List<Integer> referenceGroups(List<Integer> notes) {
+        List<HindemithInterval> intervals = new Chord(notes).getAllIntervals().stream()
+                .map(i -> HindemithInterval.of(i.getLowNote(), i.getHighNote()))
+                .toList();
+        List<HindemithInterval> rootNoteIntervals = intervals.subList(0, notes.size() - 1);
+        List<HindemithInterval> pcIntervals = REFERENCE.calculateAllIntervalsOfPitchClasses(notes);
+        int root = REFERENCE.analyze(notes).rootNote;
+        List<Integer> groups = new ArrayList<>();
+        for (int s = 0; s < SPECS.size(); s++) {
+            ChordSpecification spec = SPECS.get(s);
+            if (ChordRules.matchesIntervalsOnly(intervals, rootNoteIntervals, pcIntervals, spec)
+                    && ChordRules.rootRelation(notes.getFirst(), root, spec.getRootNoteEqual())
+                    && ChordRules.columnRequirement(pcIntervals, spec.getColumnRequirement())) {
+                groups.add(s + 1);
+            }
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,159 @@
+package syrincs.b_application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.ChordBatch;
+import syrincs.a_domain.chord.NoteCombinator;
+import syrincs.a_domain.hindemith.ChordAnalysis;
+import syrincs.a_domain.hindemith.HindemithChord;
+import syrincs.b_application.ports.BulkLoadMode;
+import syrincs.b_application.ports.ChunkKey;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedChordWriterTest {
+
+    private static final ChunkedChordWriter.Options FAST = new ChunkedChordWriter.Options(4, 3, Duration.ofMillis(1));
+
+    // 20 Chunks mit je 3 Akkorden, deterministisch
+    private static final Consumer<BiConsumer<ChunkKey, ChordBatch>> PRODUCER = sink -> {
+        for (int chunk = 0; chunk < 20; chunk++) {
+            ChordBatch batch = new ChordBatch(3, 3);
+            for (int i = 0; i < 3; i++) batch.add(new int[]{40 + chunk, 44 + chunk + i, 50 + chunk}, 0, 40 + chunk, 1);
+            sink.accept(new ChunkKey(3, 40 + chunk, 0), batch);
+        }
+    };
+
+    @Test
+    @DisplayName("Chunked-Writer: fehlgeschlagene Chunks werden wiederholt, jeder Chunk genau einmal geschrieben")
+    void retriesFailedChunks() {
+        Set<ChunkKey> failedOnce = ConcurrentHashMap.newKeySet();
+        FakeHindemithChordRepository repo = new FakeHindemithChordRepository() {
+            @Override
+            public synchronized boolean saveChunk(String loadId, ChunkKey chunk, ChordBatch batch, BulkLoadMode mode) {
+                if ((chunk.lowestNote() - 40) % 3 == 0 && failedOnce.add(chunk)) throw new IllegalStateException("connection reset");
+                return super.saveChunk(loadId, chunk, batch, mode);
+            }
+        };
+        List<ChunkedChordWriter.Progress> progress = new ArrayList<>();
+        ChunkedChordWriter writer = new ChunkedChordWriter(repo, FAST, p -> {
+            synchronized (progress) {
+                progress.add(p);
+            }
+        });
+
+        ChunkedChordWriter.Result result = writer.write("load", BulkLoadMode.BATCH_INSERT, PRODUCER);
+
+        assertEquals(20, result.chunks());
+        assertEquals(20, result.chunksWritten());
+        assertEquals(60, result.rowsWritten());
+        assertEquals(7, result.retries());
+        assertEquals(60, repo.findAll().size());
+        assertEquals(20, progress.size());
+        assertEquals(60, progress.stream().mapToLong(ChunkedChordWriter.Progress::rowsWritten).max().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Chunked-Writer: nach Abbruch schreibt ein erneuter Lauf nur die fehlenden Chunks (idempotent)")
+    void rerunAfterFailureIsIdempotent() {
+        FakeHindemithChordRepository repo = new FakeHindemithChordRepository();
+        FakeHindemithChordRepository crashing = new FakeHindemithChordRepository() {
+            @Override
+            public synchronized boolean saveChunk(String loadId, ChunkKey chunk, ChordBatch batch, BulkLoadMode mode) {
+                if (chunk.lowestNote() == 52) throw new IllegalStateException("disk full");
+                return repo.saveChunk(loadId, chunk, batch, mode);
+            }
+        };
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new ChunkedChordWriter(crashing, FAST, null).write("load", BulkLoadMode.COPY_BINARY, PRODUCER));
+        assertTrue(e.getMessage().contains("Chunk 3/52/0"), e.getMessage());
+        int committed = repo.committedChunkCount();
+        assertTrue(committed < 20);
+
+        ChunkedChordWriter.Result rerun = new ChunkedChordWriter(repo, FAST, null).write("load", BulkLoadMode.COPY_BINARY, PRODUCER);
+        assertEquals(committed, rerun.chunksSkipped());
+        assertEquals(20 - committed, rerun.chunksWritten());
+        assertEquals(60, repo.findAll().size());
+
+        ChunkedChordWriter.Result again = new ChunkedChordWriter(repo, FAST, null).write("load", BulkLoadMode.COPY_BINARY, PRODUCER);
+        assertEquals(20, again.chunksSkipped());
+        assertEquals(0, again.rowsWritten());
+        assertEquals(60, repo.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Chunked-Load: Parallelität 1 und 4 schreiben dieselben Chunks, Abbruch bei 1 und Neustart mit 4 ohne Duplikate und Lücken")
+    void keyedChunksDoNotDependOnParallelism() {
+        GenerateChordsUseCase uc = new GenerateChordsUseCase(new NoteCombinator(), new ChordAnalysis(), 1);
+        List<String> expected = rows(uc.streamAllChordsToFiveNotes(48, 62).toList());
+        ChordGenerationOptions sequential = new ChordGenerationOptions(1, true, List.of());
+        ChordGenerationOptions parallel = new ChordGenerationOptions(4, false, List.of());
+
+        FakeHindemithChordRepository one = new FakeHindemithChordRepository();
+        Set<ChunkKey> keysOne = ConcurrentHashMap.newKeySet();
+        new ChunkedChordWriter(one, FAST, p -> keysOne.add(p.chunk()))
+                .write("load", BulkLoadMode.BATCH_INSERT, sink -> uc.generateKeyedBatches(48, 62, sequential, 7, sink));
+        FakeHindemithChordRepository four = new FakeHindemithChordRepository();
+        Set<ChunkKey> keysFour = ConcurrentHashMap.newKeySet();
+        new ChunkedChordWriter(four, FAST, p -> keysFour.add(p.chunk()))
+                .write("load", BulkLoadMode.BATCH_INSERT, sink -> uc.generateKeyedBatches(48, 62, parallel, 7, sink));
+        assertEquals(new TreeSet<>(keysOne), new TreeSet<>(keysFour));
+        assertEquals(expected, rows(one.findAll()));
+        assertEquals(expected, rows(four.findAll()));
+
+        // Abbruch mitten im sequentiellen Lauf, Neustart parallel
+        FakeHindemithChordRepository repo = new FakeHindemithChordRepository();
+        FakeHindemithChordRepository crashing = new FakeHindemithChordRepository() {
+            @Override
+            public synchronized boolean saveChunk(String loadId, ChunkKey chunk, ChordBatch batch, BulkLoadMode mode) {
+                if (chunk.numNotes() == 4 && chunk.lowestNote() == 52) throw new IllegalStateException("disk full");
+                return repo.saveChunk(loadId, chunk, batch, mode);
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> new ChunkedChordWriter(crashing, FAST, null)
+                .write("load", BulkLoadMode.BATCH_INSERT, sink -> uc.generateKeyedBatches(48, 62, sequential, 7, sink)));
+        ChunkedChordWriter.Result rerun = new ChunkedChordWriter(repo, FAST, null)
+                .write("load", BulkLoadMode.BATCH_INSERT, sink -> uc.generateKeyedBatches(48, 62, parallel, 7, sink));
+        assertTrue(rerun.chunksSkipped() > 0);
+        assertEquals(keysOne.size(), rerun.chunks());
+        assertEquals(expected, rows(repo.findAll()));
+    }
+
+    @Test
+    @DisplayName("Chunked-Load: nach Löschen (einer Größe oder aller Akkorde) schreibt ein erneuter Lauf die gelöschten Chunks wieder")
+    void rerunAfterDeleteRewritesDeletedChunks() {
+        FakeHindemithChordRepository repo = new FakeHindemithChordRepository();
+        UseCaseInteractor interactor = new UseCaseInteractor(null, repo);
+        ChordGenerationOptions options = new ChordGenerationOptions(2, true, List.of());
+        ChunkedChordWriter.Result first = interactor.calculateAndPersistChunked(48, 60, options, BulkLoadMode.BATCH_INSERT, FAST, null);
+        List<String> expected = rows(repo.findAll());
+        long fourNotes = repo.findAll().stream().filter(c -> c.getNumNotes() == 4).count();
+        assertEquals(first.rowsWritten(), expected.size());
+
+        interactor.deleteHindemithChords(4);
+        ChunkedChordWriter.Result afterSize = interactor.calculateAndPersistChunked(48, 60, options, BulkLoadMode.BATCH_INSERT, FAST, null);
+        assertEquals(fourNotes, afterSize.rowsWritten());
+        assertEquals(expected, rows(repo.findAll()));
+
+        interactor.deleteHindemithChords();
+        assertEquals(0, repo.committedChunkCount());
+        ChunkedChordWriter.Result afterAll = interactor.calculateAndPersistChunked(48, 60, options, BulkLoadMode.BATCH_INSERT, FAST, null);
+        assertEquals(first.chunks(), afterAll.chunksWritten());
+        assertEquals(expected, rows(repo.findAll()));
+    }
+
+    // Zeilen als sortierte Liste: gleiche Liste heißt keine Duplikate und keine Lücken gegenüber der Erwartung
+    private static List<String> rows(List<HindemithChord> chords) {
+        return chords.stream().map(c -> c.getNotes() + "/" + c.getRootNote() + "/" + c.getGroup()).sorted().toList();
+    }
+}
@@ -1,6 +1,11 @@
 package syrincs.b_application;
 
+import syrincs.a_domain.chord.ChordBatch;
 import syrincs.a_domain.hindemith.HindemithChord;
+import syrincs.b_application.ports.BulkLoadMode;
+import syrincs.b_application.ports.ChordPage;
+import syrincs.b_application.ports.ChordQuery;
+import syrincs.b_application.ports.ChunkKey;
 import syrincs.b_application.ports.HindemithChordRepositoryPort;
 
 import java.util.*;
@@ -8,11 +13,15 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
- * Simple in-memory fake for tests. Not thread-safe and minimal.
+ * Simple in-memory fake for tests. Not thread-safe (except saveChunk) and minimal.
  */
 class FakeHindemithChordRepository implements HindemithChordRepositoryPort {
     private final Map<Long, HindemithChord> store = new LinkedHashMap<>();
     private final AtomicLong seq = new AtomicLong(1);
+    private final Set<LedgerEntry> committedChunks = new HashSet<>();
+
+    private record LedgerEntry(String loadId, ChunkKey chunk) {
+    }
 
     @Override
     public long save(HindemithChord chord) {
@@ -30,95 +39,67 @@ class FakeHindemithChordRepository implements HindemithChordRepositoryPort {
         return ids;
     }
 
+    // Einziger thread-sicherer Schreibpfad: der Chunk-Writer ruft ihn von mehreren Threads auf
     @Override
-    public void truncate() {
-        store.clear();
-        seq.set(1);
+    public synchronized boolean saveChunk(String loadId, ChunkKey chunk, ChordBatch batch, BulkLoadMode mode) {
+        if (!committedChunks.add(new LedgerEntry(loadId, chunk))) return false;
+        saveBatch(batch);
+        return true;
     }
 
-    @Override
-    public Optional<HindemithChord> findById(long id) {
-        return Optional.ofNullable(store.get(id));
+    synchronized int committedChunkCount() {
+        return committedChunks.size();
     }
 
     @Override
-    public List<HindemithChord> findAll() {
-        return new ArrayList<>(store.values());
-    }
-
-    @Override
-    public void deleteById(long id) {
-        store.remove(id);
+    public ChordPage page(ChordQuery query, long afterId, int limit) {
+        List<HindemithChord> chords = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for (Map.Entry<Long, HindemithChord> e : store.entrySet()) {
+            if (e.getKey() <= afterId || !query.matches(e.getValue())) continue;
+            if (chords.size() == limit) return new ChordPage(chords, ids, true);
+            ids.add(e.getKey());
+            chords.add(e.getValue());
+        }
+        return new ChordPage(chords, ids, false);
     }
 
+    // In-memory-Auswertung der ChordQuery: filtern in id-Reihenfolge, stabil sortieren, begrenzen
     @Override
-    public List<HindemithChord> getAllOf(Integer group) {
-        return store.values().stream()
-                .filter(c -> c.getGroup() != null && Objects.equals(c.getGroup(), group))
+    public List<HindemithChord> find(ChordQuery query) {
+        List<HindemithChord> result = store.values().stream()
+                .filter(query::matches)
+                .sorted(query.comparator())
                 .collect(Collectors.toList());
+        return query.limit() == null ? result : new ArrayList<>(result.subList(0, Math.min(query.limit(), result.size())));
     }
 
     @Override
-    public List<HindemithChord> getAllOfRootNote(Integer rootNote) {
-        return store.values().stream()
-                .filter(c -> c.getRootNote() != null && Objects.equals(c.getRootNote(), rootNote))
-                .collect(Collectors.toList());
+    public synchronized void truncate() {
+        store.clear();
+        committedChunks.clear();
+        seq.set(1);
     }
 
     @Override
-    public List<HindemithChord> getAllOfRootNoteAndGroup(Integer rootNote, Integer group) {
-        return store.values().stream()
-                .filter(c -> c.getRootNote() != null && Objects.equals(c.getRootNote(), rootNote))
-                .filter(c -> c.getGroup() != null && Objects.equals(c.getGroup(), group))
-                .collect(Collectors.toList());
+    public synchronized void truncate(int numNotes) {
+        store.values().removeIf(c -> c.getNumNotes() == numNotes);
+        committedChunks.removeIf(e -> e.chunk().numNotes() == numNotes);
     }
 
     @Override
-    public List<HindemithChord> getAllOfRootNoteAndMaxGroup(Integer rootNote, Integer maxGroup) {
-        return store.values().stream()
-                .filter(c -> c.getRootNote() != null && Objects.equals(c.getRootNote(), rootNote))
-                .filter(c -> c.getGroup() != null && c.getGroup() <= maxGroup)
-                .collect(Collectors.toList());
+    public Optional<HindemithChord> findById(long id) {
+        return Optional.ofNullable(store.get(id));
     }
 
     @Override
-    public List<HindemithChord> findByRootNoteAndGroupsAndNumNotes(int rootNote,
-                                                                    Collection<Integer> groups,
-                                                                    Collection<Integer> numNotes) {
-        if (groups == null || numNotes == null || groups.isEmpty() || numNotes.isEmpty()) {
-            return Collections.emptyList();
-        }
-        Set<Integer> groupSet = new HashSet<>(groups);
-        Set<Integer> sizeSet = new HashSet<>(numNotes);
-        return store.values().stream()
-                .filter(c -> c.getRootNote() != null && c.getRootNote() == rootNote)
-                .filter(c -> c.getGroup() != null && groupSet.contains(c.getGroup()))
-                .filter(c -> c.getNotes() != null && sizeSet.contains(c.getNotes().size()))
-                .collect(Collectors.toList());
+    public List<HindemithChord> findAll() {
+        return new ArrayList<>(store.values());
     }
 
     @Override
-    public List<HindemithChord> findByRootNoteAndGroupsAndNumNotesAndRange(int rootNote,
-                                                                            Collection<Integer> groups,
-                                                                            Collection<Integer> numNotes,
-                                                                            int range) {
-        if (groups == null || numNotes == null || groups.isEmpty() || numNotes.isEmpty()) {
-            return Collections.emptyList();
-        }
-        Set<Integer> groupSet = new HashSet<>(groups);
-        Set<Integer> sizeSet = new HashSet<>(numNotes);
-        return store.values().stream()
-                .filter(c -> c.getRootNote() != null && c.getRootNote() == rootNote)
-                .filter(c -> c.getGroup() != null && groupSet.contains(c.getGroup()))
-                .filter(c -> c.getNotes() != null && sizeSet.contains(c.getNotes().size()))
-                .filter(c -> {
-                    List<Integer> notes = c.getNotes();
-                    if (notes == null || notes.isEmpty()) return false;
-                    int min = notes.stream().mapToInt(Integer::intValue).min().orElse(Integer.MAX_VALUE);
-                    int max = notes.stream().mapToInt(Integer::intValue).max().orElse(Integer.MIN_VALUE);
-                    return (max - min) <= range;
-                })
-                .collect(Collectors.toList());
+    public void deleteById(long id) {
+        store.remove(id);
     }
 
     // Test helpers
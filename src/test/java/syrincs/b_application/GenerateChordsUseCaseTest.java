@@ -4,8 +4,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import syrincs.a_domain.hindemith.ChordAnalysis;
 import syrincs.a_domain.hindemith.HindemithChord;
+import syrincs.a_domain.chord.ChordBatch;
 import syrincs.a_domain.chord.NoteCombinator;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -14,6 +18,7 @@ class GenerateChordsUseCaseTest {
 
     @Test
     @DisplayName("generateChordsForThreeNotes: kleiner Bereich 60..62 erzeugt genau 1 Dreiklang")
+    @SuppressWarnings("deprecation")
     void generateThreeNotes_smallRange_singleChord() {
         GenerateChordsUseCase uc = new GenerateChordsUseCase(new NoteCombinator(), new ChordAnalysis(), 2);
         List<HindemithChord> chords = uc.generateChordsForThreeNotes(60, 62);
@@ -23,4 +28,111 @@ class GenerateChordsUseCaseTest {
         assertTrue(chords.getFirst().getNotes().containsAll(List.of(60,61,62)));
     }
 
+    @Test
+    @DisplayName("generate parallel: ordered liefert dieselben Akkorde in derselben Reihenfolge wie generate")
+    void generate_parallelOrdered_matchesSequential() {
+        GenerateChordsUseCase uc = new GenerateChordsUseCase(new NoteCombinator(), new ChordAnalysis(), 1);
+        List<HindemithChord> sequential = uc.stream(4, 48, 72).toList();
+        List<HindemithChord> parallel = uc.generate(4, 48, 72, new ChordGenerationOptions(4, true, List.of()));
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getNotes(), parallel.get(i).getNotes());
+            assertEquals(sequential.get(i).getRootNote(), parallel.get(i).getRootNote());
+            assertEquals(sequential.get(i).getGroup(), parallel.get(i).getGroup());
+        }
+    }
+
+    @Test
+    @DisplayName("generate mit Gruppen: Pruning liefert genau die Akkorde der Gruppe wie die ungefilterte Generierung")
+    void generate_groupTargeted_matchesFilteredFullGeneration() {
+        GenerateChordsUseCase uc = new GenerateChordsUseCase(new NoteCombinator(), new ChordAnalysis(), 1);
+        for (int group : List.of(1, 7, 13)) {
+            List<List<Integer>> expected = uc.stream(4, 48, 72)
+                    .filter(c -> c.getGroup() == group)
+                    .map(HindemithChord::getNotes)
+                    .toList();
+            List<List<Integer>> targeted = uc.generate(4, 48, 72, new ChordGenerationOptions(1, true, List.of(group))).stream()
+                    .map(HindemithChord::getNotes)
+                    .toList();
+            assertEquals(expected, targeted, "group=" + group);
+        }
+    }
+
+    @Test
+    @DisplayName("generateBatches: Batch-Pipeline liefert dieselben Akkorde, Grundtöne und Gruppen wie generate")
+    void generateBatches_matchesGenerate() {
+        GenerateChordsUseCase uc = new GenerateChordsUseCase(new NoteCombinator(), new ChordAnalysis(), 1);
+        for (ChordGenerationOptions options : List.of(ChordGenerationOptions.SEQUENTIAL,
+                new ChordGenerationOptions(4, true, List.of()),
+                new ChordGenerationOptions(1, true, List.of(2, 9)))) {
+            List<HindemithChord> expected = uc.generate(4, 48, 72, options);
+            List<HindemithChord> batched = new ArrayList<>();
+            long count = uc.generateBatches(4, 48, 72, options, 64, b -> {
+                for (int c = 0; c < b.size(); c++) {
+                    List<Integer> notes = new ArrayList<>();
+                    for (int i = 0; i < b.getNumNotes(); i++) notes.add(b.note(c, i));
+                    batched.add(new HindemithChord(notes, b.rootNotes()[c], (int) b.groups()[c]));
+                }
+            });
+            assertEquals(expected.size(), count, options.toString());
+            assertEquals(expected.size(), batched.size(), options.toString());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getNotes(), batched.get(i).getNotes());
+                assertEquals(expected.get(i).getRootNote(), batched.get(i).getRootNote());
+                assertEquals(expected.get(i).getGroup(), batched.get(i).getGroup());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("generateBatches revolving door: dieselben Akkorde mit Grundton und Gruppe wie die normale Generierung")
+    void generateBatches_revolvingDoor_sameChordsAsDefault() {
+        GenerateChordsUseCase uc = new GenerateChordsUseCase(new NoteCombinator(), new ChordAnalysis(), 1);
+        for (ChordGenerationOptions options : List.of(new ChordGenerationOptions(1, true, List.of(), true),
+                new ChordGenerationOptions(3, false, List.of(), true),
+                new ChordGenerationOptions(1, true, List.of(2, 9), true))) {
+            List<String> expected = new ArrayList<>(uc.generate(5, 40, 70, options).stream()
+                    .map(c -> c.getNotes() + " root=" + c.getRootNote() + " group=" + c.getGroup())
+                    .toList());
+            List<String> revolving = Collections.synchronizedList(new ArrayList<>());
+            long count = uc.generateBatches(5, 40, 70, options, 500, b -> {
+                for (int c = 0; c < b.size(); c++) {
+                    List<Integer> notes = new ArrayList<>();
+                    for (int i = 0; i < b.getNumNotes(); i++) notes.add(b.note(c, i));
+                    revolving.add(notes + " root=" + b.rootNotes()[c] + " group=" + b.groups()[c]);
+                }
+            });
+            expected.sort(Comparator.naturalOrder());
+            List<String> actual = new ArrayList<>(revolving);
+            actual.sort(Comparator.naturalOrder());
+            assertEquals(expected.size(), count, options.toString());
+            assertEquals(expected, actual, options.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("generateBatchesPipelined: gestufte Pipeline liefert dieselben Akkorde in derselben Reihenfolge wie generateBatches")
+    void generateBatchesPipelined_matchesGenerateBatches() {
+        GenerateChordsUseCase uc = new GenerateChordsUseCase(new NoteCombinator(), new ChordAnalysis(), 1);
+        for (ChordGenerationOptions options : List.of(ChordGenerationOptions.SEQUENTIAL,
+                new ChordGenerationOptions(4, true, List.of(2, 9)),
+                new ChordGenerationOptions(3, true, List.of(), true))) {
+            // Batchgrenzen hängen von der Aufteilung ab, verglichen wird die Akkordfolge
+            StringBuilder expected = new StringBuilder();
+            uc.generateBatches(48, 66, options, 100, b -> expected.append(describe(b)));
+            StringBuilder pipelined = new StringBuilder();
+            long count = uc.generateBatchesPipelined(48, 66, options, 100, 2, b -> pipelined.append(describe(b)));
+            assertEquals(expected.toString(), pipelined.toString(), options.toString());
+            assertTrue(count > 0);
+        }
+    }
+
+    private static String describe(ChordBatch b) {
+        StringBuilder sb = new StringBuilder();
+        for (int c = 0; c < b.size(); c++) {
+            for (int i = 0; i < b.getNumNotes(); i++) sb.append(b.note(c, i)).append(' ');
+            sb.append(b.rootNotes()[c]).append('/').append(b.groups()[c]).append(';');
+        }
+        return sb.toString();
+    }
 }
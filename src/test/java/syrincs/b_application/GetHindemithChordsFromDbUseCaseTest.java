@@ -3,10 +3,23 @@ package syrincs.b_application;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import syrincs.a_domain.Scale.ScaleRepository;
 import syrincs.a_domain.hindemith.HindemithChord;
+import syrincs.b_application.ports.ChordPage;
+import syrincs.b_application.ports.ChordQuery;
+import syrincs.b_application.ports.HindemithChordRepositoryPort;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,4 +85,202 @@ class GetHindemithChordsFromDbUseCaseTest {
 
         assertTrue(uc.getById(99999L).isEmpty());
     }
+
+    @Test
+    @DisplayName("getAllOf(groups): Abfragen laufen gleichzeitig auf eigenen Threads, Ergebnis in der Reihenfolge der Gruppen")
+    void getAllOf_groups_fanOutConcurrentlyInGroupOrder() {
+        // Jede Abfrage wartet, bis alle neun laufen: nacheinander ausgeführt liefe die Schranke in den Timeout
+        CyclicBarrier allRunning = new CyclicBarrier(9);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        FakeHindemithChordRepository blocking = new FakeHindemithChordRepository() {
+            @Override
+            public List<HindemithChord> getAllOf(Integer group) {
+                threads.add(Thread.currentThread().getName());
+                await(allRunning);
+                return super.getAllOf(group);
+            }
+        };
+        for (int group = 1; group <= 9; group++) {
+            blocking.put(new HindemithChord(List.of(60, 64, 67), 60, group));
+        }
+        GetHindemithChordsFromDbUseCase async = new GetHindemithChordsFromDbUseCase(blocking);
+
+        List<HindemithChord> res = async.getAllOf(List.of(9, 8, 7, 6, 5, 4, 3, 2, 1));
+
+        assertEquals(List.of(9, 8, 7, 6, 5, 4, 3, 2, 1), res.stream().map(HindemithChord::getGroup).toList());
+        assertEquals(9, threads.size(), "thread names must be unique: " + threads);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("chord-query-")), threads.toString());
+    }
+
+    @Test
+    @DisplayName("getAllOf(groups): höchstens maxConcurrentQueries Abfragen gleichzeitig")
+    void getAllOf_groups_concurrencyIsCapped() {
+        // Je drei Abfragen treffen sich an der Schranke; eine vierte gleichzeitige würde sie vorzeitig auslösen
+        CyclicBarrier threeRunning = new CyclicBarrier(3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        FakeHindemithChordRepository blocking = new FakeHindemithChordRepository() {
+            @Override
+            public List<HindemithChord> getAllOf(Integer group) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                await(threeRunning);
+                running.decrementAndGet();
+                return super.getAllOf(group);
+            }
+        };
+        GetHindemithChordsFromDbUseCase async = new GetHindemithChordsFromDbUseCase(blocking, 3);
+
+        assertTrue(async.getAllOf(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9)).isEmpty());
+        assertEquals(3, maxRunning.get());
+    }
+
+    @Test
+    @DisplayName("loadHindemithChordsWithRootNotesAndGroups: sortiert nach Grundton, dann Gruppe; Fehler werden durchgereicht")
+    void loadWithRootNotesAndGroups_orderedAndPropagatesErrors() {
+        List<HindemithChord> res = uc.loadHindemithChordsWithRootNotesAndGroups(List.of(62, 60), List.of(12, 1, 5));
+        assertEquals(List.of(62, 60, 60), res.stream().map(HindemithChord::getRootNote).toList());
+        assertEquals(List.of(5, 12, 1), res.stream().map(HindemithChord::getGroup).toList());
+
+        FakeHindemithChordRepository failing = new FakeHindemithChordRepository() {
+            @Override
+            public List<HindemithChord> getAllOfRootNoteAndGroup(Integer rootNote, Integer group) {
+                throw new IllegalStateException("DB down");
+            }
+        };
+        var broken = new GetHindemithChordsFromDbUseCase(failing);
+        assertThrows(IllegalStateException.class, () -> broken.loadHindemithChordsWithGroups(60, List.of(1, 2)));
+    }
+
+    @Test
+    @DisplayName("streamAllOf(groups): liefert Gruppe für Gruppe und schließt jeden Cursor nach Gebrauch")
+    void streamAllOf_groups_streamsGroupByGroupAndClosesCursors() {
+        List<Integer> closed = new ArrayList<>();
+        FakeHindemithChordRepository cursors = new FakeHindemithChordRepository() {
+            @Override
+            public Stream<HindemithChord> streamAllOf(Integer group, int fetchSize) {
+                return super.streamAllOf(group, fetchSize).onClose(() -> closed.add(group));
+            }
+        };
+        cursors.put(new HindemithChord(List.of(60, 64, 67), 60, 1));
+        cursors.put(new HindemithChord(List.of(62, 65, 69), 62, 5));
+        cursors.put(new HindemithChord(List.of(60, 63, 67), 60, 1));
+        var streaming = new GetHindemithChordsFromDbUseCase(cursors);
+
+        try (Stream<HindemithChord> chords = streaming.streamAllOf(List.of(5, 1), 2)) {
+            assertEquals(List.of(5, 1, 1), chords.map(HindemithChord::getGroup).toList());
+        }
+        assertEquals(List.of(5, 1), closed);
+        try (Stream<HindemithChord> all = streaming.streamAll(HindemithChordRepositoryPort.DEFAULT_FETCH_SIZE)) {
+            assertEquals(3, all.count());
+        }
+    }
+
+    @Test
+    @DisplayName("page: Keyset-Paginierung mit Fortsetzungstoken liefert jede Zeile genau einmal")
+    void page_keysetPaginationWithContinuationToken() {
+        FakeHindemithChordRepository many = new FakeHindemithChordRepository();
+        for (int i = 0; i < 23; i++) {
+            many.put(new HindemithChord(List.of(48 + i, 52 + i, 55 + i), 48 + i, i % 2 == 0 ? 1 : 2));
+        }
+        var paging = new GetHindemithChordsFromDbUseCase(many);
+        ChordQuery group1 = new ChordQuery(null, List.of(1), List.of(3), null);
+
+        List<Integer> roots = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        do {
+            ChordPage page = paging.page(group1, token, 5);
+            page.chords().forEach(c -> roots.add(c.getRootNote()));
+            token = page.continuationToken(group1);
+            pages++;
+        } while (token != null);
+
+        assertEquals(3, pages); // 12 Akkorde der Gruppe 1: 5 + 5 + 2
+        assertEquals(12, roots.size());
+        assertEquals(roots.stream().sorted().toList(), roots);
+        assertTrue(roots.stream().allMatch(r -> (r - 48) % 2 == 0));
+    }
+
+    @Test
+    @DisplayName("page: Token einer anderen Abfrage oder kaputte Token werden abgelehnt")
+    void page_rejectsForeignOrMalformedTokens() {
+        ChordQuery a = new ChordQuery(60, List.of(1), List.of(3), null);
+        ChordQuery b = new ChordQuery(62, List.of(1), List.of(3), null);
+        ChordPage page = new ChordPage(List.of(new HindemithChord(List.of(60, 64, 67), 60, 1)), List.of(42L), true);
+        String token = page.continuationToken(a);
+
+        assertEquals(42L, ChordPage.afterId(token, a));
+        assertEquals(ChordPage.FIRST, ChordPage.afterId(null, a));
+        assertThrows(IllegalArgumentException.class, () -> ChordPage.afterId(token, b));
+        assertThrows(IllegalArgumentException.class, () -> ChordPage.afterId("%%%", a));
+        assertNull(new ChordPage(List.of(), List.of(), false).continuationToken(a));
+    }
+
+    @Test
+    @DisplayName("playChordPage: leere Gruppen oder Größen spielen nichts (wie playChords), statt ungefiltert zu blättern")
+    void playChordPage_emptyFiltersMatchNothing() throws Exception {
+        // Ohne MIDI-Ausgang: jeder gespielte Akkord schlüge fehl
+        UseCaseInteractor interactor = new UseCaseInteractor(null, repo);
+        assertNull(interactor.playChordPage(List.of(3), List.of(), 60, 12, null, 10, 0L, null));
+        assertNull(interactor.playChordPage(List.of(), List.of(1), 60, 12, null, 10, 0L, null));
+        assertThrows(RuntimeException.class, () -> interactor.playChordPage(List.of(3), List.of(1), 60, 12, null, 10, 0L, null));
+    }
+
+    @Test
+    @DisplayName("page: Token ist stabil (fester Fingerabdruck statt hashCode), unabhängig von Gruppenreihenfolge und Limit")
+    void page_tokenIsStable() {
+        ChordQuery a = new ChordQuery(60, List.of(1), List.of(3), null);
+        ChordPage page = new ChordPage(List.of(new HindemithChord(List.of(60, 64, 67), 60, 1)), List.of(42L), true);
+        // Festgeschrieben: ändert sich dieser Wert, werden alle ausgegebenen Token ungültig
+        assertEquals("NDI6YjMwYmI5MjU3ODY0YWI3NQ", page.continuationToken(a));
+
+        ChordQuery twoGroups = ChordQuery.ALL.withGroups(List.of(1, 2));
+        String token = page.continuationToken(twoGroups);
+        assertEquals(42L, ChordPage.afterId(token, ChordQuery.ALL.withGroups(List.of(2, 1)).withLimit(10)));
+        assertThrows(IllegalArgumentException.class, () -> ChordPage.afterId(token, twoGroups.withOrder(ChordQuery.Order.SPAN)));
+        assertThrows(IllegalArgumentException.class, () -> ChordPage.afterId(token, twoGroups.withBassNote(48)));
+    }
+
+    @Test
+    @DisplayName("find: kombinierte ChordQuery wird im Speicher ausgewertet, sortiert und begrenzt")
+    void find_composedQuery() {
+        long idLowC = repo.put(new HindemithChord(List.of(48, 52, 55), 48, 1));
+
+        ChordQuery cRoots = ChordQuery.ALL.withRootPitchClass(0);
+        assertEquals(3, uc.find(cRoots).size());
+        assertEquals(List.of(repo.findById(idCmaj).get()),
+                uc.find(cRoots.withNumNotes(List.of(3)).withBassNote(60)));
+        assertEquals(List.of(repo.findById(idCRootGroup12).get()), uc.find(cRoots.withSpan(10, null)));
+        assertEquals(List.of(repo.findById(idLowC).get(), repo.findById(idCmaj).get()),
+                uc.find(cRoots.withMaxSpan(7).withOrder(ChordQuery.Order.BASS_NOTE)));
+        assertEquals(List.of(repo.findById(idCmaj).get()), uc.find(cRoots.withMaxSpan(7).withLimit(1)));
+        assertEquals(List.of(repo.findById(idDGroup5).get()),
+                uc.getAllOfRootNoteGroupsAndNumNotes(62, List.of(5, 6), List.of(3), 8));
+        assertThrows(IllegalArgumentException.class, () -> ChordQuery.ALL.withRootPitchClass(12));
+    }
+
+    @Test
+    @DisplayName("find: Tonklassen- und Intervallmasken (Tritonus, innerhalb cIonic, ohne kleine Sekunde)")
+    void find_maskFilters() {
+        long idTritone = repo.put(new HindemithChord(List.of(60, 66, 71), 60, 6));
+        int cIonic = new ScaleRepository().getScale("cIonic").getPitchClassMask();
+
+        assertEquals(List.of(repo.findById(idCRootGroup12).get(), repo.findById(idTritone).get()), // h-f bzw. c-fis
+                uc.find(ChordQuery.ALL.withRequiredIntervals(1 << 6)));
+        assertEquals(List.of(repo.findById(idCmaj).get(), repo.findById(idCRootGroup12).get()),
+                uc.find(ChordQuery.ALL.withPitchClassesWithin(cIonic)));
+        assertEquals(List.of(repo.findById(idCmaj).get(), repo.findById(idDGroup5).get()),
+                uc.find(ChordQuery.ALL.withExcludedIntervals(1 << 1 | 1 << 11)));
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (BrokenBarrierException | TimeoutException e) {
+            throw new IllegalStateException("queries did not run concurrently", e);
+        }
+    }
 }
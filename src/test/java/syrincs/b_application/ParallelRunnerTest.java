@@ -0,0 +1,59 @@
+package syrincs.b_application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.ChordBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelRunnerTest {
+
+    @Test
+    @DisplayName("Runner: Parallelität 1 läuft im aufrufenden Thread, sonst in einem eigenen Pool")
+    void run_usesDedicatedPool() {
+        Thread caller = Thread.currentThread();
+        ParallelRunner.run(() -> assertSame(caller, Thread.currentThread()), 1);
+
+        Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+        ParallelRunner.run(() -> IntStream.range(0, 1000).parallel()
+                .forEach(i -> pools.add(ForkJoinTask.getPool())), 3);
+        assertEquals(1, pools.size());
+        assertNotSame(ForkJoinPool.commonPool(), pools.iterator().next());
+        assertEquals(3, pools.iterator().next().getParallelism());
+    }
+
+    @Test
+    @DisplayName("Runner: Laufzeitfehler der Aufgabe werden unverändert weitergereicht")
+    void run_rethrowsRuntimeExceptions() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+                ParallelRunner.call(() -> { throw new IllegalArgumentException("bad"); }, 2));
+        assertEquals("bad", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Runner: jede Batch wird genau einmal übergeben, auch parallel")
+    void forEachBatch_visitsEveryBatch() {
+        List<ChordBatch> batches = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ChordBatch batch = new ChordBatch(3, 1);
+            batch.add(new int[]{i, i + 4, i + 7}, 0);
+            batches.add(batch);
+        }
+        for (int parallelism : new int[]{1, 4}) {
+            LongAdder sum = new LongAdder();
+            ParallelRunner.forEachBatch(batches.stream(), parallelism, batch -> sum.add(batch.note(0, 0)));
+            assertEquals(99 * 100 / 2, sum.sum());
+        }
+        assertEquals(0L, ParallelRunner.call(() -> Stream.empty().count(), 4));
+    }
+}
@@ -3,6 +3,7 @@ package syrincs.b_application;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.ChordBatch;
 import syrincs.a_domain.hindemith.HindemithChord;
 
 import java.util.List;
@@ -29,4 +30,16 @@ class PersistHindemithChordUseCaseTest {
         assertEquals(chords.size(), ids.size());
         assertTrue(ids.stream().allMatch(id -> repo.findById(id).isPresent()));
     }
+
+    @Test
+    @DisplayName("persistBatch: Default-Implementierung des Ports speichert jeden Akkord des Batches")
+    void persistBatch_savesAllChordsOfBatch() {
+        ChordBatch batch = new ChordBatch(3, 4);
+        batch.add(new int[]{60, 64, 67}, 0, 60, 1);
+        batch.add(new int[]{62, 65, 69}, 0, 62, 1);
+        long[] ids = uc.persistBatch(batch);
+        assertEquals(2, ids.length);
+        assertEquals(List.of(60, 64, 67), repo.findById(ids[0]).orElseThrow().getNotes());
+        assertEquals(62, repo.findById(ids[1]).orElseThrow().getRootNote());
+    }
 }
@@ -0,0 +1,121 @@
+package syrincs.b_application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.ChordBatch;
+import syrincs.a_domain.hindemith.HindemithChord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StagedChordPipelineTest {
+
+    // Batch i enthält einen Akkord mit tiefstem Ton i, damit die Reihenfolge prüfbar ist
+    private static Consumer<Consumer<ChordBatch>> generator(int batches, AtomicInteger emitted) {
+        return emit -> {
+            for (int i = 0; i < batches; i++) {
+                ChordBatch batch = new ChordBatch(3, 1);
+                batch.add(new int[]{i, i + 4, i + 7}, 0);
+                emitted.incrementAndGet();
+                emit.accept(batch);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Pipeline: geordnet trotz paralleler Analyse, leere Batches werden nicht geschrieben")
+    void ordered_keepsGenerationOrder() {
+        List<Integer> written = new ArrayList<>();
+        StagedChordPipeline.Stats stats = StagedChordPipeline.run(generator(200, new AtomicInteger()), batch -> {
+            sleepMicros(ThreadLocalRandom.current().nextInt(500));
+            if (batch.note(0, 0) % 10 == 9) batch.retainGroups(new boolean[0]); // wie ein Gruppenfilter
+        }, batch -> written.add(batch.note(0, 0)), new StagedChordPipeline.Options(4, 3, true));
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) if (i % 10 != 9) expected.add(i);
+        assertEquals(expected, written);
+        assertEquals(180, stats.chords());
+    }
+
+    @Test
+    @DisplayName("Pipeline: Gegendruck begrenzt die Batches in Arbeit, wenn der Schreiber langsam ist")
+    void backpressure_boundsBatchesInFlight() {
+        AtomicInteger emitted = new AtomicInteger();
+        int[] writtenCount = new int[1];
+        int[] maxInFlight = new int[1];
+        StagedChordPipeline.Options options = new StagedChordPipeline.Options(2, 4, false);
+        StagedChordPipeline.run(generator(100, emitted), batch -> { }, batch -> {
+            maxInFlight[0] = Math.max(maxInFlight[0], emitted.get() - writtenCount[0]);
+            sleepMicros(300);
+            writtenCount[0]++;
+        }, options);
+
+        assertEquals(100, writtenCount[0]);
+        assertTrue(maxInFlight[0] <= 2 * options.queueCapacity() + options.analyzers() + 1, "in flight: " + maxInFlight[0]);
+    }
+
+    @Test
+    @DisplayName("Pipeline: ein Fehler des Schreibers stoppt alle Stufen und wird weitergereicht")
+    void writerFailure_stopsGenerator() {
+        AtomicInteger emitted = new AtomicInteger();
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+                StagedChordPipeline.run(generator(Integer.MAX_VALUE, emitted), batch -> { }, batch -> {
+                    if (batch.note(0, 0) == 5) throw new IllegalStateException("DB down");
+                }, new StagedChordPipeline.Options(2, 2, true)));
+        assertEquals("DB down", e.getMessage());
+        assertTrue(emitted.get() < 100);
+    }
+
+    @Test
+    @DisplayName("Berechnen: jede Batch ist ein eigener Commit, ein erneuter Lauf nach einem Fehler schreibt keine Duplikate")
+    void calculate_commitsPerBatchAndRerunReplaces() {
+        List<Integer> sizes = new ArrayList<>();
+        FakeHindemithChordRepository complete = new FakeHindemithChordRepository() {
+            @Override
+            public long[] saveBatch(ChordBatch batch) {
+                sizes.add(batch.size());
+                return super.saveBatch(batch);
+            }
+        };
+        new UseCaseInteractor(null, complete).calculateAndPersistAllChordsToFiveNotes(48, 72, ChordGenerationOptions.SEQUENTIAL);
+        assertTrue(sizes.size() > 3, "range too small: " + sizes);
+
+        AtomicInteger batches = new AtomicInteger();
+        FakeHindemithChordRepository failing = new FakeHindemithChordRepository() {
+            @Override
+            public long[] saveBatch(ChordBatch batch) {
+                if (batches.incrementAndGet() == 3) throw new IllegalStateException("DB down");
+                return super.saveBatch(batch);
+            }
+        };
+        UseCaseInteractor interactor = new UseCaseInteractor(null, failing);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+                interactor.calculateAndPersistAllChordsToFiveNotes(48, 72, ChordGenerationOptions.SEQUENTIAL));
+        assertEquals("DB down", e.getMessage());
+        assertEquals(3, batches.get());
+        assertEquals(rows(complete.findAll()).subList(0, sizes.get(0) + sizes.get(1)), rows(failing.findAll()));
+
+        // Zweiter Lauf (die dritte Batch schlägt nur einmal fehl) ersetzt die Reste des ersten
+        interactor.calculateAndPersistAllChordsToFiveNotes(48, 72, ChordGenerationOptions.SEQUENTIAL);
+        assertEquals(rows(complete.findAll()), rows(failing.findAll()));
+        interactor.calculateAndPersistAllChordsToFiveNotes(48, 72, ChordGenerationOptions.SEQUENTIAL);
+        assertEquals(rows(complete.findAll()), rows(failing.findAll()));
+    }
+
+    private static List<String> rows(List<HindemithChord> chords) {
+        return chords.stream().map(c -> c.getNotes() + "/" + c.getRootNote() + "/" + c.getGroup()).toList();
+    }
+
+    private static void sleepMicros(long micros) {
+        try {
+            Thread.sleep(micros / 1000, (int) (micros % 1000) * 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package syrincs.b_application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.NoteCombinator;
+import syrincs.a_domain.hindemith.BitmaskChordRules;
+import syrincs.a_domain.hindemith.ChordAnalysis;
+import syrincs.a_domain.hindemith.ChordAnalysisEngine;
+import syrincs.a_domain.hindemith.DecisionTreeChordRules;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifyChordAnalysisUseCaseTest {
+
+    private static final String GOLDEN = "/syrincs/b_application/analysis-checksums.properties";
+
+    @Test
+    @DisplayName("verify: alle Analysepfade stimmen mit der Referenz überein, Prüfsumme wie in der Golden-Datei")
+    void allAnalysisPaths_matchReferenceAndGoldenChecksum() throws IOException {
+        Properties golden = new Properties();
+        try (InputStream in = getClass().getResourceAsStream(GOLDEN)) {
+            golden.load(in);
+        }
+        for (AnalysisPath path : AnalysisPath.values()) {
+            var verify = new VerifyChordAnalysisUseCase(new NoteCombinator(), new ChordAnalysis(null), path.create());
+            for (int k = 3; k <= 4; k++) {
+                VerifyChordAnalysisUseCase.Report report = verify.verify(k, 48, 72, 2, 5, 4);
+                assertTrue(report.isClean(), path + ": " + report.firstMismatches());
+                assertEquals(golden.getProperty(report.goldenKey()), report.goldenValue(), path + " " + report.goldenKey());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("verify mit Zählern: der Entscheidungsbaum zählt genau die geprüften Akkorde, Ergebnis unverändert")
+    void decisionTreeWithCounters_countsVerifiedChords() {
+        DecisionTreeChordRules tree = DecisionTreeChordRules.withCounters();
+        assertEquals(DecisionTreeChordRules.shared().getNodeCount(), tree.getNodeCount());
+        VerifyChordAnalysisUseCase.Report report = new UseCaseInteractor(null, new FakeHindemithChordRepository())
+                .verifyDecisionTree(tree, 4, 48, 72, 2, 5, 4);
+        assertTrue(report.isClean(), report.firstMismatches().toString());
+        assertEquals(report.chords(), tree.getClassifiedChords());
+        assertTrue(tree.getAveragePredicateEvaluations() > 0);
+        assertTrue(tree.report().startsWith("chords=" + report.chords()), tree.report());
+    }
+
+    @Test
+    @DisplayName("verify: Abweichungen werden gezählt, die ersten N lexikographisch gemeldet; Prüfsumme ist unabhängig von der Parallelität")
+    void brokenCandidate_reportsFirstMismatches() {
+        // Kaputte Engine: Gruppe 1 wird als Gruppe 2 gemeldet
+        ChordAnalysisEngine broken = new ChordAnalysisEngine() {
+            @Override
+            public ChordAnalysis.Result analyzeSorted(List<Integer> notes) {
+                return BitmaskChordRules.shared().analyzeSorted(notes);
+            }
+
+            @Override
+            public int classify(int[] notes, int from, int k) {
+                int packed = BitmaskChordRules.shared().classify(notes, from, k);
+                return BitmaskChordRules.groupOf(packed) == 1 ? packed + 1 : packed;
+            }
+        };
+        var verify = new VerifyChordAnalysisUseCase(new NoteCombinator(), new ChordAnalysis(null), new ChordAnalysis(null, broken));
+        VerifyChordAnalysisUseCase.Report sequential = verify.verify(3, 48, 72, 2, 3, 1);
+        VerifyChordAnalysisUseCase.Report parallel = verify.verify(3, 48, 72, 2, 3, 4);
+
+        assertTrue(sequential.mismatches() > 3);
+        assertEquals(3, sequential.firstMismatches().size());
+        assertArrayEquals(new int[]{48, 51, 55}, sequential.firstMismatches().getFirst().notes());
+        assertTrue(sequential.firstMismatches().getFirst().expected().endsWith("group=1"));
+        assertEquals(sequential.mismatches(), parallel.mismatches());
+        assertEquals(sequential.checksum(), parallel.checksum());
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(sequential.firstMismatches().get(i).notes(), parallel.firstMismatches().get(i).notes());
+        }
+    }
+
+    @Test
+    @DisplayName("verify: bei Abweichung auf jedem Akkord meldet ein paralleler Lauf genau die ersten N (kein Verlust beim Kürzen)")
+    void everyChordMismatches_parallelReportKeepsFirstMismatches() {
+        // Jede Gruppe wird falsch gemeldet: alle Threads fügen ständig ein und kürzen gleichzeitig
+        ChordAnalysisEngine shifted = new ChordAnalysisEngine() {
+            @Override
+            public ChordAnalysis.Result analyzeSorted(List<Integer> notes) {
+                return BitmaskChordRules.shared().analyzeSorted(notes);
+            }
+
+            @Override
+            public int classify(int[] notes, int from, int k) {
+                int packed = BitmaskChordRules.shared().classify(notes, from, k);
+                return BitmaskChordRules.groupOf(packed) == 1 ? packed + 1 : packed - 1;
+            }
+        };
+        var verify = new VerifyChordAnalysisUseCase(new NoteCombinator(), new ChordAnalysis(null), new ChordAnalysis(null, shifted));
+        List<List<Integer>> firstChords = new NoteCombinator().streamChords(3, 48, 72, 2).limit(5).toList();
+
+        for (int run = 0; run < 5; run++) {
+            VerifyChordAnalysisUseCase.Report report = verify.verify(3, 48, 72, 2, 5, 8);
+            assertEquals(report.chords(), report.mismatches());
+            assertEquals(5, report.firstMismatches().size());
+            for (int i = 0; i < 5; i++) {
+                assertArrayEquals(firstChords.get(i).stream().mapToInt(Integer::intValue).toArray(),
+                        report.firstMismatches().get(i).notes());
+            }
+        }
+    }
+}
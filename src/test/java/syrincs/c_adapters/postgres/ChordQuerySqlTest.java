@@ -0,0 +1,77 @@
+package syrincs.c_adapters.postgres;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.b_application.ports.ChordQuery;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChordQuerySqlTest {
+
+    @Test
+    @DisplayName("ChordQuerySql: ohne Filter nur nach id sortiert, ohne Parameter")
+    void compilesEmptyQuery() {
+        ChordQuerySql compiled = ChordQuerySql.compile(ChordQuery.ALL, null);
+        assertEquals("SELECT id, notes, rootNote, chordGroup FROM public.hindemithChords ORDER BY id", compiled.sql());
+        assertTrue(compiled.parameters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("ChordQuerySql: alle Filter in einer Anweisung, Parameter in Platzhalter-Reihenfolge")
+    void compilesAllFilters() {
+        ChordQuery query = ChordQuery.ALL.withRootNote(60).withRootPitchClass(0).withGroups(List.of(1, 2))
+                .withNumNotes(List.of(3)).withSpan(4, 24).withBassNote(48).withLimit(10)
+                .withOrder(ChordQuery.Order.SPAN);
+        ChordQuerySql compiled = ChordQuerySql.compile(query, 7L);
+        assertEquals("SELECT id, notes, rootNote, chordGroup FROM public.hindemithChords WHERE id > ? AND rootNote = ?"
+                + " AND rootPitchClass = ? AND chordGroup = ANY(?) AND numNotes = ? AND span >= ? AND span <= ?"
+                + " AND minNote = ? ORDER BY span, id LIMIT ?", compiled.sql());
+        List<Object> p = compiled.parameters();
+        assertEquals(9, p.size());
+        assertEquals(7L, p.get(0));
+        assertEquals(60, p.get(1));
+        assertArrayEquals(new Integer[]{1, 2}, (Integer[]) p.get(3));
+        assertEquals(3, p.get(4));
+        assertEquals(List.of(4, 24, 48, 10), p.subList(5, 9));
+    }
+
+    @Test
+    @DisplayName("ChordQuerySql: SQL-Text hängt nur von den gesetzten Filtern ab (Plan-Cache)")
+    void sqlTextIndependentOfValues() {
+        ChordQuery a = ChordQuery.ALL.withRootNote(60).withGroups(List.of(1));
+        ChordQuery b = ChordQuery.ALL.withRootNote(67).withGroups(List.of(3, 4, 5));
+        assertEquals(ChordQuerySql.compile(a, null).sql(), ChordQuerySql.compile(b, null).sql());
+        assertNotEquals(ChordQuerySql.compile(a, null).sql(), ChordQuerySql.compile(a.withMaxSpan(12), null).sql());
+    }
+
+    @Test
+    @DisplayName("ChordQuerySql: Grundton liefert auch die Tonklasse mit (Partition Pruning)")
+    void rootNoteAddsPartitionKey() {
+        ChordQuerySql compiled = ChordQuerySql.compile(ChordQuery.ALL.withRootNote(62).withNumNotes(List.of(4)), null);
+        assertEquals("SELECT id, notes, rootNote, chordGroup FROM public.hindemithChords"
+                + " WHERE rootNote = ? AND rootPitchClass = ? AND numNotes = ? ORDER BY id", compiled.sql());
+        assertEquals(List.of(62, 2, 4), compiled.parameters());
+    }
+
+    @Test
+    @DisplayName("ChordQuerySql: Maskenfilter bitweise, bei wenigen passenden Masken als indexfähige Liste")
+    void compilesMaskFilters() {
+        ChordQuerySql tritone = ChordQuerySql.compile(ChordQuery.ALL.withRequiredIntervals(1 << 6).withExcludedIntervals(1 << 1), null);
+        assertTrue(tritone.sql().endsWith("WHERE (intervalMask & ?) = 0 AND (intervalMask & ?) = ? ORDER BY id"), tritone.sql());
+        assertEquals(List.of(1 << 1, 1 << 6, 1 << 6), tritone.parameters());
+
+        int cIonic = 0b1010_1011_0101; // 0, 2, 4, 5, 7, 9, 11
+        ChordQuerySql within = ChordQuerySql.compile(ChordQuery.ALL.withPitchClassesWithin(cIonic).withRequiredPitchClasses(1), null);
+        assertTrue(within.sql().endsWith("WHERE pitchClassMask = ANY(?) ORDER BY id"), within.sql());
+        Integer[] masks = (Integer[]) within.parameters().get(0);
+        assertEquals(64, masks.length);
+        for (Integer m : masks) assertTrue((m & 1) == 1 && (m & ~cIonic) == 0);
+        assertEquals(1, masks[0]);
+        assertEquals(cIonic, masks[63]);
+
+        ChordQuerySql none = ChordQuerySql.compile(ChordQuery.ALL.withRequiredPitchClasses(1).withExcludedPitchClasses(1), null);
+        assertEquals(0, ((Integer[]) none.parameters().get(0)).length);
+    }
+}
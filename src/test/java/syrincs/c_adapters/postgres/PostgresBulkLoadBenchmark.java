@@ -0,0 +1,73 @@
+package syrincs.c_adapters.postgres;
+
+import syrincs.a_domain.chord.ChordBatch;
+import syrincs.a_domain.chord.EnumerationStats;
+import syrincs.a_domain.chord.NoteCombinator;
+import syrincs.a_domain.hindemith.BitmaskChordRules;
+import syrincs.a_domain.hindemith.ChordAnalysis;
+import syrincs.b_application.ports.BulkLoadMode;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Benchmark: rows per second of the bulk-load modes on the same analyzed batches. Not a test; writes into the given
+ * database and deletes exactly the inserted rows again after each run, so use a scratch database. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=syrincs.c_adapters.postgres.PostgresBulkLoadBenchmark -Dexec.args="url user password [minLowerNote maxUpperNote]"}.
+ */
+public final class PostgresBulkLoadBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(PostgresBulkLoadBenchmark.class.getName());
+
+    private PostgresBulkLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("usage: PostgresBulkLoadBenchmark url user password [minLowerNote maxUpperNote]");
+        }
+        int min = args.length > 4 ? Integer.parseInt(args[3]) : 48;
+        int max = args.length > 4 ? Integer.parseInt(args[4]) : 72;
+        List<ChordBatch> batches = new ArrayList<>();
+        ChordAnalysis analysis = new ChordAnalysis(null, BitmaskChordRules.shared());
+        for (int k = 3; k <= 5; k++) {
+            new NoteCombinator().streamBatches(k, min, max, NoteCombinator.defaultConstraints(2), 1000, new EnumerationStats())
+                    .forEach(batch -> {
+                        analysis.analyzeBatch(batch);
+                        batches.add(batch);
+                    });
+        }
+        long rows = batches.stream().mapToLong(ChordBatch::size).sum();
+
+        try (PostgresConnectionPool pool = new PostgresConnectionPool(args[0], args[1], args[2], PostgresConnectionPool.Config.ofSize(2))) {
+            PostgresHindemithChordRepository repository = new PostgresHindemithChordRepository(pool);
+            for (int round = 0; round < 3; round++) {
+                for (BulkLoadMode mode : BulkLoadMode.values()) {
+                    List<long[]> ids = new ArrayList<>();
+                    long start = System.nanoTime();
+                    for (ChordBatch batch : batches) ids.add(repository.saveBatch(batch, mode));
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    LOGGER.info(String.format("round %d: %-12s %d rows in %.2f s, %.0f rows/s", round, mode, rows, seconds, rows / seconds));
+                    delete(pool, ids);
+                }
+            }
+        }
+    }
+
+    private static void delete(PostgresConnectionPool pool, List<long[]> ids) throws SQLException {
+        Long[] all = ids.stream().flatMapToLong(Arrays::stream).boxed().toArray(Long[]::new);
+        try (Connection con = pool.getConnection();
+             PreparedStatement ps = con.prepareStatement("DELETE FROM public.hindemithChords WHERE id = ANY(?)")) {
+            Array arr = con.createArrayOf("int8", all);
+            ps.setArray(1, arr);
+            ps.executeUpdate();
+        }
+    }
+}
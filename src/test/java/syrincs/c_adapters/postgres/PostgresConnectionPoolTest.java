@@ -0,0 +1,211 @@
+package syrincs.c_adapters.postgres;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostgresConnectionPoolTest {
+
+    // Verbindungsattrappe: zählt prepareStatement/rollback, Gültigkeit und Autocommit sind steuerbar
+    private static final class FakeConnection {
+        boolean valid = true;
+        boolean autoCommit = true;
+        boolean closed;
+        int prepared;
+        int rollbacks;
+        final List<FakeStatement> statements = new ArrayList<>();
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (p, m, a) -> switch (m.getName()) {
+                        case "isValid" -> valid;
+                        case "isClosed" -> closed;
+                        case "close" -> { closed = true; yield null; }
+                        case "getAutoCommit" -> autoCommit;
+                        case "setAutoCommit" -> { autoCommit = (Boolean) a[0]; yield null; }
+                        case "rollback" -> { rollbacks++; yield null; }
+                        case "prepareStatement", "createStatement" -> {
+                            prepared++;
+                            FakeStatement st = new FakeStatement();
+                            statements.add(st);
+                            yield st.proxy();
+                        }
+                        default -> null;
+                    });
+        }
+    }
+
+    // Statement-Attrappe mit den Einstellungen, die der Pool bei der Rückgabe zurücksetzen muss
+    private static final class FakeStatement {
+        int fetchSize;
+        int maxRows;
+        int queryTimeout;
+        boolean closed;
+        final List<boolean[]> results = new ArrayList<>();
+
+        PreparedStatement proxy() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (p, m, a) -> switch (m.getName()) {
+                        case "isClosed" -> closed;
+                        case "close" -> { closed = true; yield null; }
+                        case "getFetchSize" -> fetchSize;
+                        case "setFetchSize" -> { fetchSize = (Integer) a[0]; yield null; }
+                        case "getMaxRows" -> maxRows;
+                        case "setMaxRows" -> { maxRows = (Integer) a[0]; yield null; }
+                        case "getQueryTimeout" -> queryTimeout;
+                        case "setQueryTimeout" -> { queryTimeout = (Integer) a[0]; yield null; }
+                        case "executeQuery" -> resultSet();
+                        default -> null;
+                    });
+        }
+
+        private ResultSet resultSet() {
+            boolean[] closed = {false};
+            results.add(closed);
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (p, m, a) -> switch (m.getName()) {
+                        case "isClosed" -> closed[0];
+                        case "close" -> { closed[0] = true; yield null; }
+                        default -> null;
+                    });
+        }
+    }
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+
+    private PostgresConnectionPool pool(int maxSize, long acquireTimeoutMs, long idleTimeoutMs, long validationIntervalMs) {
+        return new PostgresConnectionPool(() -> {
+            FakeConnection c = new FakeConnection();
+            opened.add(c);
+            return c.proxy();
+        }, new PostgresConnectionPool.Config(maxSize, acquireTimeoutMs, idleTimeoutMs, validationIntervalMs, 8));
+    }
+
+    @Test
+    @DisplayName("Pool: Verbindung und vorbereitete Statements werden wiederverwendet")
+    void reusesConnectionAndStatements() throws SQLException {
+        try (PostgresConnectionPool pool = pool(2, 1000, 60_000, 60_000)) {
+            for (int i = 0; i < 3; i++) {
+                try (Connection con = pool.getConnection();
+                     PreparedStatement ps = con.prepareStatement("SELECT 1", Statement.RETURN_GENERATED_KEYS)) {
+                    assertFalse(ps.isClosed());
+                }
+            }
+            assertEquals(1, opened.size());
+            assertEquals(1, opened.get(0).prepared);
+            PostgresConnectionPool.Metrics m = pool.metrics();
+            assertEquals(0, m.active());
+            assertEquals(1, m.idle());
+            assertEquals(3, m.acquired());
+            assertEquals(1, m.created());
+        }
+        assertTrue(opened.get(0).closed);
+    }
+
+    @Test
+    @DisplayName("Pool: gleiche SQL zweimal offen ergibt zwei physische Statements; Rückgabe setzt Einstellungen zurück")
+    void checksOutCachedStatements() throws SQLException {
+        try (PostgresConnectionPool pool = pool(1, 1000, 60_000, 60_000)) {
+            FakeStatement cached;
+            try (Connection con = pool.getConnection()) {
+                PreparedStatement outer = con.prepareStatement("SELECT 1");
+                PreparedStatement inner = con.prepareStatement("SELECT 1");
+                assertEquals(2, opened.get(0).prepared);
+                assertSame(con, outer.getConnection());
+                assertSame(con, inner.getConnection());
+
+                outer.setFetchSize(500);
+                outer.setMaxRows(10);
+                outer.setQueryTimeout(3);
+                ResultSet rs = outer.executeQuery();
+                inner.close();
+                assertTrue(inner.isClosed());
+                assertTrue(opened.get(0).statements.get(1).closed); // ungecacht: wirklich geschlossen
+                assertFalse(outer.isClosed());
+
+                outer.close();
+                assertTrue(outer.isClosed());
+                assertTrue(rs.isClosed());
+                assertThrows(SQLException.class, outer::executeQuery);
+                cached = opened.get(0).statements.get(0);
+                assertFalse(cached.closed);
+                assertEquals(0, cached.fetchSize);
+                assertEquals(0, cached.maxRows);
+                assertEquals(0, cached.queryTimeout);
+
+                PreparedStatement again = con.prepareStatement("SELECT 1");
+                assertEquals(2, opened.get(0).prepared); // wieder aus dem Cache
+                again.executeQuery();
+                // nicht geschlossen: die Rückgabe der Verbindung schließt Statement und ResultSet
+            }
+            assertFalse(cached.closed);
+            assertTrue(cached.results.get(1)[0]);
+            try (Connection con = pool.getConnection(); PreparedStatement ps = con.prepareStatement("SELECT 1")) {
+                assertEquals(2, opened.get(0).prepared); // nach der Rückgabe wieder frei
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Pool: begrenzt auf maxSize, weitere Anfragen laufen in den Timeout")
+    void isBounded() throws SQLException {
+        try (PostgresConnectionPool pool = pool(2, 50, 60_000, 60_000)) {
+            Connection a = pool.getConnection();
+            Connection b = pool.getConnection();
+            assertEquals(2, pool.metrics().active());
+            assertThrows(SQLException.class, pool::getConnection);
+
+            a.close();
+            a.close(); // doppeltes Schließen gibt nicht zweimal zurück
+            assertTrue(a.isClosed());
+            assertThrows(SQLException.class, () -> a.prepareStatement("SELECT 1"));
+            try (Connection c = pool.getConnection()) {
+                assertEquals(2, pool.metrics().active());
+            }
+            b.close();
+            assertEquals(2, opened.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Pool: ungültige Verbindungen werden verworfen, offene Transaktionen zurückgerollt")
+    void healthCheckAndReset() throws SQLException {
+        try (PostgresConnectionPool pool = pool(1, 1000, 60_000, 0)) {
+            try (Connection con = pool.getConnection()) {
+                con.setAutoCommit(false);
+            }
+            FakeConnection first = opened.get(0);
+            assertEquals(1, first.rollbacks);
+            assertTrue(first.autoCommit);
+
+            first.valid = false;
+            try (Connection ignored = pool.getConnection()) {
+                assertEquals(2, opened.size());
+            }
+            assertTrue(first.closed);
+            assertEquals(1, pool.metrics().evicted());
+        }
+    }
+
+    @Test
+    @DisplayName("Pool: Verbindungen, die länger als idleTimeout ungenutzt sind, werden geschlossen")
+    void evictsIdleConnections() throws Exception {
+        try (PostgresConnectionPool pool = pool(2, 1000, 20, 60_000)) {
+            pool.getConnection().close();
+            Thread.sleep(40);
+            pool.evictIdle();
+            assertEquals(0, pool.metrics().idle());
+            assertTrue(opened.get(0).closed);
+        }
+    }
+}
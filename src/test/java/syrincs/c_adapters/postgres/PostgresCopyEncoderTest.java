@@ -0,0 +1,74 @@
+package syrincs.c_adapters.postgres;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostgresCopyEncoderTest {
+
+    private static final int INT4_OID = 23;
+    private static final PostgresCopyEncoder.Layout LAYOUT =
+            new PostgresCopyEncoder.Layout(new int[]{8, -1, 4, 4, 4, 4, 2, 2, 2, 2}, INT4_OID);
+
+    @Test
+    @DisplayName("COPY text: eine Zeile je Akkord, Tabs, int4[]-Literal und \\N für fehlende Gruppe")
+    void textFormat() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PostgresCopyEncoder encoder = new PostgresCopyEncoder(out, false, PostgresCopyEncoder.Layout.TEXT);
+        encoder.writeHeader();
+        encoder.writeRow(41, new int[]{0, 60, 64, 67}, 1, 3, 60, 1);
+        encoder.writeRow(42, new int[]{62, 65, 71}, 0, 3, 71, null);
+        encoder.writeTrailer();
+        assertEquals("41\t{60,64,67}\t3\t60\t67\t60\t1\t145\t152\t0\n42\t{62,65,71}\t3\t62\t71\t71\t\\N\t2084\t584\t11\n",
+                out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("COPY binary: Signatur, Feldbreiten nach Spaltentyp, eindimensionales int4-Array, Trailer -1")
+    void binaryFormat() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PostgresCopyEncoder encoder = new PostgresCopyEncoder(out, true, LAYOUT);
+        encoder.writeHeader();
+        encoder.writeRow(7, new int[]{60, 64, 67}, 0, 3, 60, 1);
+        encoder.writeTrailer();
+
+        ByteBuffer b = ByteBuffer.wrap(out.toByteArray());
+        byte[] signature = new byte[11];
+        b.get(signature);
+        assertArrayEquals("PGCOPY\nÿ\r\n\0".getBytes(StandardCharsets.ISO_8859_1), signature);
+        assertEquals(0, b.getInt());
+        assertEquals(0, b.getInt());
+
+        assertEquals(10, b.getShort());
+        assertEquals(8, b.getInt());
+        assertEquals(7L, b.getLong());
+        assertEquals(20 + 8 * 3, b.getInt());
+        assertEquals(1, b.getInt());
+        assertEquals(0, b.getInt());
+        assertEquals(INT4_OID, b.getInt());
+        assertEquals(3, b.getInt());
+        assertEquals(1, b.getInt());
+        for (int note : new int[]{60, 64, 67}) {
+            assertEquals(4, b.getInt());
+            assertEquals(note, b.getInt());
+        }
+        for (int value : new int[]{3, 60, 67, 60}) {
+            assertEquals(4, b.getInt());
+            assertEquals(value, b.getInt());
+        }
+        assertEquals(2, b.getInt());
+        assertEquals(1, b.getShort());
+        for (int value : new int[]{145, 152, 0}) { // Tonklassen {0, 4, 7}, Intervalle {3, 4, 7}, Grundton-Tonklasse
+            assertEquals(2, b.getInt());
+            assertEquals(value, b.getShort());
+        }
+        assertEquals(-1, b.getShort());
+        assertFalse(b.hasRemaining());
+    }
+}
@@ -0,0 +1,182 @@
+package syrincs.c_adapters.postgres;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syrincs.a_domain.chord.ChordBatch;
+import syrincs.b_application.ports.BulkLoadMode;
+import syrincs.b_application.ports.ChordQuery;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostgresSchemaTest {
+
+    private static final String PARTITION = "hindemithchords_n[a-z0-9]+_h\\d";
+    // Spaltenlisten der Indizes, die mainQueriesUseIndexScans im Plan erwartet
+    private static final List<String> EXPLAINED_INDEXES = List.of("rootnote_chordgroup_numnotes", "chordgroup_numnotes",
+            "rootnote_span", "rootpitchclass_chordgroup", "pitchclassmask");
+
+    @Test
+    @DisplayName("Schema: Migrationen sind lückenlos ab Version 1 nummeriert")
+    void migrationsAreNumberedWithoutGaps() {
+        for (int i = 0; i < PostgresSchema.MIGRATIONS.size(); i++) {
+            assertEquals(i + 1, PostgresSchema.MIGRATIONS.get(i).version());
+            assertFalse(PostgresSchema.MIGRATIONS.get(i).statements().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Schema: je Akkordgröße eine Listenpartition mit Hash-Unterpartitionen, übrige Größen in DEFAULT")
+    void partitionLayout() {
+        assertEquals("public.hindemithChords_n4", PostgresSchema.numNotesPartition(4));
+        assertNull(PostgresSchema.numNotesPartition(7));
+        List<String> statements = PostgresSchema.MIGRATIONS.get(5).statements();
+        long leaves = statements.stream().filter(sql -> sql.contains("FOR VALUES WITH (MODULUS 4")).count();
+        assertEquals((PostgresSchema.NUM_NOTES_PARTITIONS.size() + 1) * PostgresSchema.ROOT_PITCH_CLASS_PARTITIONS, leaves);
+    }
+
+    @Test
+    @DisplayName("Schema: die im EXPLAIN-Test erwarteten Indizes werden von der Partitions-Migration angelegt")
+    void explainedIndexesExist() {
+        // Postgres benennt Partitionsindizes nach den Spalten; so fällt eine Umbenennung auch ohne Test-DB auf
+        Set<String> created = new HashSet<>();
+        Matcher m = Pattern.compile("CREATE INDEX \\w+ ON public\\.hindemithChords \\(([^)]+)\\)").matcher("");
+        for (String sql : PostgresSchema.MIGRATIONS.get(5).statements()) {
+            if (m.reset(sql).matches()) created.add(m.group(1).toLowerCase(Locale.ROOT).replace(", ", "_"));
+        }
+        for (String columns : EXPLAINED_INDEXES) {
+            assertTrue(created.contains(columns), columns + " not in " + created);
+        }
+    }
+
+    @Test
+    @DisplayName("Schema: Hauptabfragen laufen über Indizes (EXPLAIN, nur mit lokaler Test-DB)")
+    void mainQueriesUseIndexScans() throws SQLException {
+        try (Connection con = testDatabase()) {
+            assertEquals(PostgresSchema.latestVersion(), PostgresSchema.migrate(con));
+            assertEquals(PostgresSchema.latestVersion(), PostgresSchema.migrate(con)); // idempotent
+
+            try (Statement st = con.createStatement()) {
+                // Auf der (fast) leeren Testtabelle wäre ein Seq Scan billiger; geprüft wird, dass ein Index passt
+                st.execute("SET enable_seqscan = off");
+            }
+            assertUsesIndex(con, ChordQuery.ALL.withRootNote(60).withGroups(List.of(1, 2)).withNumNotes(List.of(3)),
+                    "rootnote_chordgroup_numnotes");
+            assertUsesIndex(con, ChordQuery.ALL.withGroups(List.of(4)), "chordgroup_numnotes");
+            assertUsesIndex(con, ChordQuery.ALL.withRootNote(60).withMaxSpan(12), "rootnote_span");
+            assertUsesIndex(con, ChordQuery.ALL.withRootPitchClass(0).withGroups(List.of(1)),
+                    "rootpitchclass_chordgroup");
+            assertUsesIndex(con, ChordQuery.ALL.withPitchClassesWithin(0b1010_1011_0101),
+                    "pitchclassmask");
+
+            // Größe und Grundton festgelegt: genau eine Blattpartition wird gelesen
+            String plan = explain(con, ChordQuery.ALL.withRootNote(60).withNumNotes(List.of(4)).withGroups(List.of(1)));
+            Set<String> partitions = new HashSet<>();
+            Matcher m = Pattern.compile(PARTITION).matcher(plan);
+            while (m.find()) partitions.add(m.group());
+            assertEquals(1, partitions.size(), plan);
+            assertTrue(partitions.iterator().next().startsWith("hindemithchords_n4_h"), plan);
+        }
+    }
+
+    @Test
+    @DisplayName("Schema: notes ist int4[] mit dem Elementtyp, den das binäre COPY schreibt (nur mit lokaler Test-DB)")
+    void notesAreInt4Array() throws SQLException {
+        try (Connection con = testDatabase()) {
+            PostgresSchema.migrate(con);
+            String sql = "SELECT t.typelem = 'int4'::regtype::oid FROM pg_attribute a JOIN pg_type t ON t.oid = a.atttypid " +
+                    "WHERE a.attrelid = 'public.hindemithChords'::regclass AND a.attname = 'notes'";
+            try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+                assertTrue(rs.next());
+                assertTrue(rs.getBoolean(1));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Schema: ids aller Schreibwege sind über alle Partitionen eindeutig (nur mit lokaler Test-DB)")
+    void idsAreUniqueAcrossPartitions() throws SQLException {
+        try (Connection con = testDatabase()) {
+            PostgresSchema.migrate(con);
+            List<Long> written = new ArrayList<>();
+            try (PostgresHindemithChordRepository repository = new PostgresHindemithChordRepository(
+                    new PostgresConnectionPool(PostgresSchemaTest::testDatabase, PostgresConnectionPool.Config.ofSize(1)))) {
+                for (BulkLoadMode mode : BulkLoadMode.values()) {
+                    // Verschiedene Größen und Grundtöne: die Zeilen landen in verschiedenen Blattpartitionen
+                    for (int numNotes = 3; numNotes <= 6; numNotes++) {
+                        ChordBatch batch = new ChordBatch(numNotes, 12);
+                        for (int root = 0; root < 12; root++) {
+                            int[] notes = new int[numNotes];
+                            for (int i = 0; i < numNotes; i++) notes[i] = 48 + root + 2 * i;
+                            batch.add(notes, 0, 48 + root, 1);
+                        }
+                        for (long id : repository.saveBatch(batch, mode)) written.add(id);
+                    }
+                }
+            }
+            try (PreparedStatement ps = con.prepareStatement(
+                    "SELECT count(*), count(DISTINCT id) FROM public.hindemithChords WHERE id = ANY(?)")) {
+                ps.setArray(1, con.createArrayOf("int8", written.toArray()));
+                try (ResultSet rs = ps.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(written.size(), rs.getLong(1));
+                    assertEquals(written.size(), rs.getLong(2));
+                }
+            } finally {
+                try (PreparedStatement ps = con.prepareStatement("DELETE FROM public.hindemithChords WHERE id = ANY(?)")) {
+                    ps.setArray(1, con.createArrayOf("int8", written.toArray()));
+                    ps.executeUpdate();
+                }
+            }
+            assertEquals(written.size(), new HashSet<>(written).size());
+        }
+    }
+
+    // Indizes der Elterntabelle heißen auf den Partitionen <partition>_<spalten>_idx
+    private static void assertUsesIndex(Connection con, ChordQuery query, String columns) throws SQLException {
+        String plan = explain(con, query);
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertTrue(Pattern.compile(PARTITION + "_" + columns + "_idx").matcher(plan).find(), plan);
+    }
+
+    private static String explain(Connection con, ChordQuery query) throws SQLException {
+        ChordQuerySql compiled = ChordQuerySql.compile(query, null);
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + compiled.sql())) {
+            compiled.bind(con, ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    // Nur eine eigens dafür angelegte Datenbank verwenden: die Migrationen legen dort die Tabellen an
+    private static Connection testDatabase() {
+        String url = System.getenv("HINDEMITH_TEST_DB_URL");
+        Assumptions.assumeTrue(url != null && !url.isBlank(),
+                "[DB] HINDEMITH_TEST_DB_URL not set. Skipping EXPLAIN test.");
+        String user = System.getenv().getOrDefault("HINDEMITH_TEST_DB_USER", "syrincs");
+        String password = System.getenv().getOrDefault("HINDEMITH_TEST_DB_PASSWORD", "syrincs");
+        try {
+            return DriverManager.getConnection(url, user, password);
+        } catch (SQLException e) {
+            Assumptions.abort("[DB] No test database at " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+}